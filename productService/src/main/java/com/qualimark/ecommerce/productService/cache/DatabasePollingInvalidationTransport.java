@@ -0,0 +1,137 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import com.qualimark.ecommerce.productService.model.OutboxEvent;
+import com.qualimark.ecommerce.productService.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport sans broker : chaque réplica interroge la table outbox partagée
+ *
+ * Toute écriture de ProductService insère déjà un événement outbox dans sa
+ * transaction ; cet événement sert de message d'invalidation. L'envoi est donc
+ * un no-op et la réception lit les événements postérieurs au dernier vu.
+ * Les invalidations émises par cette instance sont relues : elles sont idempotentes.
+ *
+ * Les IDs de l'outbox deviennent visibles au commit, pas forcément dans
+ * l'ordre : un ID sauté peut appartenir à une transaction encore en cours.
+ * Les index en mémoire n'expirent pas, un événement manqué ne serait jamais
+ * réparé : chaque ID sauté est donc relu à chaque passage jusqu'à son
+ * apparition, ou jusqu'à {@code product.sync.commit-lag} (transaction annulée).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "product.cache.invalidation.transport", havingValue = "database")
+public class DatabasePollingInvalidationTransport implements InvalidationTransport {
+
+    /**
+     * Nombre maximal d'IDs sautés suivis ; au-delà, les plus anciens sont abandonnés
+     */
+    private static final int MAX_PENDING_IDS = 10_000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final int batchSize;
+    private final Duration commitLag;
+    private final List<Consumer<ProductInvalidation>> receivers = new CopyOnWriteArrayList<>();
+    /**
+     * IDs sautés, dans l'ordre croissant, associés à l'instant (System.nanoTime) où ils cessent d'être attendus
+     */
+    private final LinkedHashMap<Long, Long> pendingIds = new LinkedHashMap<>();
+    private long lastSeenId = -1;
+
+    public DatabasePollingInvalidationTransport(OutboxEventRepository outboxEventRepository,
+                                                @Value("${product.cache.invalidation.poll.batch-size:500}") int batchSize,
+                                                @Value("${product.sync.commit-lag:PT10S}") Duration commitLag) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.batchSize = batchSize;
+        this.commitLag = commitLag;
+    }
+
+    @Override
+    public String name() {
+        return "database";
+    }
+
+    @Override
+    public void send(ProductInvalidation invalidation) {
+        // L'événement outbox écrit dans la transaction tient lieu de message
+    }
+
+    @Override
+    public void subscribe(Consumer<ProductInvalidation> receiver) {
+        receivers.add(receiver);
+    }
+
+    /**
+     * Lit et diffuse les événements outbox apparus depuis le dernier passage
+     */
+    @Scheduled(fixedDelayString = "${product.cache.invalidation.poll.interval-ms:200}")
+    public synchronized void poll() {
+        if (lastSeenId < 0) {
+            // Au démarrage les caches sont vides : seules les transactions pouvant encore valider comptent
+            lastSeenId = outboxEventRepository.findTopByOccurredAtBeforeOrderByIdDesc(LocalDateTime.now().minus(commitLag))
+                    .map(OutboxEvent::getId).orElse(0L);
+            return;
+        }
+
+        long now = System.nanoTime();
+        pollPendingIds(now);
+        List<OutboxEvent> events;
+        do {
+            events = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(lastSeenId, PageRequest.of(0, batchSize));
+            for (OutboxEvent event : events) {
+                // Au-delà de MAX_PENDING_IDS, seuls les IDs sautés les plus récents seraient gardés
+                for (long id = Math.max(lastSeenId + 1, event.getId() - MAX_PENDING_IDS); id < event.getId(); id++) {
+                    addPendingId(id, now + commitLag.toNanos());
+                }
+                publish(event);
+                lastSeenId = event.getId();
+            }
+        } while (events.size() == batchSize);
+    }
+
+    /**
+     * Relit les IDs sautés : ceux validés depuis sont diffusés, ceux échus sont abandonnés
+     */
+    private void pollPendingIds(long now) {
+        pendingIds.values().removeIf(deadline -> deadline - now < 0);
+        if (pendingIds.isEmpty()) {
+            return;
+        }
+        for (OutboxEvent event : outboxEventRepository.findAllById(List.copyOf(pendingIds.keySet()))) {
+            publish(event);
+            pendingIds.remove(event.getId());
+        }
+    }
+
+    private void addPendingId(long id, long deadline) {
+        if (pendingIds.size() == MAX_PENDING_IDS) {
+            Long oldest = pendingIds.keySet().iterator().next();
+            pendingIds.remove(oldest);
+            log.warn("Trop d'IDs outbox en attente, l'ID {} n'est plus attendu", oldest);
+        }
+        pendingIds.put(id, deadline);
+    }
+
+    private void publish(OutboxEvent event) {
+        ProductInvalidation invalidation = new ProductInvalidation(
+                event.getProductId(),
+                event.getVersion(),
+                null,
+                event.getOccurredAt().atZone(ZoneId.systemDefault()).toInstant()
+        );
+        receivers.forEach(receiver -> receiver.accept(invalidation));
+    }
+}
@@ -0,0 +1,100 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bus d'invalidation des états dérivés des produits entre les réplicas
+ *
+ * Une écriture diffuse après commit une invalidation (id, version) : elle est
+ * appliquée immédiatement aux listeners locaux puis transmise aux autres réplicas
+ * par le {@link InvalidationTransport} configuré.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    private final String origin = UUID.randomUUID().toString();
+    private final InvalidationTransport transport;
+    private final List<ProductInvalidationListener> listeners;
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+    private final Timer lagTimer;
+
+    public InvalidationBus(InvalidationTransport transport,
+                           List<ProductInvalidationListener> listeners,
+                           MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.listeners = listeners;
+        this.sentCounter = Counter.builder("product.cache.invalidations")
+                .tag("transport", transport.name())
+                .tag("direction", "sent")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("product.cache.invalidations")
+                .tag("transport", transport.name())
+                .tag("direction", "received")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("product.cache.invalidation.lag")
+                .description("Délai entre l'émission d'une invalidation et sa réception par un autre réplica")
+                .tag("transport", transport.name())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        transport.subscribe(this::receive);
+    }
+
+    /**
+     * Diffuse l'invalidation d'un produit, après le commit de la transaction en cours s'il y en a une
+     *
+     * @param productId L'ID du produit modifié
+     * @param version   La version du produit après modification (null pour une suppression)
+     */
+    public void broadcast(Long productId, Long version) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(productId, version);
+                }
+            });
+        } else {
+            dispatch(productId, version);
+        }
+    }
+
+    private void dispatch(Long productId, Long version) {
+        ProductInvalidation invalidation = new ProductInvalidation(productId, version, origin, Instant.now());
+        deliver(invalidation);
+        transport.send(invalidation);
+        sentCounter.increment();
+    }
+
+    private void receive(ProductInvalidation invalidation) {
+        if (origin.equals(invalidation.origin())) {
+            return;
+        }
+        receivedCounter.increment();
+        Duration lag = Duration.between(invalidation.issuedAt(), Instant.now());
+        lagTimer.record(lag.isNegative() ? Duration.ZERO : lag);
+        deliver(invalidation);
+    }
+
+    private void deliver(ProductInvalidation invalidation) {
+        for (ProductInvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidation(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Échec de l'invalidation du produit {} par {}", invalidation.productId(), listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
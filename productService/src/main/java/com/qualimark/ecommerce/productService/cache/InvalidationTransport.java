@@ -0,0 +1,28 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport des invalidations entre les réplicas du service
+ */
+public interface InvalidationTransport {
+
+    /**
+     * @return Le nom du transport, utilisé comme tag des métriques
+     */
+    String name();
+
+    /**
+     * Diffuse une invalidation aux autres réplicas
+     *
+     * @param invalidation L'invalidation à diffuser
+     */
+    void send(ProductInvalidation invalidation);
+
+    /**
+     * Enregistre le récepteur des invalidations provenant des réplicas
+     *
+     * @param receiver Le récepteur
+     */
+    void subscribe(Consumer<ProductInvalidation> receiver);
+}
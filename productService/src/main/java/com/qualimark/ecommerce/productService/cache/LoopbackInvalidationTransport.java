@@ -0,0 +1,36 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport en mémoire : diffuse les invalidations à tous les bus abonnés dans la même JVM
+ *
+ * Transport par défaut pour une instance unique et pour les tests, où plusieurs
+ * bus partageant ce transport simulent plusieurs réplicas.
+ */
+@Component
+@ConditionalOnProperty(name = "product.cache.invalidation.transport", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<ProductInvalidation>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String name() {
+        return "loopback";
+    }
+
+    @Override
+    public void send(ProductInvalidation invalidation) {
+        receivers.forEach(receiver -> receiver.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<ProductInvalidation> receiver) {
+        receivers.add(receiver);
+    }
+}
@@ -0,0 +1,159 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.profiling.ProductCacheEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Cache en mémoire des produits par ID
+ *
+ * Les entrées sont invalidées par le {@link InvalidationBus} à chaque écriture,
+ * sur cette instance comme sur les autres réplicas. L'expiration borne la durée
+ * d'obsolescence si une invalidation est perdue. Les chargements concurrents
+ * d'un même produit absent du cache sont regroupés en une seule requête.
+ *
+ * Une invalidation reçue pendant un chargement est notée sur ce chargement :
+ * le produit lu avant l'écriture n'est alors pas conservé en cache, même si
+ * l'entrée était absente au moment de l'invalidation.
+ */
+@Component
+public class ProductCache implements ProductInvalidationListener, MeterBinder {
+
+    private final Cache<Long, Product> cache;
+    private final SingleFlight<Long, Product> loads = new SingleFlight<>();
+    private final ConcurrentMap<Long, PendingLoad> pendingLoads = new ConcurrentHashMap<>();
+
+    public ProductCache(@Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param id L'ID du produit
+     * @return Le produit en cache, ou null
+     */
+    public Product get(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Récupère un produit du cache ou le charge, une seule fois pour tous les appelants concurrents
+     *
+     * @param id     L'ID du produit
+     * @param loader Le chargement depuis la base, qui retourne null si le produit n'existe pas
+     * @return Le produit, ou null s'il n'existe pas
+     */
+    public Product getOrLoad(Long id, Function<Long, Product> loader) {
+        Product cached = cache.getIfPresent(id);
+        ProductCacheEvent event = new ProductCacheEvent();
+        if (event.shouldCommit()) {
+            event.productId = id;
+            event.hit = cached != null;
+            event.commit();
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        return loads.load(id, key -> {
+            // Un chargement concurrent a pu se terminer entre-temps
+            Product loaded = cache.getIfPresent(key);
+            if (loaded == null) {
+                loaded = loadAndCache(key, loader);
+            }
+            return loaded;
+        });
+    }
+
+    private Product loadAndCache(Long id, Function<Long, Product> loader) {
+        PendingLoad pending = new PendingLoad();
+        pendingLoads.put(id, pending);
+        Product loaded = null;
+        try {
+            loaded = loader.apply(id);
+        } finally {
+            Product result = loaded;
+            // Sous le verrou de la clé : une invalidation passe avant (le produit lu est écarté)
+            // ou après (elle trouve l'entrée en cache et l'évalue elle-même)
+            pendingLoads.compute(id, (key, current) -> {
+                if (current != pending) {
+                    // Remplacé par un autre chargement : les invalidations ne sont plus notées ici
+                    return current;
+                }
+                if (result != null && !(pending.invalidated && isStale(result, pending.version))) {
+                    cache.put(key, result);
+                }
+                return null;
+            });
+        }
+        return loaded;
+    }
+
+    public void put(Product product) {
+        cache.put(product.getId(), product);
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Retire l'entrée si elle est antérieure à la version invalidée
+     */
+    @Override
+    public void onInvalidation(ProductInvalidation invalidation) {
+        pendingLoads.computeIfPresent(invalidation.productId(), (id, pending) -> {
+            pending.invalidate(invalidation.version());
+            return pending;
+        });
+        cache.asMap().computeIfPresent(invalidation.productId(), (id, cached) ->
+                isStale(cached, invalidation.version()) ? null : cached);
+    }
+
+    private static boolean isStale(Product cached, Long invalidatedVersion) {
+        return invalidatedVersion == null
+                || cached.getVersion() == null
+                || cached.getVersion() < invalidatedVersion;
+    }
+
+    /**
+     * Chargement en cours d'un produit et plus haute version invalidée pendant ce chargement
+     *
+     * Modifié et lu sous le verrou de la clé dans {@code pendingLoads}.
+     */
+    private static final class PendingLoad {
+
+        private boolean invalidated;
+        /** null pour une suppression, qui rend obsolète toute version */
+        private Long version;
+
+        void invalidate(Long invalidatedVersion) {
+            if (!invalidated) {
+                invalidated = true;
+                version = invalidatedVersion;
+            } else if (version != null && (invalidatedVersion == null || invalidatedVersion > version)) {
+                version = invalidatedVersion;
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "products");
+    }
+}
@@ -0,0 +1,14 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import java.time.Instant;
+
+/**
+ * Message compact d'invalidation d'un produit diffusé entre les réplicas
+ *
+ * @param productId L'ID du produit modifié ou supprimé
+ * @param version   La version du produit après modification (null : invalidation inconditionnelle)
+ * @param origin    L'identifiant de l'instance émettrice (null si inconnu)
+ * @param issuedAt  La date d'émission, utilisée pour mesurer le délai de propagation
+ */
+public record ProductInvalidation(Long productId, Long version, String origin, Instant issuedAt) {
+}
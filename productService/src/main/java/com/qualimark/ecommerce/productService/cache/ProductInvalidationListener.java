@@ -0,0 +1,16 @@
+package com.qualimark.ecommerce.productService.cache;
+
+/**
+ * Composant maintenant un état dérivé des produits qui doit être invalidé
+ * lorsqu'un produit est modifié, sur cette instance ou sur une autre
+ */
+public interface ProductInvalidationListener {
+
+    /**
+     * Traite une invalidation. Peut être appelé plusieurs fois pour la même
+     * modification : l'implémentation doit être idempotente.
+     *
+     * @param invalidation L'invalidation reçue
+     */
+    void onInvalidation(ProductInvalidation invalidation);
+}
@@ -0,0 +1,129 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qualimark.ecommerce.productService.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache des réponses JSON déjà sérialisées, par produit et par version
+ *
+ * La lecture d'un produit par ID écrit directement ces octets au lieu de
+ * repasser par Jackson à chaque requête. La variante gzip est calculée à la
+ * première demande puis conservée. Les entrées sont invalidées par le
+ * {@link InvalidationBus} et ne sont servies que pour la version exacte du produit.
+ */
+@Component
+public class ProductResponseCache implements ProductInvalidationListener, MeterBinder {
+
+    private final ObjectWriter productWriter;
+    private final Cache<Long, SerializedProduct> cache;
+
+    public ProductResponseCache(ObjectMapper objectMapper,
+                                @Value("${product.cache.response.maximum-size:10000}") long maximumSize) {
+        this.productWriter = objectMapper.writerFor(Product.class);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retourne la réponse sérialisée d'un produit, en la calculant si nécessaire
+     *
+     * @param product Le produit à sérialiser
+     * @return La réponse sérialisée correspondant à la version du produit
+     */
+    public SerializedProduct get(Product product) {
+        if (product.getId() == null || product.getVersion() == null) {
+            // Sans version, impossible de savoir si une entrée est à jour
+            return serialize(product);
+        }
+
+        SerializedProduct cached = cache.getIfPresent(product.getId());
+        if (cached != null && cached.version() == product.getVersion()) {
+            return cached;
+        }
+
+        SerializedProduct serialized = serialize(product);
+        cache.put(product.getId(), serialized);
+        return serialized;
+    }
+
+    @Override
+    public void onInvalidation(ProductInvalidation invalidation) {
+        cache.asMap().computeIfPresent(invalidation.productId(), (id, cached) ->
+                invalidation.version() == null || cached.version() < invalidation.version() ? null : cached);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "product-responses");
+    }
+
+    private SerializedProduct serialize(Product product) {
+        try {
+            long version = product.getVersion() != null ? product.getVersion() : -1;
+            return new SerializedProduct(version, productWriter.writeValueAsBytes(product));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation impossible du produit " + product.getId(), e);
+        }
+    }
+
+    /**
+     * Réponse JSON UTF-8 d'une version d'un produit
+     */
+    public static final class SerializedProduct {
+
+        private final long version;
+        private final byte[] json;
+        private volatile byte[] gzip;
+
+        SerializedProduct(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        /**
+         * @return La réponse compressée en gzip, calculée au premier appel
+         */
+        public byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = compress(json);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+
+        private static byte[] compress(byte[] data) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 2 + 32);
+            try (GZIPOutputStream gzipStream = new GZIPOutputStream(buffer)) {
+                gzipStream.write(data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Évince du cache de second niveau Hibernate les produits modifiés
+ *
+ * Hibernate met à jour lui-même le cache pour les écritures de cette
+ * instance ; les écritures des autres réplicas ne lui sont connues que par
+ * le {@link InvalidationBus}. Le produit est évincé : pour une écriture
+ * locale, cela coûte au plus un rechargement.
+ */
+@Component
+public class SecondLevelCacheInvalidator implements ProductInvalidationListener {
+
+    private final Cache cache;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @Override
+    public void onInvalidation(ProductInvalidation invalidation) {
+        cache.evictEntityData(Product.class, invalidation.productId());
+    }
+}
@@ -0,0 +1,70 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Regroupement des chargements concurrents d'une même clé ("single-flight")
+ *
+ * Le premier appelant pour une clé exécute le chargement ; les appelants
+ * concurrents pour la même clé attendent ce chargement et reçoivent son
+ * résultat ou son exception au lieu de le répéter. Une fois terminé, le
+ * chargement est oublié : l'appel suivant en lance un nouveau.
+ *
+ * @param <K> Le type de clé
+ * @param <V> Le type de valeur chargée
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Charge la valeur d'une clé, en partageant le chargement déjà en cours s'il y en a un
+     *
+     * @param key    La clé à charger
+     * @param loader Le chargement à exécuter si aucun n'est en cours
+     * @return La valeur chargée (peut être null)
+     */
+    public V load(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.apply(key);
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * @return Le nombre de chargements en cours
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
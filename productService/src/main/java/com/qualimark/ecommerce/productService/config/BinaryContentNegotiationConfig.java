@@ -0,0 +1,32 @@
+package com.qualimark.ecommerce.productService.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Encodages binaires des réponses pour les appels entre services
+ *
+ * Un client envoyant {@code Accept: application/x-jackson-smile} ou
+ * {@code Accept: application/cbor} reçoit le même contrat que le JSON (mêmes
+ * noms de champs, BigDecimal avec son échelle, dates ISO-8601) dans un
+ * encodage binaire plus compact et moins coûteux à produire et à analyser.
+ * Les mappers sont construits avec la configuration Jackson de l'application.
+ */
+@Configuration
+public class BinaryContentNegotiationConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,66 @@
+package com.qualimark.ecommerce.productService.config;
+
+import com.qualimark.ecommerce.productService.limiter.AdaptiveConcurrencyLimiter;
+import com.qualimark.ecommerce.productService.limiter.ConcurrencyLimitFilter;
+import com.qualimark.ecommerce.productService.limiter.EndpointGroup;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration de la limite de concurrence adaptative
+ *
+ * Chaque groupe d'endpoints (lectures, recherches, écritures) dispose de son
+ * propre limiteur, dont la limite, les requêtes en cours et les rejets sont
+ * publiés sous {@code product.concurrency.*}.
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "product.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(concurrencyLimiters(properties, meterRegistry), properties.retryAfter()));
+        registration.addUrlPatterns("/api/products", "/api/products/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private Map<EndpointGroup, AdaptiveConcurrencyLimiter> concurrencyLimiters(ConcurrencyLimitProperties properties,
+                                                                               MeterRegistry meterRegistry) {
+        Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+        for (EndpointGroup group : EndpointGroup.values()) {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    properties.initialLimit(),
+                    properties.minLimit(),
+                    properties.maxLimit(),
+                    properties.latencyThreshold(),
+                    properties.backoffRatio()
+            );
+            String tag = group.name().toLowerCase();
+            Gauge.builder("product.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("group", tag)
+                    .register(meterRegistry);
+            Gauge.builder("product.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("group", tag)
+                    .register(meterRegistry);
+            FunctionCounter.builder("product.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("group", tag)
+                    .register(meterRegistry);
+            limiters.put(group, limiter);
+        }
+        return limiters;
+    }
+}
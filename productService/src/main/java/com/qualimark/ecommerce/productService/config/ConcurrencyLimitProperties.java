@@ -0,0 +1,27 @@
+package com.qualimark.ecommerce.productService.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration de la limite de concurrence adaptative devant l'API produits
+ *
+ * @param enabled          Active la limitation
+ * @param initialLimit     Limite initiale de requêtes simultanées par groupe d'endpoints
+ * @param minLimit         Limite minimale
+ * @param maxLimit         Limite maximale
+ * @param latencyThreshold Latence au-delà de laquelle la limite est réduite
+ * @param backoffRatio     Facteur multiplicatif appliqué à la limite lors d'une réduction
+ * @param retryAfter       Délai suggéré aux clients rejetés
+ */
+@ConfigurationProperties(prefix = "product.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("20") int initialLimit,
+                                         @DefaultValue("2") int minLimit,
+                                         @DefaultValue("200") int maxLimit,
+                                         @DefaultValue("250ms") Duration latencyThreshold,
+                                         @DefaultValue("0.9") double backoffRatio,
+                                         @DefaultValue("1s") Duration retryAfter) {
+}
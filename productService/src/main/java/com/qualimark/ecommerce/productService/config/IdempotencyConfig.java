@@ -0,0 +1,45 @@
+package com.qualimark.ecommerce.productService.config;
+
+import com.qualimark.ecommerce.productService.idempotency.IdempotencyFilter;
+import com.qualimark.ecommerce.productService.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration des clés d'idempotence
+ *
+ * Le filtre passe avant la limite de concurrence : un rejeu est servi sans
+ * consommer de place dans le groupe des écritures.
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "product.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        IdempotencyStore store = new IdempotencyStore(properties.maximumSize(), properties.ttl());
+        Gauge.builder("product.idempotency.keys", store, IdempotencyStore::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("product.idempotency.replayed", store, IdempotencyStore::getReplayed)
+                .register(meterRegistry);
+        return store;
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+                                                                       IdempotencyProperties properties) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyStore, properties.waitTimeout()));
+        registration.addUrlPatterns("/api/products", "/api/products/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
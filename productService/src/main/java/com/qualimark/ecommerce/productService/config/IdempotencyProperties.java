@@ -0,0 +1,21 @@
+package com.qualimark.ecommerce.productService.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration des clés d'idempotence sur les écritures de l'API produits
+ *
+ * @param enabled     Active la prise en compte de l'en-tête Idempotency-Key
+ * @param maximumSize Nombre maximal de réponses mémorisées (hors exécutions en cours)
+ * @param ttl         Durée de conservation d'une réponse
+ * @param waitTimeout Attente maximale d'un doublon sur l'exécution en cours
+ */
+@ConfigurationProperties(prefix = "product.idempotency")
+public record IdempotencyProperties(@DefaultValue("true") boolean enabled,
+                                    @DefaultValue("10000") long maximumSize,
+                                    @DefaultValue("PT24H") Duration ttl,
+                                    @DefaultValue("10s") Duration waitTimeout) {
+}
@@ -0,0 +1,24 @@
+package com.qualimark.ecommerce.productService.config;
+
+import com.qualimark.ecommerce.productService.profiling.JfrRecordingEndpoint;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration du profilage à la demande
+ *
+ * L'endpoint {@code jfr} n'est créé que s'il est exposé. Les événements JFR du
+ * service sont émis en permanence mais ne coûtent rien hors enregistrement.
+ */
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class ProfilingConfig {
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public JfrRecordingEndpoint jfrRecordingEndpoint(ProfilingProperties properties) {
+        return new JfrRecordingEndpoint(properties);
+    }
+}
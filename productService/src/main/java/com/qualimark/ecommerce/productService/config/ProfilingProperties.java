@@ -0,0 +1,22 @@
+package com.qualimark.ecommerce.productService.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration des enregistrements JFR à la demande
+ *
+ * @param defaultDuration Durée d'un enregistrement si la requête n'en précise pas
+ * @param maxDuration     Durée maximale acceptée
+ * @param maxSize         Taille maximale d'un enregistrement ; les événements les plus anciens sont écartés au-delà
+ * @param settings        Configuration JFR par défaut : {@code default} ou {@code profile}
+ */
+@ConfigurationProperties(prefix = "product.profiling")
+public record ProfilingProperties(@DefaultValue("30s") Duration defaultDuration,
+                                  @DefaultValue("5m") Duration maxDuration,
+                                  @DefaultValue("256MB") DataSize maxSize,
+                                  @DefaultValue("default") String settings) {
+}
@@ -0,0 +1,60 @@
+package com.qualimark.ecommerce.productService.config;
+
+import com.qualimark.ecommerce.productService.limiter.ClientRateLimiter;
+import com.qualimark.ecommerce.productService.limiter.EndpointGroup;
+import com.qualimark.ecommerce.productService.limiter.RateLimitFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration de la limitation de débit par client
+ *
+ * Le filtre passe avant la limite de concurrence : un client trop gourmand est
+ * rejeté sans occuper de place dans son groupe d'endpoints. Les rejets sont
+ * publiés sous {@code product.ratelimit.throttled}.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "product.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(clientRateLimiter(properties, meterRegistry), properties.apiKeyHeader(), properties.apiKeys()));
+        registration.addUrlPatterns("/api/products", "/api/products/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 7);
+        return registration;
+    }
+
+    private ClientRateLimiter clientRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        int[] costs = new int[EndpointGroup.values().length];
+        costs[EndpointGroup.READ.ordinal()] = properties.costs().read();
+        costs[EndpointGroup.SEARCH.ordinal()] = properties.costs().search();
+        costs[EndpointGroup.WRITE.ordinal()] = properties.costs().write();
+
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(
+                properties.tokensPerSecond(),
+                properties.capacity(),
+                properties.maximumClients(),
+                properties.idleTimeout(),
+                costs
+        );
+        for (EndpointGroup group : EndpointGroup.values()) {
+            FunctionCounter.builder("product.ratelimit.throttled", rateLimiter, limiter -> limiter.getThrottled(group))
+                    .tag("group", group.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("product.ratelimit.clients", rateLimiter, ClientRateLimiter::getTrackedClients)
+                .register(meterRegistry);
+        return rateLimiter;
+    }
+}
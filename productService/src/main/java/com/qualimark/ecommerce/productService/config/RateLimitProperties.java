@@ -0,0 +1,40 @@
+package com.qualimark.ecommerce.productService.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Configuration de la limitation de débit par client de l'API produits
+ *
+ * @param enabled         Active la limitation
+ * @param tokensPerSecond Jetons régénérés par seconde pour chaque client
+ * @param capacity        Nombre maximal de jetons d'un client (rafale autorisée)
+ * @param maximumClients  Nombre maximal de clients suivis
+ * @param idleTimeout     Durée d'inactivité après laquelle un client est oublié
+ * @param apiKeyHeader    En-tête portant la clé d'API, à défaut l'adresse IP identifie le client
+ * @param apiKeys         Clés d'API reconnues ; toute autre clé est ignorée au profit de l'adresse IP
+ * @param costs           Coût en jetons d'une requête par groupe d'endpoints
+ */
+@ConfigurationProperties(prefix = "product.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("50") double tokensPerSecond,
+                                  @DefaultValue("100") int capacity,
+                                  @DefaultValue("100000") long maximumClients,
+                                  @DefaultValue("10m") Duration idleTimeout,
+                                  @DefaultValue("X-API-Key") String apiKeyHeader,
+                                  @DefaultValue Set<String> apiKeys,
+                                  @DefaultValue Costs costs) {
+
+    /**
+     * @param read   Coût d'une lecture
+     * @param search Coût d'une recherche
+     * @param write  Coût d'une écriture
+     */
+    public record Costs(@DefaultValue("1") int read,
+                        @DefaultValue("5") int search,
+                        @DefaultValue("2") int write) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.qualimark.ecommerce.productService.config;
+
+import com.qualimark.ecommerce.productService.datasource.ReadYourWritesFilter;
+import com.qualimark.ecommerce.productService.datasource.ReplicaRoutingDataSource;
+import com.qualimark.ecommerce.productService.tracing.Tracer;
+import com.qualimark.ecommerce.productService.tracing.TracingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Configuration du routage des lectures vers les réplicas
+ *
+ * Active avec {@code product.datasource.read-replicas.enabled=true}. La base primaire
+ * reste configurée par {@code spring.datasource.*}.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(prefix = "product.datasource.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReadReplicaProperties readReplicaProperties,
+                                                             TaskScheduler taskScheduler,
+                                                             ObjectProvider<Tracer> tracer) {
+        DataSource primary = traced(dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build(), tracer);
+        List<DataSource> replicas = readReplicaProperties.replicas().stream()
+                .map(replica -> traced(DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .driverClassName(dataSourceProperties.determineDriverClassName())
+                        .url(replica.url())
+                        .username(replica.username())
+                        .password(replica.password())
+                        .build(), tracer))
+                .toList();
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+        taskScheduler.scheduleWithFixedDelay(routingDataSource::checkHealth, readReplicaProperties.healthCheckInterval());
+        return routingDataSource;
+    }
+
+    /**
+     * Trace l'attente du pool lui-même : le proxy paresseux placé devant le routage ne l'attend jamais
+     */
+    private static DataSource traced(HikariDataSource pool, ObjectProvider<Tracer> tracer) {
+        Tracer available = tracer.getIfAvailable();
+        return available != null ? new TracingDataSource(pool, available) : pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.datasource.read-replicas", name = "read-your-writes", havingValue = "true")
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadReplicaProperties readReplicaProperties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(readReplicaProperties.readYourWritesWindow()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
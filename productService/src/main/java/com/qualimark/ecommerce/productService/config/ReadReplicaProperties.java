@@ -0,0 +1,32 @@
+package com.qualimark.ecommerce.productService.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration du routage des transactions en lecture seule vers les réplicas
+ *
+ * @param enabled              Active le routage (sinon seule la base primaire est utilisée)
+ * @param replicas             Les bases réplicas
+ * @param healthCheckInterval  Intervalle de vérification de l'état des réplicas
+ * @param readYourWrites       Route vers la primaire les lectures d'un client qui vient d'écrire
+ * @param readYourWritesWindow Durée après une écriture pendant laquelle ses lectures vont à la primaire
+ */
+@ConfigurationProperties(prefix = "product.datasource.read-replicas")
+public record ReadReplicaProperties(boolean enabled,
+                                    @DefaultValue List<Replica> replicas,
+                                    @DefaultValue("10s") Duration healthCheckInterval,
+                                    @DefaultValue("false") boolean readYourWrites,
+                                    @DefaultValue("5s") Duration readYourWritesWindow) {
+
+    /**
+     * @param url      URL JDBC du réplica
+     * @param username Utilisateur
+     * @param password Mot de passe
+     */
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.qualimark.ecommerce.productService.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration des régions du cache de second niveau Hibernate
+ *
+ * @param regions Taille et expiration de chaque région, par nom de région
+ */
+@ConfigurationProperties(prefix = "product.second-level-cache")
+public record SecondLevelCacheProperties(@DefaultValue Map<String, Region> regions) {
+
+    /**
+     * @param maximumSize      Nombre maximal d'entrées de la région
+     * @param expireAfterWrite Durée de vie d'une entrée
+     */
+    public record Region(@DefaultValue("10000") long maximumSize,
+                         @DefaultValue("PT10M") Duration expireAfterWrite) {
+    }
+}
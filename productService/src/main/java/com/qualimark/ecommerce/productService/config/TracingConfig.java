@@ -0,0 +1,52 @@
+package com.qualimark.ecommerce.productService.config;
+
+import com.qualimark.ecommerce.productService.tracing.TraceEndpoint;
+import com.qualimark.ecommerce.productService.tracing.Tracer;
+import com.qualimark.ecommerce.productService.tracing.TracingBeanPostProcessor;
+import com.qualimark.ecommerce.productService.tracing.TracingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration du traçage des requêtes
+ *
+ * Les spans couvrent le contrôleur, le service et le dépôt des produits,
+ * l'attente d'une connexion et les requêtes SQL. Les traces lentes sont
+ * consultables sur l'endpoint {@code traces}, sans collecteur externe.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(prefix = "product.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    @Bean
+    public Tracer tracer(TracingProperties properties) {
+        return new Tracer(properties.sampleRate(), properties.slowThreshold(), properties.capacity(), properties.maxSpans());
+    }
+
+    @Bean
+    public static TracingBeanPostProcessor tracingBeanPostProcessor(ObjectProvider<Tracer> tracer) {
+        return new TracingBeanPostProcessor(tracer);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.addUrlPatterns("/api/*");
+        // Avant les limiteurs : le temps passé dans les filtres compte dans la trace
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public TraceEndpoint traceEndpoint(Tracer tracer) {
+        return new TraceEndpoint(tracer);
+    }
+}
@@ -0,0 +1,23 @@
+package com.qualimark.ecommerce.productService.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration du traçage des requêtes
+ *
+ * @param enabled       Active le traçage
+ * @param sampleRate    Probabilité qu'une requête soit tracée
+ * @param slowThreshold Durée à partir de laquelle une trace est conservée
+ * @param capacity      Nombre de traces conservées ; les plus anciennes sont remplacées
+ * @param maxSpans      Nombre maximal de spans par trace
+ */
+@ConfigurationProperties(prefix = "product.tracing")
+public record TracingProperties(@DefaultValue("true") boolean enabled,
+                                @DefaultValue("0.1") double sampleRate,
+                                @DefaultValue("500ms") Duration slowThreshold,
+                                @DefaultValue("200") int capacity,
+                                @DefaultValue("500") int maxSpans) {
+}
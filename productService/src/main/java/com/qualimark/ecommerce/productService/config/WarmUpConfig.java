@@ -0,0 +1,63 @@
+package com.qualimark.ecommerce.productService.config;
+
+import com.qualimark.ecommerce.productService.service.ProductService;
+import com.qualimark.ecommerce.productService.warmup.RequestSample;
+import com.qualimark.ecommerce.productService.warmup.RequestSampleFilter;
+import com.qualimark.ecommerce.productService.warmup.WarmUp;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration du préchauffage
+ *
+ * L'indicateur {@code warmUp} est toujours déclaré : le groupe de santé
+ * readiness le référence. La durée, la couverture et le nombre de produits
+ * préchargés sont publiés sous {@code product.warmup.*}.
+ */
+@Configuration
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class WarmUpConfig {
+
+    @Bean
+    public RequestSample requestSample(WarmUpProperties properties) {
+        RequestSample sample = new RequestSample(properties.sampleSize(), properties.sampleRate());
+        sample.load(properties.sampleFile());
+        return sample;
+    }
+
+    @Bean
+    public WarmUp warmUp(WarmUpProperties properties, DataSource dataSource, ProductService productService,
+                         RequestSample requestSample, MeterRegistry meterRegistry) {
+        WarmUp warmUp = new WarmUp(properties, dataSource, productService, requestSample);
+        TimeGauge.builder("product.warmup.duration", warmUp, TimeUnit.MILLISECONDS, w -> w.getDuration().toMillis())
+                .register(meterRegistry);
+        Gauge.builder("product.warmup.coverage", warmUp, WarmUp::getCoverage)
+                .register(meterRegistry);
+        Gauge.builder("product.warmup.preloaded-products", warmUp, WarmUp::getPreloadedProducts)
+                .register(meterRegistry);
+        Gauge.builder("product.warmup.finished", warmUp, w -> w.isFinished() ? 1 : 0)
+                .register(meterRegistry);
+        return warmUp;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.warm-up", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RequestSampleFilter> requestSampleFilter(RequestSample requestSample) {
+        FilterRegistrationBean<RequestSampleFilter> registration = new FilterRegistrationBean<>(
+                new RequestSampleFilter(requestSample));
+        registration.addUrlPatterns("/api/products", "/api/products/*");
+        // Après les limiteurs : les requêtes rejetées ne sont pas enregistrées
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
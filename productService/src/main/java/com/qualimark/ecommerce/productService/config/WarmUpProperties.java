@@ -0,0 +1,30 @@
+package com.qualimark.ecommerce.productService.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration du préchauffage au démarrage
+ *
+ * @param enabled     Active le préchauffage ; désactivé, le service est prêt immédiatement
+ * @param connections Nombre de connexions du pool ouvertes d'avance
+ * @param hotProducts Nombre maximal de produits de l'échantillon chargés dans le cache
+ * @param rounds      Nombre de passes sur l'échantillon de requêtes
+ * @param maxDuration Durée maximale du préchauffage
+ * @param sampleFile  Fichier où l'échantillon de requêtes est sauvegardé à l'arrêt
+ * @param sampleRate  Probabilité qu'une lecture soit enregistrée dans l'échantillon
+ * @param sampleSize  Nombre de requêtes conservées dans l'échantillon
+ */
+@ConfigurationProperties(prefix = "product.warm-up")
+public record WarmUpProperties(@DefaultValue("true") boolean enabled,
+                               @DefaultValue("10") int connections,
+                               @DefaultValue("1000") int hotProducts,
+                               @DefaultValue("20") int rounds,
+                               @DefaultValue("60s") Duration maxDuration,
+                               @DefaultValue("warm-up-sample.txt") Path sampleFile,
+                               @DefaultValue("0.01") double sampleRate,
+                               @DefaultValue("2000") int sampleSize) {
+}
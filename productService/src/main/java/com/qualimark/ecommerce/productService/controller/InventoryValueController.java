@@ -0,0 +1,35 @@
+package com.qualimark.ecommerce.productService.controller;
+
+import com.qualimark.ecommerce.productService.dto.InventoryValue;
+import com.qualimark.ecommerce.productService.index.InventoryValueIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/products")
+@AllArgsConstructor
+public class InventoryValueController {
+
+    private final InventoryValueIndex inventoryValueIndex;
+
+    /**
+     * Valeur du stock par catégorie et pour tout le catalogue
+     *
+     * Servie depuis les totaux maintenus en mémoire, sans parcourir le catalogue.
+     */
+    @GetMapping("/inventory-value")
+    @Operation(summary = "Valeur du stock", description = "Retourne la somme prix × stock par catégorie et pour tout le catalogue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Valeur du stock"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<InventoryValue> getInventoryValue() {
+        return ResponseEntity.ok(inventoryValueIndex.value());
+    }
+}
@@ -1,17 +1,31 @@
 package com.qualimark.ecommerce.productService.controller;
 
+import com.qualimark.ecommerce.productService.cache.ProductResponseCache;
+import com.qualimark.ecommerce.productService.cache.ProductResponseCache.SerializedProduct;
+import com.qualimark.ecommerce.productService.idempotency.IdempotencyFilter;
+import com.qualimark.ecommerce.productService.index.RankingCriterion;
 import com.qualimark.ecommerce.productService.model.Product;
 import com.qualimark.ecommerce.productService.service.ProductService;
+import com.qualimark.ecommerce.productService.service.StockUpdateBatcher;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +34,14 @@ import java.util.Optional;
 @AllArgsConstructor
 public class ProductController {
 
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final int MAX_TOP_PRODUCTS = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final ProductService productService;
+    private final ProductResponseCache productResponseCache;
+    private final ObjectProvider<StockUpdateBatcher> stockUpdateBatcher;
 
     /**
      * Récupère tous les produits
@@ -42,15 +63,33 @@ public class ProductController {
     @GetMapping("/{id}")
     @Operation(summary = "Récupère un produit par ID", description = "Retourne un produit spécifique par son identifiant")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Produit trouvé"),
+            @ApiResponse(responseCode = "200", description = "Produit trouvé",
+                    content = @Content(schema = @Schema(implementation = Product.class))),
             @ApiResponse(responseCode = "404", description = "Produit non trouvé"),
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
-    public ResponseEntity<Product> getProductById(
-            @Parameter(description = "ID du produit à récupérer") @PathVariable Long id) {
+    public ResponseEntity<?> getProductById(
+            @Parameter(description = "ID du produit à récupérer") @PathVariable Long id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         Optional<Product> product = productService.getProductById(id);
-        return product.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        if (product.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!prefersJson(accept)) {
+            // Encodages binaires : négociation standard par les convertisseurs
+            return ResponseEntity.ok(product.get());
+        }
+
+        // JSON : écriture directe de la réponse déjà sérialisée pour cette version du produit
+        SerializedProduct serialized = productResponseCache.get(product.get());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(serialized.gzip());
+        }
+        return response.body(serialized.json());
     }
 
     /**
@@ -58,6 +97,8 @@ public class ProductController {
      */
     @PostMapping
     @Operation(summary = "Crée un nouveau produit", description = "Ajoute un nouveau produit au catalogue")
+    @Parameter(name = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, in = ParameterIn.HEADER,
+            description = "Clé rendant la requête rejouable sans nouvelle écriture")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Produit créé avec succès"),
             @ApiResponse(responseCode = "400", description = "Données invalides"),
@@ -79,6 +120,8 @@ public class ProductController {
      */
     @PutMapping("/{id}")
     @Operation(summary = "Met à jour un produit", description = "Modifie les informations d'un produit existant")
+    @Parameter(name = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, in = ParameterIn.HEADER,
+            description = "Clé rendant la requête rejouable sans nouvelle écriture")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produit mis à jour avec succès"),
             @ApiResponse(responseCode = "400", description = "Données invalides"),
@@ -131,6 +174,33 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Récupère les n premiers produits d'une catégorie
+     */
+    @GetMapping("/category/{category}/top")
+    @Operation(summary = "Classement d'une catégorie", description = "Retourne les n premiers produits d'une catégorie triés par prix ou par stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produits classés"),
+            @ApiResponse(responseCode = "400", description = "Critère, ordre ou nombre invalide"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<List<Product>> getTopProductsByCategory(
+            @Parameter(description = "Catégorie") @PathVariable String category,
+            @Parameter(description = "Critère de classement : price ou stock") @RequestParam(defaultValue = "price") String by,
+            @Parameter(description = "Ordre : asc ou desc") @RequestParam(defaultValue = "asc") String order,
+            @Parameter(description = "Nombre de produits (1 à " + MAX_TOP_PRODUCTS + ")") @RequestParam(defaultValue = "10") int n) {
+        if (n < 1 || n > MAX_TOP_PRODUCTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            List<Product> products = productService.getTopProductsByCategory(
+                    category, RankingCriterion.fromString(by), Sort.Direction.fromString(order), n);
+            return ResponseEntity.ok(products);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Recherche des produits par nom
      */
@@ -146,6 +216,25 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Recherche plein texte classée
+     */
+    @GetMapping("/search/ranked")
+    @Operation(summary = "Recherche classée", description = "Recherche sur le nom et la description, insensible aux accents et tolérante aux fautes, classée par pertinence")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produits du plus pertinent au moins pertinent"),
+            @ApiResponse(responseCode = "400", description = "Requête ou nombre de résultats invalide"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<List<Product>> searchProducts(
+            @Parameter(description = "Texte recherché") @RequestParam String q,
+            @Parameter(description = "Nombre maximal de résultats (1 à " + MAX_SEARCH_RESULTS + ")") @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank() || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.searchProducts(q, limit));
+    }
+
     /**
      * Récupère les produits disponibles
      */
@@ -160,11 +249,32 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Recherche des produits par fourchette de prix
+     */
+    @GetMapping("/price-range")
+    @Operation(summary = "Recherche par prix", description = "Retourne les produits dont le prix est compris entre deux bornes incluses")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Liste des produits de la fourchette"),
+            @ApiResponse(responseCode = "400", description = "Fourchette invalide"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<List<Product>> getProductsByPriceRange(
+            @Parameter(description = "Prix minimal") @RequestParam BigDecimal min,
+            @Parameter(description = "Prix maximal") @RequestParam BigDecimal max) {
+        if (min.signum() < 0 || min.compareTo(max) > 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByPriceRange(min, max));
+    }
+
     /**
      * Met à jour le stock d'un produit
      */
     @PatchMapping("/{id}/stock")
     @Operation(summary = "Met à jour le stock", description = "Modifie le stock d'un produit")
+    @Parameter(name = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, in = ParameterIn.HEADER,
+            description = "Clé rendant la requête rejouable sans nouvelle écriture")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Stock mis à jour avec succès"),
             @ApiResponse(responseCode = "400", description = "Stock invalide"),
@@ -175,7 +285,11 @@ public class ProductController {
             @Parameter(description = "ID du produit") @PathVariable Long id,
             @Parameter(description = "Nouveau stock") @RequestParam Integer stock) {
         try {
-            Product updatedProduct = productService.updateStock(id, stock);
+            // En mode group commit, la mise à jour est validée avec celles des autres appelants
+            StockUpdateBatcher batcher = stockUpdateBatcher.getIfAvailable();
+            Product updatedProduct = batcher != null
+                    ? batcher.updateStock(id, stock)
+                    : productService.updateStock(id, stock);
             return ResponseEntity.ok(updatedProduct);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -197,4 +311,26 @@ public class ProductController {
         boolean available = productService.isProductAvailable(id);
         return ResponseEntity.ok(available);
     }
+
+    /**
+     * Indique si le premier type acceptable par le client parmi les encodages servis est le JSON
+     */
+    private static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return true;
+                }
+                if (mediaType.isCompatibleWith(SMILE) || mediaType.isCompatibleWith(CBOR)) {
+                    return false;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return false;
+    }
 }
@@ -0,0 +1,32 @@
+package com.qualimark.ecommerce.productService.controller;
+
+import com.qualimark.ecommerce.productService.event.SseProductEventSink;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/products")
+@AllArgsConstructor
+public class ProductEventController {
+
+    private final SseProductEventSink sseProductEventSink;
+
+    /**
+     * Flux des modifications de produits
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Flux des modifications", description = "Diffuse en Server-Sent Events les créations, mises à jour, changements de stock et suppressions de produits")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flux d'événements ouvert")
+    })
+    public SseEmitter streamEvents() {
+        return sseProductEventSink.subscribe();
+    }
+}
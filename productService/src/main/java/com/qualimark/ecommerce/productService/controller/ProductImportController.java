@@ -0,0 +1,41 @@
+package com.qualimark.ecommerce.productService.controller;
+
+import com.qualimark.ecommerce.productService.service.ProductImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/products")
+@AllArgsConstructor
+public class ProductImportController {
+
+    private final ProductImportService productImportService;
+
+    /**
+     * Importe un flux NDJSON de produits
+     */
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import de produits en masse",
+            description = "Lit un produit JSON par ligne et crée ou met à jour les produits par nom, par lots. "
+                    + "Le compte rendu NDJSON est transmis au fil de l'import : une ligne par ligne rejetée, "
+                    + "une ligne après chaque lot et un résumé final.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Compte rendu de l'import"),
+            @ApiResponse(responseCode = "415", description = "Le corps n'est pas au format NDJSON")
+    })
+    public void importProducts(InputStream body, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        productImportService.importProducts(body, response.getOutputStream());
+    }
+}
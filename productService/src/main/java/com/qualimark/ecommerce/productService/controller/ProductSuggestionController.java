@@ -0,0 +1,46 @@
+package com.qualimark.ecommerce.productService.controller;
+
+import com.qualimark.ecommerce.productService.dto.ProductSuggestion;
+import com.qualimark.ecommerce.productService.index.SuggestionIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products")
+@AllArgsConstructor
+public class ProductSuggestionController {
+
+    private final SuggestionIndex suggestionIndex;
+
+    /**
+     * Suggestions d'autocomplétion pour la saisie en cours
+     *
+     * Servies depuis l'index en mémoire, sans transaction ni accès à la base.
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "Autocomplétion", description = "Retourne les produits dont le nom, ou un mot du nom, commence par le préfixe, les plus stockés d'abord")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions"),
+            @ApiResponse(responseCode = "400", description = "Nombre de suggestions invalide"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<List<ProductSuggestion>> suggest(
+            @Parameter(description = "Début de la saisie") @RequestParam String prefix,
+            @Parameter(description = "Nombre maximal de suggestions (1 à " + SuggestionIndex.TOP_K + ")")
+            @RequestParam(defaultValue = "" + SuggestionIndex.TOP_K) int limit) {
+        if (limit < 1 || limit > SuggestionIndex.TOP_K) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(suggestionIndex.suggest(prefix, limit));
+    }
+}
@@ -0,0 +1,51 @@
+package com.qualimark.ecommerce.productService.controller;
+
+import com.qualimark.ecommerce.productService.dto.ProductChanges;
+import com.qualimark.ecommerce.productService.service.ProductSyncService;
+import com.qualimark.ecommerce.productService.service.SyncTokenExpiredException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products")
+@AllArgsConstructor
+public class ProductSyncController {
+
+    private final ProductSyncService productSyncService;
+
+    /**
+     * Récupère les modifications du catalogue depuis un jeton
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Synchronisation incrémentale",
+            description = "Retourne les produits modifiés et supprimés depuis le jeton, ainsi que le jeton suivant. "
+                    + "Sans jeton, retourne uniquement le jeton courant à utiliser après un chargement complet.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Modifications depuis le jeton"),
+            @ApiResponse(responseCode = "400", description = "Jeton invalide"),
+            @ApiResponse(responseCode = "410", description = "Jeton expiré, un chargement complet est nécessaire"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<ProductChanges> getChanges(
+            @Parameter(description = "Jeton de la synchronisation précédente") @RequestParam(required = false) String since,
+            @Parameter(description = "Nombre maximal de modifications parcourues, plafonné par la configuration") @RequestParam(defaultValue = "500") int limit) {
+        if (since == null) {
+            return ResponseEntity.ok(new ProductChanges(List.of(), List.of(), productSyncService.currentToken(), false));
+        }
+        try {
+            return ResponseEntity.ok(productSyncService.getChangesSince(since, limit));
+        } catch (SyncTokenExpiredException e) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
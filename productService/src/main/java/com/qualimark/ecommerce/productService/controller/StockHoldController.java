@@ -0,0 +1,117 @@
+package com.qualimark.ecommerce.productService.controller;
+
+import com.qualimark.ecommerce.productService.model.StockHold;
+import com.qualimark.ecommerce.productService.service.InsufficientStockException;
+import com.qualimark.ecommerce.productService.service.StockHoldService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/products")
+@AllArgsConstructor
+public class StockHoldController {
+
+    private final StockHoldService stockHoldService;
+
+    /**
+     * Réserve du stock pour un checkout
+     */
+    @PostMapping("/{id}/holds")
+    @Operation(summary = "Réserve du stock", description = "Réserve une quantité d'un produit pour une durée limitée")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Réservation créée"),
+            @ApiResponse(responseCode = "400", description = "Quantité ou durée invalide"),
+            @ApiResponse(responseCode = "404", description = "Produit non trouvé"),
+            @ApiResponse(responseCode = "409", description = "Stock disponible insuffisant"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<StockHold> createHold(
+            @Parameter(description = "ID du produit") @PathVariable Long id,
+            @Parameter(description = "Quantité à réserver") @RequestParam int quantity,
+            @Parameter(description = "Durée de la réservation en secondes") @RequestParam(required = false) Long ttlSeconds) {
+        if (quantity <= 0 || (ttlSeconds != null && ttlSeconds <= 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            Duration ttl = ttlSeconds != null ? Duration.ofSeconds(ttlSeconds) : null;
+            StockHold hold = stockHoldService.createHold(id, quantity, ttl);
+            return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Confirme une réservation
+     */
+    @PostMapping("/holds/{holdId}/confirm")
+    @Operation(summary = "Confirme une réservation", description = "Décrémente le stock du produit de la quantité réservée")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Réservation confirmée"),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée"),
+            @ApiResponse(responseCode = "409", description = "Réservation expirée ou déjà traitée"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<StockHold> confirmHold(
+            @Parameter(description = "ID de la réservation") @PathVariable String holdId) {
+        try {
+            return ResponseEntity.ok(stockHoldService.confirm(holdId));
+        } catch (IllegalStateException | InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Libère une réservation
+     */
+    @DeleteMapping("/holds/{holdId}")
+    @Operation(summary = "Libère une réservation", description = "Rend la quantité réservée disponible")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Réservation libérée"),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée"),
+            @ApiResponse(responseCode = "409", description = "Réservation expirée ou déjà traitée"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<Void> releaseHold(
+            @Parameter(description = "ID de la réservation") @PathVariable String holdId) {
+        try {
+            stockHoldService.release(holdId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Récupère le stock disponible d'un produit
+     */
+    @GetMapping("/{id}/available-stock")
+    @Operation(summary = "Stock disponible", description = "Retourne le stock du produit diminué des réservations actives")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock disponible"),
+            @ApiResponse(responseCode = "404", description = "Produit non trouvé"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<Integer> getAvailableStock(
+            @Parameter(description = "ID du produit") @PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(stockHoldService.getAvailableStock(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.qualimark.ecommerce.productService.datasource;
+
+/**
+ * Contexte du thread courant forçant la lecture sur la base primaire
+ *
+ * Positionné pour les requêtes d'un client dont l'écriture récente n'a peut-être
+ * pas encore été répliquée.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void forcePrimary() {
+        FORCE_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryForced() {
+        return FORCE_PRIMARY.get() != null;
+    }
+
+    public static void clear() {
+        FORCE_PRIMARY.remove();
+    }
+}
@@ -0,0 +1,62 @@
+package com.qualimark.ecommerce.productService.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Garantit à un client la lecture de ses propres écritures malgré le retard des réplicas
+ *
+ * Chaque requête d'écriture reçoit un jeton de session (l'horodatage de l'écriture).
+ * Une lecture présentant un jeton plus récent que la fenêtre configurée est servie
+ * par la base primaire.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String SESSION_TOKEN_HEADER = "X-Session-Token";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isWrite(request)) {
+            response.setHeader(SESSION_TOKEN_HEADER, String.valueOf(System.currentTimeMillis()));
+        } else if (isRecentWrite(request.getHeader(SESSION_TOKEN_HEADER))) {
+            ReadYourWritesContext.forcePrimary();
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        return switch (request.getMethod()) {
+            case "POST", "PUT", "PATCH", "DELETE" -> true;
+            default -> false;
+        };
+    }
+
+    private boolean isRecentWrite(String token) {
+        if (token == null) {
+            return false;
+        }
+        try {
+            return System.currentTimeMillis() - Long.parseLong(token) < window.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
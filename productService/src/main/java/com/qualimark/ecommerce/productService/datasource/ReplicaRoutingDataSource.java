@@ -0,0 +1,138 @@
+package com.qualimark.ecommerce.productService.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * DataSource routant les transactions en lecture seule vers les réplicas
+ *
+ * Les réplicas sains sont utilisés à tour de rôle. Un réplica dont la connexion
+ * échoue est retiré de la rotation jusqu'à la prochaine vérification réussie ;
+ * sans réplica sain, la lecture se fait sur la primaire.
+ *
+ * Doit être enveloppée dans un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} :
+ * le caractère lecture seule de la transaction n'est connu qu'après son ouverture.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<ReplicaNode> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicaDataSources.size())
+                .mapToObj(i -> new ReplicaNode("replica-" + i, replicaDataSources.get(i)))
+                .toList();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.key, replica.dataSource));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ReplicaNode replica = routesToReplica() ? nextHealthyReplica() : null;
+        return replica != null ? replica.key : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (routesToReplica()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                ReplicaNode replica = nextHealthyReplica();
+                if (replica == null) {
+                    break;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.markDown(e);
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    /**
+     * Vérifie la connexion à chaque réplica et met à jour son état
+     */
+    public void checkHealth() {
+        for (ReplicaNode replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(1)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    /**
+     * @return Le nombre de réplicas actuellement dans la rotation
+     */
+    public int getHealthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    private boolean routesToReplica() {
+        return !replicas.isEmpty()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWritesContext.isPrimaryForced();
+    }
+
+    private ReplicaNode nextHealthyReplica() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaNode replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static final class ReplicaNode {
+
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private ReplicaNode(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                log.info("Réplica {} de nouveau disponible", key);
+            }
+            healthy = true;
+        }
+
+        private void markDown(SQLException cause) {
+            if (healthy) {
+                log.warn("Réplica {} retiré de la rotation", key, cause);
+            }
+            healthy = false;
+        }
+    }
+}
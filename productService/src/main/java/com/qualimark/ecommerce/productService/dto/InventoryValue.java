@@ -0,0 +1,15 @@
+package com.qualimark.ecommerce.productService.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Valeur du stock (prix × stock), au centime près
+ *
+ * @param total        La valeur du stock de tout le catalogue
+ * @param categories   La valeur du stock par catégorie
+ * @param reconciledAt La date du dernier recalcul complet, null avant le premier
+ */
+public record InventoryValue(BigDecimal total, Map<String, BigDecimal> categories, Instant reconciledAt) {
+}
@@ -0,0 +1,19 @@
+package com.qualimark.ecommerce.productService.dto;
+
+import com.qualimark.ecommerce.productService.model.Product;
+
+import java.util.List;
+
+/**
+ * Réponse de synchronisation incrémentale du catalogue
+ *
+ * @param updated   Les produits créés ou modifiés depuis le jeton, dans leur état actuel
+ * @param deleted   Les IDs des produits supprimés depuis le jeton
+ * @param nextToken Le jeton à présenter lors de la prochaine synchronisation
+ * @param hasMore   true si d'autres modifications sont disponibles immédiatement
+ */
+public record ProductChanges(List<Product> updated,
+                             List<Long> deleted,
+                             String nextToken,
+                             boolean hasMore) {
+}
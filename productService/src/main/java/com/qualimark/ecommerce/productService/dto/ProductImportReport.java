@@ -0,0 +1,41 @@
+package com.qualimark.ecommerce.productService.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Ligne du compte rendu NDJSON d'un import de produits
+ *
+ * Une ligne {@code error} par ligne rejetée, une ligne {@code progress} après
+ * chaque lot enregistré et une ligne {@code summary} à la fin de l'import.
+ *
+ * @param type    {@code error}, {@code progress} ou {@code summary}
+ * @param line    Le numéro de la ligne rejetée dans le fichier importé
+ * @param errors  Les raisons du rejet
+ * @param lines   Le nombre de lignes lues
+ * @param created Le nombre de produits créés
+ * @param updated Le nombre de produits mis à jour
+ * @param failed  Le nombre de lignes rejetées
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductImportReport(String type,
+                                  Long line,
+                                  List<String> errors,
+                                  Long lines,
+                                  Long created,
+                                  Long updated,
+                                  Long failed) {
+
+    public static ProductImportReport error(long line, List<String> errors) {
+        return new ProductImportReport("error", line, errors, null, null, null, null);
+    }
+
+    public static ProductImportReport progress(long lines, long created, long updated, long failed) {
+        return new ProductImportReport("progress", null, null, lines, created, updated, failed);
+    }
+
+    public static ProductImportReport summary(long lines, long created, long updated, long failed) {
+        return new ProductImportReport("summary", null, null, lines, created, updated, failed);
+    }
+}
@@ -0,0 +1,14 @@
+package com.qualimark.ecommerce.productService.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection d'un produit limitée au calcul de la valeur du stock
+ *
+ * @param id       L'ID du produit
+ * @param category La catégorie
+ * @param price    Le prix unitaire
+ * @param stock    Le stock
+ */
+public record ProductStockValue(Long id, String category, BigDecimal price, Integer stock) {
+}
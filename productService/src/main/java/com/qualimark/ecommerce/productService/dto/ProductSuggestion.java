@@ -0,0 +1,11 @@
+package com.qualimark.ecommerce.productService.dto;
+
+/**
+ * Suggestion d'autocomplétion
+ *
+ * @param id    L'ID du produit
+ * @param name  Le nom du produit tel qu'affiché
+ * @param stock Le stock du produit, critère de classement des suggestions
+ */
+public record ProductSuggestion(Long id, String name, int stock) {
+}
@@ -0,0 +1,24 @@
+package com.qualimark.ecommerce.productService.event;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Sink local qui republie chaque événement comme événement applicatif Spring
+ *
+ * Les composants de l'application peuvent s'y abonner avec {@code @EventListener}.
+ */
+@Component
+@AllArgsConstructor
+public class InProcessProductEventSink implements ProductEventSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void publish(List<ProductChangeEvent> events) {
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+}
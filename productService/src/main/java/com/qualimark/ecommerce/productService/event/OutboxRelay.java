@@ -0,0 +1,105 @@
+package com.qualimark.ecommerce.productService.event;
+
+import com.qualimark.ecommerce.productService.model.OutboxEvent;
+import com.qualimark.ecommerce.productService.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Relais qui publie par lots les événements de l'outbox vers les sinks configurés
+ *
+ * Un lot est d'abord réclamé dans une courte transaction : ses lignes sont
+ * verrouillées en sautant celles d'un autre réplica, puis marquées comme
+ * réclamées jusqu'à la fin du bail. Il est publié après le commit de cette
+ * réclamation, hors transaction, et n'est marqué comme publié qu'après avoir été
+ * accepté par tous les sinks. En cas d'échec la réclamation est libérée et le lot
+ * republié au passage suivant ; si le réplica disparaît, le lot est repris à
+ * l'échéance du bail. La livraison est donc au moins une fois : les
+ * consommateurs dédupliquent sur la séquence.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<ProductEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<ProductEventSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${product.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${product.outbox.relay.lease:PT30S}") Duration lease,
+                       @Value("${product.outbox.retention:P1D}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.retention = retention;
+    }
+
+    /**
+     * Publie le prochain lot d'événements en attente
+     *
+     * @return Le nombre d'événements publiés
+     */
+    @Scheduled(fixedDelayString = "${product.outbox.relay.interval-ms:500}")
+    public int relay() {
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> claim());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = claimed.stream().map(OutboxEvent::getId).toList();
+        List<ProductChangeEvent> events = claimed.stream()
+                .map(ProductChangeEvent::from)
+                .toList();
+        try {
+            for (ProductEventSink sink : sinks) {
+                sink.publish(events);
+            }
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.claim(ids, null));
+            throw e;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markPublished(ids, LocalDateTime.now()));
+        log.debug("{} événements outbox publiés", events.size());
+        return events.size();
+    }
+
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> pending = outboxEventRepository.findClaimable(now, PageRequest.of(0, batchSize));
+        if (!pending.isEmpty()) {
+            outboxEventRepository.claim(pending.stream().map(OutboxEvent::getId).toList(), now.plus(lease));
+        }
+        return pending;
+    }
+
+    /**
+     * Purge les événements publiés au-delà de la durée de rétention
+     */
+    @Scheduled(fixedDelayString = "${product.outbox.purge.interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.debug("{} événements outbox purgés", deleted);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.qualimark.ecommerce.productService.event;
+
+import com.qualimark.ecommerce.productService.model.OutboxEvent;
+import com.qualimark.ecommerce.productService.model.ProductChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement compact de modification d'un produit diffusé aux consommateurs
+ *
+ * @param sequence   Numéro de séquence croissant (ID de l'entrée outbox)
+ * @param productId  L'ID du produit modifié
+ * @param type       Le type de modification
+ * @param version    La version du produit après modification (null pour une suppression)
+ * @param stock      Le stock après modification (null pour une suppression)
+ * @param occurredAt La date de la modification
+ */
+public record ProductChangeEvent(Long sequence,
+                                 Long productId,
+                                 ProductChangeType type,
+                                 Long version,
+                                 Integer stock,
+                                 LocalDateTime occurredAt) {
+
+    public static ProductChangeEvent from(OutboxEvent event) {
+        return new ProductChangeEvent(
+                event.getId(),
+                event.getProductId(),
+                event.getType(),
+                event.getVersion(),
+                event.getStock(),
+                event.getOccurredAt()
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package com.qualimark.ecommerce.productService.event;
+
+import java.util.List;
+
+/**
+ * Destination des événements de modification publiés par le relais outbox
+ *
+ * Implémenter cette interface permet de brancher un broker (Kafka, RabbitMQ...)
+ * sans modifier le relais. Une exception levée par {@link #publish(List)} laisse
+ * le lot en attente : il sera republié au prochain passage (livraison "au moins une fois").
+ */
+public interface ProductEventSink {
+
+    /**
+     * Publie un lot d'événements, dans l'ordre de leur séquence
+     *
+     * @param events Les événements à publier
+     */
+    void publish(List<ProductChangeEvent> events);
+}
@@ -0,0 +1,55 @@
+package com.qualimark.ecommerce.productService.event;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sink qui diffuse les événements aux clients abonnés en Server-Sent Events
+ */
+@Component
+public class SseProductEventSink implements ProductEventSink {
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    /**
+     * Abonne un nouveau client au flux d'événements
+     *
+     * @return L'émetteur SSE du client
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    @Override
+    public void publish(List<ProductChangeEvent> events) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                for (ProductChangeEvent event : events) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.sequence()))
+                            .name(event.type().name())
+                            .data(event));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client déconnecté : il ne doit pas bloquer la diffusion aux autres
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+}
@@ -0,0 +1,172 @@
+package com.qualimark.ecommerce.productService.hold;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Roue temporelle hachée pour des milliers d'expirations à faible coût
+ *
+ * Le temps est découpé en ticks ; chaque échéance est rangée dans la case
+ * {@code tick % taille} avec un nombre de tours restants. À chaque tick, un seul
+ * thread parcourt uniquement la case courante : planifier et annuler coûtent
+ * O(1), et aucune table n'est parcourue pour trouver les échéances.
+ * La précision est celle d'un tick.
+ */
+public class HashedTimingWheel implements AutoCloseable {
+
+    private final long tickNanos;
+    private final LinkedList<Timeout>[] buckets;
+    private final int mask;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final long startTime;
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(Duration tickDuration, int ticksPerWheel, String threadName) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("La durée d'un tick doit être positive");
+        }
+        if (ticksPerWheel <= 0 || Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("Le nombre de cases doit être une puissance de 2");
+        }
+        this.tickNanos = tickDuration.toNanos();
+        this.buckets = new LinkedList[ticksPerWheel];
+        for (int i = 0; i < ticksPerWheel; i++) {
+            buckets[i] = new LinkedList<>();
+        }
+        this.mask = ticksPerWheel - 1;
+        this.startTime = System.nanoTime();
+        this.worker = Thread.ofPlatform().name(threadName).daemon().start(this::run);
+    }
+
+    /**
+     * Planifie l'exécution d'une tâche après un délai
+     *
+     * La tâche s'exécute sur le thread de la roue : elle doit être courte et
+     * déléguer tout traitement bloquant.
+     *
+     * @param task  La tâche à exécuter
+     * @param delay Le délai avant exécution
+     * @return L'échéance, annulable
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        if (!running) {
+            throw new IllegalStateException("Roue temporelle arrêtée");
+        }
+        long deadline = System.nanoTime() - startTime + Math.max(0, delay.toNanos());
+        Timeout timeout = new Timeout(task, deadline);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return Le nombre d'échéances planifiées et pas encore rangées dans la roue
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(sleepNanos);
+                continue;
+            }
+            transferPending();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long expiryTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expiryTick - tick) / buckets.length;
+            // Échéance déjà dépassée : exécutée au tick courant
+            long targetTick = Math.max(expiryTick, tick);
+            buckets[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    private static void expire(LinkedList<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Échéance planifiée dans la roue
+     */
+    public static final class Timeout {
+
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Annule l'échéance
+         *
+         * @return true si l'échéance est annulée, false si elle a déjà expiré
+         */
+        public boolean cancel() {
+            return state.compareAndSet(INIT, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(INIT, EXPIRED)) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // Une tâche en échec ne doit pas arrêter la roue
+                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                }
+            }
+        }
+    }
+}
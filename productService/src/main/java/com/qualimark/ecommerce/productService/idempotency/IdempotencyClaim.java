@@ -0,0 +1,16 @@
+package com.qualimark.ecommerce.productService.idempotency;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Exécution ayant réclamé une clé d'idempotence
+ *
+ * @param fingerprint L'empreinte des paramètres et du corps de la requête exécutée
+ * @param response    La réponse à venir (complétée par null si l'exécution est abandonnée)
+ */
+public record IdempotencyClaim(String fingerprint, CompletableFuture<IdempotentResponse> response) {
+
+    public IdempotencyClaim(String fingerprint) {
+        this(fingerprint, new CompletableFuture<>());
+    }
+}
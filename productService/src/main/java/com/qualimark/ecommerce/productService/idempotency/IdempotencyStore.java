@@ -0,0 +1,83 @@
+package com.qualimark.ecommerce.productService.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stockage borné des réponses associées aux clés d'idempotence
+ *
+ * Chaque clé pointe vers l'exécution qui l'a réclamée en premier : tant
+ * qu'elle est en cours, les doublons attendent son résultat au lieu de
+ * s'exécuter en parallèle. L'empreinte du corps de la requête accompagne la
+ * réclamation pour refuser la réutilisation d'une clé avec une autre requête.
+ * Les entrées expirent après le TTL et le nombre de réponses mémorisées est
+ * plafonné. Une réclamation en cours ne compte pas dans ce plafond : l'évincer
+ * laisserait un doublon s'exécuter en parallèle de la requête d'origine.
+ */
+public class IdempotencyStore {
+
+    private final Cache<String, IdempotencyClaim> responses;
+    private final AtomicLong replayed = new AtomicLong();
+
+    public IdempotencyStore(long maximumSize, Duration ttl) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maximumSize)
+                .weigher((String key, IdempotencyClaim claim) -> claim.response().isDone() ? 1 : 0)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Réclame une clé pour l'exécution courante
+     *
+     * @param key   La clé d'idempotence
+     * @param claim L'exécution courante
+     * @return null si la clé a été réclamée, sinon l'exécution existante
+     */
+    public IdempotencyClaim claim(String key, IdempotencyClaim claim) {
+        return responses.asMap().putIfAbsent(key, claim);
+    }
+
+    /**
+     * Mémorise la réponse d'une exécution et la transmet aux doublons en attente
+     */
+    public void complete(String key, IdempotencyClaim claim, IdempotentResponse response) {
+        claim.response().complete(response);
+        // Le TTL court à partir de la réponse, pas de la réclamation, et l'entrée
+        // est repesée : elle compte désormais dans le plafond
+        responses.asMap().replace(key, claim, claim);
+    }
+
+    /**
+     * Libère une clé dont l'exécution a échoué : le prochain doublon s'exécutera
+     */
+    public void abandon(String key, IdempotencyClaim claim) {
+        responses.asMap().remove(key, claim);
+        claim.response().complete(null);
+    }
+
+    void cleanUp() {
+        responses.cleanUp();
+    }
+
+    void recordReplay() {
+        replayed.incrementAndGet();
+    }
+
+    /**
+     * @return Le nombre de réponses rejouées
+     */
+    public long getReplayed() {
+        return replayed.get();
+    }
+
+    /**
+     * @return Le nombre approximatif de clés mémorisées
+     */
+    public long size() {
+        return responses.estimatedSize();
+    }
+}
@@ -0,0 +1,12 @@
+package com.qualimark.ecommerce.productService.idempotency;
+
+/**
+ * Réponse mémorisée pour une clé d'idempotence
+ *
+ * @param status      Le statut HTTP
+ * @param contentType Le type de contenu (peut être null)
+ * @param location    L'en-tête Location (peut être null)
+ * @param body        Le corps de la réponse
+ */
+public record IdempotentResponse(int status, String contentType, String location, byte[] body) {
+}
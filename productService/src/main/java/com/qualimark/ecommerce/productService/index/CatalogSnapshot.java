@@ -0,0 +1,225 @@
+package com.qualimark.ecommerce.productService.index;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Instantané immuable du catalogue, rangé en colonnes de types primitifs
+ *
+ * Une ligne par produit, triée par ID : colonnes {@code long} des IDs, des
+ * versions et des prix en centimes, colonnes {@code int} des stocks et des
+ * identifiants de catégorie. Les colonnes sont lues par accès absolus : des
+ * tableaux sur le tas pour un instantané issu d'une fusion, des vues sur le
+ * fichier projeté pour un instantané restauré. Les noms et les descriptions
+ * sont rangés en UTF-8 dans des zones hors tas, partagées avec les
+ * instantanés suivants.
+ * Les filtres parcourent les colonnes et écrivent les IDs retenus dans un
+ * tableau fourni par l'appelant : ils n'allouent rien.
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * Version absente (produit jamais persisté)
+     */
+    static final long NO_VERSION = -1;
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, LongBuffer.allocate(0), LongBuffer.allocate(0),
+            IntBuffer.allocate(0), LongBuffer.allocate(0), IntBuffer.allocate(0), Utf8Column.EMPTY, Utf8Column.EMPTY, 0);
+
+    private final int size;
+    private final LongBuffer ids;
+    private final LongBuffer versions;
+    private final IntBuffer stocks;
+    private final LongBuffer pricesInCents;
+    private final IntBuffer categoryCodes;
+    private final Utf8Column names;
+    private final Utf8Column descriptions;
+    private final long epoch;
+
+    CatalogSnapshot(int size, LongBuffer ids, LongBuffer versions, IntBuffer stocks, LongBuffer pricesInCents,
+                    IntBuffer categoryCodes, Utf8Column names, Utf8Column descriptions, long epoch) {
+        this.size = size;
+        this.ids = ids;
+        this.versions = versions;
+        this.stocks = stocks;
+        this.pricesInCents = pricesInCents;
+        this.categoryCodes = categoryCodes;
+        this.names = names;
+        this.descriptions = descriptions;
+        this.epoch = epoch;
+    }
+
+    /**
+     * @return Le nombre de produits
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Le numéro de publication de l'instantané
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * @return Le même instantané sous un autre numéro de publication
+     */
+    CatalogSnapshot withEpoch(long epoch) {
+        return new CatalogSnapshot(size, ids, versions, stocks, pricesInCents, categoryCodes, names, descriptions, epoch);
+    }
+
+    /**
+     * Sélectionne les produits en stock
+     *
+     * @param out Tableau recevant les premiers IDs retenus, dans la limite de sa taille
+     * @return Le nombre d'IDs retenus, qui peut dépasser la taille de {@code out}
+     */
+    public int selectAvailable(long[] out) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (stocks.get(row) > 0) {
+                if (count < out.length) {
+                    out[count] = ids.get(row);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sélectionne les produits d'une catégorie
+     *
+     * @param categoryCode Le code de la catégorie
+     * @param out          Tableau recevant les premiers IDs retenus, dans la limite de sa taille
+     * @return Le nombre d'IDs retenus, qui peut dépasser la taille de {@code out}
+     */
+    public int selectByCategory(int categoryCode, long[] out) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (categoryCodes.get(row) == categoryCode) {
+                if (count < out.length) {
+                    out[count] = ids.get(row);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sélectionne les produits dont le prix est compris entre deux bornes incluses
+     *
+     * @param minCents Le prix minimal en centimes
+     * @param maxCents Le prix maximal en centimes
+     * @param out      Tableau recevant les premiers IDs retenus, dans la limite de sa taille
+     * @return Le nombre d'IDs retenus, qui peut dépasser la taille de {@code out}
+     */
+    public int selectByPriceRange(long minCents, long maxCents, long[] out) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            long price = pricesInCents.get(row);
+            if (price >= minCents && price <= maxCents) {
+                if (count < out.length) {
+                    out[count] = ids.get(row);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param id L'ID d'un produit
+     * @return La ligne du produit, ou une valeur négative s'il est absent
+     */
+    public int rowOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = ids.get(middle);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    public long id(int row) {
+        return ids.get(row);
+    }
+
+    public int stock(int row) {
+        return stocks.get(row);
+    }
+
+    public long priceInCents(int row) {
+        return pricesInCents.get(row);
+    }
+
+    public int categoryCode(int row) {
+        return categoryCodes.get(row);
+    }
+
+    /**
+     * @return La version du produit, ou {@link #NO_VERSION}
+     */
+    long version(int row) {
+        return versions.get(row);
+    }
+
+    /**
+     * Décode le nom d'un produit depuis la zone hors tas (alloue la chaîne)
+     *
+     * @param row La ligne du produit
+     * @return Le nom du produit
+     */
+    public String name(int row) {
+        return names.get(row);
+    }
+
+    /**
+     * Décode la description d'un produit depuis la zone hors tas (alloue la chaîne)
+     *
+     * @param row La ligne du produit
+     * @return La description du produit
+     */
+    public String description(int row) {
+        return descriptions.get(row);
+    }
+
+    LongBuffer ids() {
+        return ids;
+    }
+
+    LongBuffer versions() {
+        return versions;
+    }
+
+    IntBuffer stocks() {
+        return stocks;
+    }
+
+    LongBuffer pricesInCents() {
+        return pricesInCents;
+    }
+
+    IntBuffer categoryCodes() {
+        return categoryCodes;
+    }
+
+    Utf8Column names() {
+        return names;
+    }
+
+    Utf8Column descriptions() {
+        return descriptions;
+    }
+}
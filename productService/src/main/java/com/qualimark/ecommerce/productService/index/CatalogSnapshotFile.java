@@ -0,0 +1,208 @@
+package com.qualimark.ecommerce.productService.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Format binaire de l'instantané du catalogue, lu et écrit par projection mémoire
+ *
+ * Un en-tête fixe (signature, version du format, nombre de lignes, jeton de
+ * synchronisation) est suivi des colonnes telles qu'en mémoire : IDs,
+ * versions, prix, stocks, codes de catégorie, puis les décalages et les
+ * octets UTF-8 des noms et des descriptions, compactés à l'écriture. Les codes
+ * de catégorie sont les identifiants du dictionnaire des catégories, valables
+ * d'un redémarrage à l'autre.
+ *
+ * Le fichier est en petit-boutiste, l'ordre natif des plateformes courantes,
+ * et l'en-tête aligne les colonnes sur 8 octets. L'instantané relu lit ses
+ * colonnes numériques et ses zones de texte directement dans le fichier
+ * projeté : seules les pages effectivement lues sont chargées.
+ */
+public final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x514D4353;
+    private static final int FORMAT_VERSION = 3;
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES + 2 * Long.BYTES + 3 * Integer.BYTES;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * Contenu d'un fichier d'instantané
+     *
+     * @param snapshot    L'instantané du catalogue
+     * @param watermark   Le jeton de synchronisation jusqu'auquel l'instantané est complet
+     * @param watermarkAt La date à laquelle le jeton a été relevé
+     */
+    public record Contents(CatalogSnapshot snapshot, long watermark, Instant watermarkAt) {
+    }
+
+    /**
+     * Écrit un instantané dans un fichier temporaire puis le substitue atomiquement au fichier cible
+     *
+     * @param path     Le fichier cible
+     * @param contents L'instantané et son jeton
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public static void write(Path path, Contents contents) throws IOException {
+        CatalogSnapshot snapshot = contents.snapshot();
+        int size = snapshot.size();
+        long nameBytes = snapshot.names().byteSize(size);
+        long descriptionBytes = snapshot.descriptions().byteSize(size);
+        long length = HEADER_BYTES
+                + 3L * size * Long.BYTES
+                + 2L * size * Integer.BYTES
+                + 2L * (size + 1) * Integer.BYTES
+                + nameBytes + descriptionBytes;
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Instantané trop volumineux pour une seule projection : " + length + " octets");
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.order(BYTE_ORDER)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(size)
+                    .putLong(contents.watermark())
+                    .putLong(contents.watermarkAt().toEpochMilli())
+                    .putInt((int) nameBytes)
+                    .putInt((int) descriptionBytes)
+                    // Réservé : aligne les colonnes sur 8 octets
+                    .putInt(0);
+            buffer.asLongBuffer().put(0, snapshot.ids(), 0, size);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            buffer.asLongBuffer().put(0, snapshot.versions(), 0, size);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            buffer.asLongBuffer().put(0, snapshot.pricesInCents(), 0, size);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            buffer.asIntBuffer().put(0, snapshot.stocks(), 0, size);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+            buffer.asIntBuffer().put(0, snapshot.categoryCodes(), 0, size);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+            putOffsets(buffer, snapshot.names(), size);
+            putOffsets(buffer, snapshot.descriptions(), size);
+            putBytes(buffer, snapshot.names(), size);
+            putBytes(buffer, snapshot.descriptions(), size);
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Projette un fichier d'instantané en mémoire
+     *
+     * @param path Le fichier à lire
+     * @return Le contenu du fichier
+     * @throws IOException en cas d'erreur de lecture ou si le fichier est invalide
+     */
+    public static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Taille d'instantané invalide : " + length + " octets");
+            }
+            // La projection reste valide après la fermeture du canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(BYTE_ORDER);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Format d'instantané non reconnu : " + path);
+            }
+            int size = buffer.getInt();
+            long watermark = buffer.getLong();
+            Instant watermarkAt = Instant.ofEpochMilli(buffer.getLong());
+            int nameBytes = buffer.getInt();
+            int descriptionBytes = buffer.getInt();
+            buffer.getInt();
+            long columnsEnd = HEADER_BYTES
+                    + 3L * size * Long.BYTES
+                    + 2L * size * Integer.BYTES
+                    + 2L * (size + 1) * Integer.BYTES
+                    + nameBytes + descriptionBytes;
+            if (size < 0 || nameBytes < 0 || descriptionBytes < 0 || columnsEnd > length) {
+                throw new IOException("Instantané tronqué : " + path);
+            }
+
+            LongBuffer ids = longs(buffer, size);
+            LongBuffer versions = longs(buffer, size);
+            LongBuffer prices = longs(buffer, size);
+            IntBuffer stocks = ints(buffer, size);
+            IntBuffer categoryCodes = ints(buffer, size);
+            int[] nameOffsets = new int[size + 1];
+            int[] descriptionOffsets = new int[size + 1];
+            buffer.asIntBuffer().get(nameOffsets);
+            buffer.position(buffer.position() + (size + 1) * Integer.BYTES);
+            buffer.asIntBuffer().get(descriptionOffsets);
+            buffer.position(buffer.position() + (size + 1) * Integer.BYTES);
+            ByteBuffer names = buffer.slice(buffer.position(), nameBytes);
+            buffer.position(buffer.position() + nameBytes);
+            ByteBuffer descriptions = buffer.slice(buffer.position(), descriptionBytes);
+            buffer.position(buffer.position() + descriptionBytes);
+
+            CatalogSnapshot snapshot = new CatalogSnapshot(size, ids, versions, stocks, prices, categoryCodes,
+                    column(nameOffsets, names), column(descriptionOffsets, descriptions), 0);
+            return new Contents(snapshot, watermark, watermarkAt);
+        } catch (RuntimeException e) {
+            throw new IOException("Instantané illisible : " + path, e);
+        }
+    }
+
+    /**
+     * Vue en lecture seule sur les {@code count} valeurs suivantes du fichier projeté
+     */
+    private static LongBuffer longs(ByteBuffer buffer, int count) {
+        // Une tranche repart dans l'ordre gros-boutiste par défaut
+        LongBuffer column = buffer.slice(buffer.position(), count * Long.BYTES).order(BYTE_ORDER).asLongBuffer();
+        buffer.position(buffer.position() + count * Long.BYTES);
+        return column;
+    }
+
+    private static IntBuffer ints(ByteBuffer buffer, int count) {
+        IntBuffer column = buffer.slice(buffer.position(), count * Integer.BYTES).order(BYTE_ORDER).asIntBuffer();
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return column;
+    }
+
+    /**
+     * Écrit les décalages des lignes dans les octets compactés de la colonne
+     */
+    private static void putOffsets(ByteBuffer buffer, Utf8Column column, int size) {
+        int offset = 0;
+        buffer.putInt(offset);
+        for (int row = 0; row < size; row++) {
+            offset += column.length(row);
+            buffer.putInt(offset);
+        }
+    }
+
+    /**
+     * Écrit les octets des lignes à la suite, sans ceux des chaînes remplacées depuis
+     */
+    private static void putBytes(ByteBuffer buffer, Utf8Column column, int size) {
+        for (int row = 0; row < size; row++) {
+            int length = column.length(row);
+            buffer.put(buffer.position(), column.bytes(), column.start(row), length);
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    private static Utf8Column column(int[] offsets, ByteBuffer bytes) {
+        int size = offsets.length - 1;
+        return new Utf8Column(Arrays.copyOf(offsets, size), Arrays.copyOfRange(offsets, 1, size + 1),
+                bytes, bytes.capacity());
+    }
+}
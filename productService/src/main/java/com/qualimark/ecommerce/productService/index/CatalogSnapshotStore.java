@@ -0,0 +1,150 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.dto.ProductChanges;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import com.qualimark.ecommerce.productService.service.ProductSyncService;
+import com.qualimark.ecommerce.productService.service.SyncTokenExpiredException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Persiste périodiquement l'instantané colonnaire dans un fichier projeté en
+ * mémoire, pour des redémarrages sans parcours complet du catalogue
+ *
+ * Le fichier porte un jeton de synchronisation (séquence de l'outbox) : au
+ * démarrage, seules les modifications postérieures sont relues en base.
+ * Le jeton écrit est celui relevé au cycle précédent : les invalidations
+ * correspondantes ont eu tout un intervalle pour atteindre l'instantané
+ * publié. Si les modifications postérieures ont été purgées de l'outbox,
+ * le fichier est ignoré et le catalogue est reconstruit entièrement.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "product.catalog.snapshot.file.enabled", havingValue = "true")
+public class CatalogSnapshotStore {
+
+    private static final int REPLAY_BATCH_SIZE = 1000;
+
+    private final ColumnarCatalogIndex catalogIndex;
+    private final ProductSyncService productSyncService;
+    private final CategoryDictionary categoryDictionary;
+    private final Path path;
+    private String sampledToken;
+    private Instant sampledAt;
+
+    public CatalogSnapshotStore(ColumnarCatalogIndex catalogIndex,
+                                ProductSyncService productSyncService,
+                                CategoryDictionary categoryDictionary,
+                                @Value("${product.catalog.snapshot.file.path:catalog.snapshot}") Path path) {
+        this.catalogIndex = catalogIndex;
+        this.productSyncService = productSyncService;
+        this.categoryDictionary = categoryDictionary;
+        this.path = path;
+    }
+
+    /**
+     * Écrit l'instantané publié avec le jeton relevé au cycle précédent, puis relève le jeton courant
+     */
+    @Scheduled(fixedDelayString = "${product.catalog.snapshot.file.interval-ms:300000}")
+    public synchronized void persist() {
+        if (sampledToken != null) {
+            try {
+                CatalogSnapshot snapshot = catalogIndex.snapshot();
+                CatalogSnapshotFile.write(path, new CatalogSnapshotFile.Contents(
+                        snapshot, Long.parseLong(sampledToken), sampledAt));
+                log.debug("Instantané du catalogue écrit : {} produits jusqu'au jeton {}", snapshot.size(), sampledToken);
+            } catch (IOException e) {
+                log.warn("Échec de l'écriture de l'instantané du catalogue dans {}", path, e);
+            }
+        }
+        sampledToken = productSyncService.currentToken();
+        sampledAt = Instant.now();
+    }
+
+    /**
+     * Restaure le catalogue depuis le fichier puis rejoue les modifications postérieures à son jeton
+     *
+     * Les modifications sont lues avant toute application : si elles ne sont
+     * plus disponibles, rien n'est appliqué. L'index colonnaire publie
+     * directement l'instantané projeté ; les autres index reçoivent les
+     * produits inchangés depuis. Les modifications rejouées sont publiées
+     * avant le retour.
+     *
+     * @param restored Reçoit chaque produit inchangé depuis l'instantané, pour les autres index
+     * @param upsert   Reçoit chaque produit modifié depuis l'instantané, dans son état courant
+     * @param remove   Reçoit l'ID de chaque produit supprimé depuis l'instantané
+     * @return false si aucun instantané exploitable n'existe
+     */
+    public boolean restore(Consumer<Product> restored, Consumer<Product> upsert, Consumer<Long> remove) {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        CatalogSnapshotFile.Contents contents;
+        List<ProductChanges> replay = new ArrayList<>();
+        try {
+            contents = CatalogSnapshotFile.read(path);
+            String token = String.valueOf(contents.watermark());
+            ProductChanges changes;
+            do {
+                changes = productSyncService.getChangesSince(token, REPLAY_BATCH_SIZE);
+                replay.add(changes);
+                token = changes.nextToken();
+            } while (changes.hasMore());
+        } catch (IOException e) {
+            log.warn("Instantané du catalogue ignoré", e);
+            return false;
+        } catch (SyncTokenExpiredException e) {
+            log.info("Instantané du catalogue du {} trop ancien : reconstruction complète", path);
+            return false;
+        }
+
+        Set<Long> changed = new HashSet<>();
+        replay.forEach(changes -> {
+            changes.updated().forEach(product -> changed.add(product.getId()));
+            changed.addAll(changes.deleted());
+        });
+        CatalogSnapshot snapshot = contents.snapshot();
+        catalogIndex.restore(snapshot);
+        for (int row = 0; row < snapshot.size(); row++) {
+            if (!changed.contains(snapshot.id(row))) {
+                restored.accept(toProduct(snapshot, row));
+            }
+        }
+        for (ProductChanges changes : replay) {
+            changes.updated().forEach(upsert);
+            changes.deleted().forEach(remove);
+        }
+        catalogIndex.publish();
+        log.info("Catalogue restauré depuis {} : {} produits, {} modifications rejouées depuis le {}",
+                path, snapshot.size(), changed.size(), contents.watermarkAt());
+        return true;
+    }
+
+    private Product toProduct(CatalogSnapshot snapshot, int row) {
+        Product product = new Product(
+                snapshot.name(row),
+                snapshot.description(row),
+                BigDecimal.valueOf(snapshot.priceInCents(row), 2),
+                snapshot.stock(row),
+                categoryDictionary.nameOf(snapshot.categoryCode(row)));
+        product.setId(snapshot.id(row));
+        long version = snapshot.version(row);
+        product.setVersion(version != CatalogSnapshot.NO_VERSION ? version : null);
+        return product;
+    }
+}
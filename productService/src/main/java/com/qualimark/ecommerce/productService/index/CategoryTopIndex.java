@@ -0,0 +1,98 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Produits de chaque catégorie triés par prix et par stock
+ *
+ * Chaque catégorie garde deux ensembles ordonnés maintenus à chaque écriture :
+ * les n premiers (ou derniers) s'obtiennent en parcourant n entrées, quelle
+ * que soit la taille de la catégorie.
+ */
+@Component
+public class CategoryTopIndex implements ProductIndex {
+
+    private static final Comparator<Entry> BY_PRICE = Comparator.comparing(Entry::price).thenComparingLong(Entry::id);
+    private static final Comparator<Entry> BY_STOCK = Comparator.comparingInt(Entry::stock).thenComparingLong(Entry::id);
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Rankings> categories = new ConcurrentHashMap<>();
+
+    @Override
+    public void upsert(Product product) {
+        if (product.getCategory() == null || product.getPrice() == null || product.getStock() == null) {
+            remove(product.getId());
+            return;
+        }
+        Entry entry = new Entry(product.getId(), product.getCategory(), product.getPrice(), product.getStock());
+        Entry previous = entries.put(entry.id(), entry);
+        if (previous != null) {
+            rankings(previous.category()).remove(previous);
+        }
+        rankings(entry.category()).add(entry);
+    }
+
+    @Override
+    public void remove(Long productId) {
+        Entry previous = entries.remove(productId);
+        if (previous != null) {
+            rankings(previous.category()).remove(previous);
+        }
+    }
+
+    /**
+     * Retourne les IDs des n premiers produits d'une catégorie
+     *
+     * @param category  La catégorie
+     * @param criterion Le critère de classement
+     * @param direction L'ordre du classement
+     * @param n         Le nombre de produits souhaité
+     * @return Les IDs des produits, dans l'ordre du classement
+     */
+    public List<Long> top(String category, RankingCriterion criterion, Sort.Direction direction, int n) {
+        Rankings rankings = categories.get(category);
+        if (rankings == null) {
+            return List.of();
+        }
+        NavigableSet<Entry> ranking = criterion == RankingCriterion.PRICE ? rankings.byPrice() : rankings.byStock();
+        Iterator<Entry> iterator = direction.isAscending() ? ranking.iterator() : ranking.descendingIterator();
+        List<Long> ids = new ArrayList<>(n);
+        while (ids.size() < n && iterator.hasNext()) {
+            ids.add(iterator.next().id());
+        }
+        return ids;
+    }
+
+    private Rankings rankings(String category) {
+        return categories.computeIfAbsent(category, key -> new Rankings(
+                new ConcurrentSkipListSet<>(BY_PRICE), new ConcurrentSkipListSet<>(BY_STOCK)));
+    }
+
+    private record Entry(long id, String category, BigDecimal price, int stock) {
+    }
+
+    private record Rankings(NavigableSet<Entry> byPrice, NavigableSet<Entry> byStock) {
+
+        void add(Entry entry) {
+            byPrice.add(entry);
+            byStock.add(entry);
+        }
+
+        void remove(Entry entry) {
+            byPrice.remove(entry);
+            byStock.remove(entry);
+        }
+    }
+}
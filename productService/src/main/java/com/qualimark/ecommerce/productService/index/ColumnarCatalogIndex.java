@@ -0,0 +1,200 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Publie le catalogue sous forme de {@link CatalogSnapshot} colonnaire
+ *
+ * Les écritures ne touchent pas l'instantané publié : elles sont accumulées,
+ * puis fusionnées dans un nouvel instantané à chaque époque
+ * ({@code product.catalog.snapshot.publish-interval-ms}). Les lecteurs
+ * travaillent sur un instantané immuable, sans verrou, en retard d'au plus
+ * une époque sur les écritures.
+ *
+ * Les codes de catégorie sont les identifiants du {@link CategoryDictionary} :
+ * ils sont communs à tous les réplicas et stables d'un redémarrage à l'autre.
+ */
+@Component
+public class ColumnarCatalogIndex implements ProductIndex {
+
+    private final CategoryDictionary categoryDictionary;
+    private final Object pendingLock = new Object();
+    private Map<Long, Row> pending = new HashMap<>();
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+
+    public ColumnarCatalogIndex(CategoryDictionary categoryDictionary) {
+        this.categoryDictionary = categoryDictionary;
+    }
+
+    @Override
+    public void upsert(Product product) {
+        if (product.getCategory() == null || product.getPrice() == null || product.getStock() == null) {
+            remove(product.getId());
+            return;
+        }
+        // Un produit écrit a enregistré sa catégorie avant d'être invalidé
+        Integer categoryCode = categoryDictionary.find(product.getCategory());
+        if (categoryCode == null) {
+            remove(product.getId());
+            return;
+        }
+        Row row = new Row(
+                product.getVersion() != null ? product.getVersion() : CatalogSnapshot.NO_VERSION,
+                product.getStock(),
+                toCents(product.getPrice()),
+                categoryCode,
+                utf8(product.getName()),
+                utf8(product.getDescription()));
+        synchronized (pendingLock) {
+            pending.put(product.getId(), row);
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        synchronized (pendingLock) {
+            pending.put(productId, null);
+        }
+    }
+
+    /**
+     * @return L'instantané publié le plus récent
+     */
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @param category Une catégorie
+     * @return Le code de la catégorie dans les instantanés, ou -1 si elle est inconnue
+     */
+    public int categoryCode(String category) {
+        Integer code = categoryDictionary.find(category);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Convertit un prix en centimes, la représentation des instantanés
+     */
+    public static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Publie un instantané restauré (fichier projeté) sans le reconstruire ligne à ligne
+     *
+     * Les écritures accumulées depuis seront fusionnées par-dessus à l'époque suivante.
+     *
+     * @param restored L'instantané restauré
+     */
+    public synchronized void restore(CatalogSnapshot restored) {
+        snapshot = restored.withEpoch(snapshot.epoch() + 1);
+    }
+
+    /**
+     * Fusionne les écritures accumulées dans un nouvel instantané et le publie
+     */
+    @Scheduled(fixedDelayString = "${product.catalog.snapshot.publish-interval-ms:100}")
+    public synchronized void publish() {
+        Map<Long, Row> changes;
+        synchronized (pendingLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = pending;
+            pending = new HashMap<>();
+        }
+        snapshot = merge(snapshot, changes);
+    }
+
+    /**
+     * Fusionne l'instantané courant, trié par ID, avec les changements triés :
+     * les plages de lignes inchangées entre deux changements sont recopiées en bloc,
+     * et les textes ajoutés complètent les zones de l'instantané courant
+     */
+    private static CatalogSnapshot merge(CatalogSnapshot current, Map<Long, Row> changes) {
+        long[] changedIds = new long[changes.size()];
+        int added = 0;
+        int addedNameBytes = 0;
+        int addedDescriptionBytes = 0;
+        int c = 0;
+        for (Map.Entry<Long, Row> change : changes.entrySet()) {
+            changedIds[c++] = change.getKey();
+            if (change.getValue() != null) {
+                added++;
+                addedNameBytes += change.getValue().name().length;
+                addedDescriptionBytes += change.getValue().description().length;
+            }
+        }
+        Arrays.sort(changedIds);
+
+        int currentSize = current.size();
+        int capacity = currentSize + added;
+        long[] ids = new long[capacity];
+        long[] versions = new long[capacity];
+        int[] stocks = new int[capacity];
+        long[] prices = new long[capacity];
+        int[] categories = new int[capacity];
+        Utf8Column.Builder names = new Utf8Column.Builder(current.names(), currentSize, capacity, addedNameBytes);
+        Utf8Column.Builder descriptions = new Utf8Column.Builder(current.descriptions(), currentSize, capacity,
+                addedDescriptionBytes);
+
+        int size = 0;
+        int row = 0;
+        for (long id : changedIds) {
+            int position = current.rowOf(id);
+            int runEnd = position >= 0 ? position : -position - 1;
+            size = copyRows(current, row, runEnd, ids, versions, stocks, prices, categories, names, descriptions, size);
+            row = position >= 0 ? position + 1 : runEnd;
+
+            Row change = changes.get(id);
+            if (change != null) {
+                ids[size] = id;
+                versions[size] = change.version();
+                stocks[size] = change.stock();
+                prices[size] = change.priceInCents();
+                categories[size] = change.categoryCode();
+                names.add(change.name());
+                descriptions.add(change.description());
+                size++;
+            }
+        }
+        size = copyRows(current, row, currentSize, ids, versions, stocks, prices, categories, names, descriptions, size);
+        return new CatalogSnapshot(size, LongBuffer.wrap(ids), LongBuffer.wrap(versions), IntBuffer.wrap(stocks),
+                LongBuffer.wrap(prices), IntBuffer.wrap(categories), names.build(), descriptions.build(),
+                current.epoch() + 1);
+    }
+
+    private static int copyRows(CatalogSnapshot source, int from, int to, long[] ids, long[] versions, int[] stocks,
+                                long[] prices, int[] categories, Utf8Column.Builder names,
+                                Utf8Column.Builder descriptions, int target) {
+        int count = to - from;
+        source.ids().get(from, ids, target, count);
+        source.versions().get(from, versions, target, count);
+        source.stocks().get(from, stocks, target, count);
+        source.pricesInCents().get(from, prices, target, count);
+        source.categoryCodes().get(from, categories, target, count);
+        names.addRows(from, to);
+        descriptions.addRows(from, to);
+        return target + count;
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private record Row(long version, int stock, long priceInCents, int categoryCode, byte[] name, byte[] description) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.dto.InventoryValue;
+import com.qualimark.ecommerce.productService.dto.ProductStockValue;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Valeur du stock (prix × stock) par catégorie et pour tout le catalogue
+ *
+ * Les totaux sont tenus en centimes sur des entiers : chaque écriture
+ * retranche la contribution précédente du produit et ajoute la nouvelle, sans
+ * parcourir le catalogue. Un recalcul complet périodique corrige les écarts
+ * laissés par une invalidation perdue ; les produits modifiés pendant ce
+ * recalcul gardent leur valeur incrémentale, plus récente que la lecture.
+ */
+@Slf4j
+@Component
+public class InventoryValueIndex implements ProductIndex, MeterBinder {
+
+    private final ProductRepository productRepository;
+    private final Object lock = new Object();
+    private Map<Long, Contribution> contributions = new HashMap<>();
+    private Set<Long> touchedDuringReconcile;
+    private final ConcurrentMap<String, Long> categoryCents = new ConcurrentHashMap<>();
+    private volatile long totalCents;
+    private volatile long lastDriftCents;
+    private volatile Instant reconciledAt;
+    private final Set<String> gaugedCategories = ConcurrentHashMap.newKeySet();
+    private volatile MeterRegistry meterRegistry;
+
+    public InventoryValueIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public void upsert(Product product) {
+        Contribution contribution = contribution(product.getCategory(), product.getPrice(), product.getStock());
+        if (contribution == null) {
+            remove(product.getId());
+            return;
+        }
+        synchronized (lock) {
+            touch(product.getId());
+            Contribution previous = contributions.put(product.getId(), contribution);
+            if (previous != null) {
+                add(previous.category(), -previous.cents());
+            }
+            add(contribution.category(), contribution.cents());
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        synchronized (lock) {
+            touch(productId);
+            Contribution previous = contributions.remove(productId);
+            if (previous != null) {
+                add(previous.category(), -previous.cents());
+            }
+        }
+    }
+
+    /**
+     * @return La valeur du stock, globale et par catégorie
+     */
+    public InventoryValue value() {
+        Map<String, BigDecimal> categories = new TreeMap<>();
+        categoryCents.forEach((category, cents) -> categories.put(category, BigDecimal.valueOf(cents, 2)));
+        return new InventoryValue(BigDecimal.valueOf(totalCents, 2), categories, reconciledAt);
+    }
+
+    /**
+     * @return L'écart constaté au dernier recalcul complet : valeur incrémentale moins valeur recalculée
+     */
+    public BigDecimal lastDrift() {
+        return BigDecimal.valueOf(lastDriftCents, 2);
+    }
+
+    /**
+     * Recalcule les totaux à partir du catalogue complet
+     *
+     * La lecture se fait hors verrou : les écritures continuent d'être
+     * appliquées et sont repérées pour ne pas être écrasées par la lecture.
+     */
+    @Scheduled(fixedDelayString = "${product.inventory-value.reconcile-interval-ms:3600000}",
+            initialDelayString = "${product.inventory-value.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        synchronized (lock) {
+            touchedDuringReconcile = new HashSet<>();
+        }
+        List<ProductStockValue> rows;
+        try {
+            rows = productRepository.findAllProjectedBy();
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                touchedDuringReconcile = null;
+            }
+            throw e;
+        }
+
+        long drift;
+        synchronized (lock) {
+            Map<Long, Contribution> rebuilt = new HashMap<>(Math.max(16, rows.size() * 4 / 3));
+            for (ProductStockValue row : rows) {
+                Contribution contribution = contribution(row.category(), row.price(), row.stock());
+                if (contribution != null && !touchedDuringReconcile.contains(row.id())) {
+                    rebuilt.put(row.id(), contribution);
+                }
+            }
+            for (Long id : touchedDuringReconcile) {
+                Contribution current = contributions.get(id);
+                if (current != null) {
+                    rebuilt.put(id, current);
+                }
+            }
+            touchedDuringReconcile = null;
+
+            Map<String, Long> rebuiltCategories = new HashMap<>();
+            long rebuiltTotal = 0;
+            for (Contribution contribution : rebuilt.values()) {
+                rebuiltCategories.merge(contribution.category(), contribution.cents(), Long::sum);
+                rebuiltTotal += contribution.cents();
+            }
+            drift = totalCents - rebuiltTotal;
+
+            contributions = rebuilt;
+            categoryCents.replaceAll((category, cents) -> 0L);
+            categoryCents.putAll(rebuiltCategories);
+            rebuiltCategories.keySet().forEach(this::registerGauge);
+            totalCents = rebuiltTotal;
+            lastDriftCents = drift;
+            reconciledAt = Instant.now();
+        }
+
+        if (drift != 0) {
+            log.warn("Valeur du stock recalculée : écart de {} corrigé", BigDecimal.valueOf(drift, 2));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("product.inventory.value", this, index -> index.totalCents / 100.0)
+                .description("Valeur du stock de tout le catalogue")
+                .register(registry);
+        Gauge.builder("product.inventory.value.drift", this, index -> index.lastDriftCents / 100.0)
+                .description("Écart corrigé au dernier recalcul complet")
+                .register(registry);
+        meterRegistry = registry;
+        categoryCents.keySet().forEach(this::registerGauge);
+    }
+
+    private void add(String category, long cents) {
+        categoryCents.merge(category, cents, Long::sum);
+        totalCents += cents;
+        registerGauge(category);
+    }
+
+    private void touch(Long productId) {
+        if (touchedDuringReconcile != null) {
+            touchedDuringReconcile.add(productId);
+        }
+    }
+
+    private void registerGauge(String category) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null && gaugedCategories.add(category)) {
+            Gauge.builder("product.inventory.category.value", categoryCents,
+                            values -> values.getOrDefault(category, 0L) / 100.0)
+                    .description("Valeur du stock de la catégorie")
+                    .tag("category", category)
+                    .register(registry);
+        }
+    }
+
+    private static Contribution contribution(String category, BigDecimal price, Integer stock) {
+        if (category == null || price == null || stock == null) {
+            return null;
+        }
+        return new Contribution(category, Math.multiplyExact(ColumnarCatalogIndex.toCents(price), (long) stock));
+    }
+
+    private record Contribution(String category, long cents) {
+    }
+}
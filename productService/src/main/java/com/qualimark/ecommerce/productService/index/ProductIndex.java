@@ -0,0 +1,27 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.model.Product;
+
+/**
+ * Structure en mémoire dérivée du catalogue, maintenue incrémentalement par
+ * le {@link ProductIndexUpdater}
+ *
+ * Les mises à jour sont appelées par un seul thread à la fois ; les lectures
+ * peuvent être concurrentes.
+ */
+public interface ProductIndex {
+
+    /**
+     * Ajoute un produit ou remplace son entrée précédente
+     *
+     * @param product Le produit dans son état courant
+     */
+    void upsert(Product product);
+
+    /**
+     * Retire un produit de l'index
+     *
+     * @param productId L'ID du produit
+     */
+    void remove(Long productId);
+}
@@ -0,0 +1,111 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.cache.ProductInvalidation;
+import com.qualimark.ecommerce.productService.cache.ProductInvalidationListener;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maintient les {@link ProductIndex} à jour à partir des invalidations
+ *
+ * Les index sont construits au démarrage à partir du catalogue complet, ou à
+ * partir du fichier du {@link CatalogSnapshotStore} s'il est activé, puis
+ * chaque invalidation recharge le produit concerné et l'applique à tous les
+ * index. Les applications sont sérialisées : un rechargement ancien ne peut
+ * pas écraser un état plus récent.
+ */
+@Slf4j
+@Component
+public class ProductIndexUpdater implements ProductInvalidationListener {
+
+    private final ProductRepository productRepository;
+    private final List<ProductIndex> indexes;
+    private final ObjectProvider<CatalogSnapshotStore> snapshotStore;
+    private final ConcurrentMap<Long, Long> appliedVersions = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+
+    public ProductIndexUpdater(ProductRepository productRepository, List<ProductIndex> indexes,
+                               ObjectProvider<CatalogSnapshotStore> snapshotStore) {
+        this.productRepository = productRepository;
+        this.indexes = indexes;
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * Construit les index depuis le fichier d'instantané s'il est exploitable,
+     * sinon à partir du catalogue complet
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (lock) {
+            CatalogSnapshotStore store = snapshotStore.getIfAvailable();
+            if (store != null && store.restore(this::applyRestored, this::apply, this::removeFromIndexes)) {
+                return;
+            }
+            List<Product> products = productRepository.findAll();
+            for (Product product : products) {
+                apply(product);
+            }
+            log.info("Index du catalogue construits : {} produits, {} index", products.size(), indexes.size());
+        }
+    }
+
+    @Override
+    public void onInvalidation(ProductInvalidation invalidation) {
+        Long applied = appliedVersions.get(invalidation.productId());
+        if (invalidation.version() != null && applied != null && applied >= invalidation.version()) {
+            return;
+        }
+        synchronized (lock) {
+            Optional<Product> product = productRepository.findById(invalidation.productId());
+            if (product.isPresent()) {
+                apply(product.get());
+            } else {
+                removeFromIndexes(invalidation.productId());
+            }
+        }
+    }
+
+    private void removeFromIndexes(Long productId) {
+        appliedVersions.remove(productId);
+        for (ProductIndex index : indexes) {
+            index.remove(productId);
+        }
+    }
+
+    /**
+     * Applique un produit relu dans le fichier d'instantané, que l'index colonnaire a déjà repris tel quel
+     */
+    private void applyRestored(Product product) {
+        if (product.getVersion() != null) {
+            appliedVersions.put(product.getId(), product.getVersion());
+        }
+        for (ProductIndex index : indexes) {
+            if (!(index instanceof ColumnarCatalogIndex)) {
+                index.upsert(product);
+            }
+        }
+    }
+
+    private void apply(Product product) {
+        if (product.getVersion() != null) {
+            appliedVersions.put(product.getId(), product.getVersion());
+        }
+        for (ProductIndex index : indexes) {
+            index.upsert(product);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Index inversé pour la recherche plein texte sur le nom et la description
+ *
+ * Les termes sont normalisés sans accents ({@link TextNormalizer}). Un terme
+ * de requête absent du vocabulaire est rapproché des termes proches par un
+ * {@link TermTrie}, à une distance d'édition qui dépend de sa longueur. Les
+ * résultats sont classés selon BM25, le nom pesant plus que la description et
+ * les correspondances approchées moins que les exactes.
+ */
+@Component
+public class ProductSearchIndex implements ProductIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 3;
+
+    private final ConcurrentMap<String, ConcurrentMap<Long, Integer>> postings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Document> documents = new ConcurrentHashMap<>();
+    private final TermTrie vocabulary = new TermTrie();
+    private volatile long totalLength;
+
+    @Override
+    public void upsert(Product product) {
+        remove(product.getId());
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextNormalizer.tokenize(product.getName())) {
+            frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : TextNormalizer.tokenize(product.getDescription())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new ConcurrentHashMap<>())
+                    .put(product.getId(), entry.getValue());
+            vocabulary.add(entry.getKey());
+            length += entry.getValue();
+        }
+        documents.put(product.getId(), new Document(frequencies.keySet().toArray(String[]::new), length));
+        totalLength += length;
+    }
+
+    @Override
+    public void remove(Long productId) {
+        Document previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            ConcurrentMap<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+            }
+        }
+        totalLength -= previous.length();
+    }
+
+    /**
+     * Recherche les produits correspondant à une requête
+     *
+     * @param query La requête en texte libre
+     * @param limit Le nombre maximal de résultats
+     * @return Les IDs des produits, du plus pertinent au moins pertinent
+     */
+    public List<Long> search(String query, int limit) {
+        int documentCount = documents.size();
+        if (documentCount == 0) {
+            return List.of();
+        }
+        double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (String token : TextNormalizer.tokenize(query)) {
+            // Pour un terme de requête, seule la meilleure variante compte par produit
+            Map<Long, Double> tokenScores = new HashMap<>();
+            for (TermTrie.Match match : variants(token)) {
+                ConcurrentMap<Long, Integer> termPostings = postings.get(match.term());
+                if (termPostings == null || termPostings.isEmpty()) {
+                    continue;
+                }
+                int documentFrequency = termPostings.size();
+                double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                double penalty = 1.0 / (1 + match.distance());
+                for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+                    Document document = documents.get(posting.getKey());
+                    if (document == null) {
+                        continue;
+                    }
+                    int frequency = posting.getValue();
+                    double norm = K1 * (1 - B + B * document.length() / averageLength);
+                    double score = penalty * idf * frequency * (K1 + 1) / (frequency + norm);
+                    tokenScores.merge(posting.getKey(), score, Math::max);
+                }
+            }
+            tokenScores.forEach((productId, score) -> scores.merge(productId, score, Double::sum));
+        }
+        return topScores(scores, limit);
+    }
+
+    /**
+     * @return Le nombre de produits indexés
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    private List<TermTrie.Match> variants(String token) {
+        ConcurrentMap<Long, Integer> exact = postings.get(token);
+        if (exact != null && !exact.isEmpty()) {
+            return List.of(new TermTrie.Match(token, 0));
+        }
+        return vocabulary.search(token, maxDistance(token));
+    }
+
+    /**
+     * Tolérance aux fautes selon la longueur : aucune pour les termes courts
+     */
+    static int maxDistance(String token) {
+        if (token.length() <= 3) {
+            return 0;
+        }
+        return token.length() <= 7 ? 1 : 2;
+    }
+
+    private static List<Long> topScores(Map<Long, Double> scores, int limit) {
+        // Le moins bon en tête : score le plus faible, puis ID le plus grand
+        Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(limit + 1, byScore);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Long> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ids.add(top.poll().getKey());
+        }
+        return ids.reversed();
+    }
+
+    private record Document(String[] terms, int length) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.qualimark.ecommerce.productService.index;
+
+/**
+ * Critères de classement des produits d'une catégorie
+ */
+public enum RankingCriterion {
+    PRICE,
+    STOCK;
+
+    /**
+     * @param value Le critère sans tenir compte de la casse ("price", "stock")
+     * @return Le critère correspondant
+     * @throws IllegalArgumentException si le critère est inconnu
+     */
+    public static RankingCriterion fromString(String value) {
+        return valueOf(value.toUpperCase());
+    }
+}
@@ -0,0 +1,192 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.dto.ProductSuggestion;
+import com.qualimark.ecommerce.productService.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Trie d'autocomplétion sur les noms de produits normalisés
+ *
+ * Le nom est indexé en entier et à partir de chacun de ses mots, si bien que
+ * "tom" propose aussi "Sauce tomate". Chaque nœud garde ses meilleures
+ * suggestions précalculées : une frappe se résout en descendant le préfixe,
+ * sans tri ni accès à la base. À chaque écriture, seuls les nœuds des chemins
+ * du produit dont les suggestions changent sont mis à jour.
+ */
+@Component
+public class SuggestionIndex implements ProductIndex {
+
+    /**
+     * Nombre de suggestions précalculées par nœud
+     */
+    public static final int TOP_K = 10;
+
+    private static final Comparator<ProductSuggestion> RANKING = Comparator
+            .comparingInt(ProductSuggestion::stock).reversed()
+            .thenComparing(ProductSuggestion::name)
+            .thenComparing(ProductSuggestion::id);
+
+    private final Node root = new Node();
+    private final ConcurrentMap<Long, ProductSuggestion> suggestions = new ConcurrentHashMap<>();
+
+    @Override
+    public void upsert(Product product) {
+        ProductSuggestion suggestion = new ProductSuggestion(product.getId(), product.getName(),
+                product.getStock() != null ? product.getStock() : 0);
+        ProductSuggestion previous = suggestions.get(product.getId());
+        if (suggestion.equals(previous)) {
+            return;
+        }
+        remove(product.getId());
+        suggestions.put(product.getId(), suggestion);
+        for (String key : keys(suggestion.name())) {
+            List<Node> path = path(key, true);
+            path.getLast().terminals.add(suggestion);
+            promote(path, suggestion);
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        ProductSuggestion previous = suggestions.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String key : keys(previous.name())) {
+            List<Node> path = path(key, false);
+            if (path.size() == key.length() + 1) {
+                path.getLast().terminals.remove(previous);
+                demote(path, previous);
+                prune(path, key);
+            }
+        }
+    }
+
+    /**
+     * Retourne les meilleures suggestions pour un préfixe
+     *
+     * @param prefix Le début saisi (casse et accents ignorés)
+     * @param limit  Le nombre maximal de suggestions (au plus {@link #TOP_K})
+     * @return Les suggestions, de la plus stockée à la moins stockée
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String key = String.join(" ", TextNormalizer.tokenize(prefix));
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null || key.isEmpty()) {
+            return List.of();
+        }
+        List<ProductSuggestion> top = node.top;
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    /**
+     * Le nom complet puis le nom à partir de chacun de ses mots suivants
+     */
+    private static Set<String> keys(String name) {
+        List<String> tokens = TextNormalizer.tokenize(name);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return keys;
+    }
+
+    private List<Node> path(String key, boolean create) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = create
+                    ? node.children.computeIfAbsent(key.charAt(i), c -> new Node())
+                    : node.children.get(key.charAt(i));
+            if (node == null) {
+                break;
+            }
+            path.add(node);
+        }
+        return path;
+    }
+
+    /**
+     * Insère une suggestion dans les nœuds du chemin, du plus profond à la racine
+     *
+     * Une suggestion qui n'entre pas dans les meilleures d'un nœud n'entrera pas
+     * non plus dans celles de ses ancêtres : la remontée s'arrête là.
+     */
+    private static void promote(List<Node> path, ProductSuggestion suggestion) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<ProductSuggestion> top = node.top;
+            if (top.contains(suggestion)) {
+                continue;
+            }
+            if (top.size() >= TOP_K && RANKING.compare(suggestion, top.getLast()) > 0) {
+                return;
+            }
+            List<ProductSuggestion> updated = new ArrayList<>(top.size() + 1);
+            updated.addAll(top);
+            int position = Collections.binarySearch(updated, suggestion, RANKING);
+            updated.add(-position - 1, suggestion);
+            node.top = List.copyOf(updated.size() > TOP_K ? updated.subList(0, TOP_K) : updated);
+        }
+    }
+
+    /**
+     * Retire une suggestion des nœuds du chemin et complète leurs meilleures
+     * suggestions à partir des enfants, du plus profond à la racine
+     *
+     * Un nœud qui ne contenait pas la suggestion n'a pas à être recalculé, pas
+     * plus que ses ancêtres par ce chemin.
+     */
+    private static void demote(List<Node> path, ProductSuggestion suggestion) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            if (!node.top.contains(suggestion)) {
+                return;
+            }
+            List<ProductSuggestion> candidates = new ArrayList<>(node.terminals);
+            for (Node child : node.children.values()) {
+                candidates.addAll(child.top);
+            }
+            node.top = candidates.stream()
+                    .distinct()
+                    .sorted(RANKING)
+                    .limit(TOP_K)
+                    .toList();
+        }
+    }
+
+    /**
+     * Retire les nœuds devenus vides en remontant le chemin
+     */
+    private static void prune(List<Node> path, String key) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (!node.terminals.isEmpty() || !node.children.isEmpty()) {
+                return;
+            }
+            path.get(i - 1).children.remove(key.charAt(i - 1));
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new ConcurrentHashMap<>(4);
+        // Modifiée uniquement par le thread de mise à jour
+        private final List<ProductSuggestion> terminals = new ArrayList<>(1);
+        private volatile List<ProductSuggestion> top = List.of();
+    }
+}
@@ -0,0 +1,104 @@
+package com.qualimark.ecommerce.productService.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vocabulaire des termes indexés, rangé en trie
+ *
+ * La recherche approchée descend le trie en calculant une ligne de la matrice
+ * de Levenshtein par caractère : une branche est abandonnée dès que toute sa
+ * ligne dépasse la distance maximale. Cela revient à parcourir le trie avec
+ * un automate de Levenshtein, sans comparer le terme à tout le vocabulaire.
+ * Les insertions sont faites par un seul thread ; les recherches peuvent être
+ * concurrentes.
+ */
+public class TermTrie {
+
+    private final Node root = new Node();
+    private volatile int size;
+
+    /**
+     * Ajoute un terme au vocabulaire (sans effet s'il est déjà présent)
+     *
+     * @param term Le terme
+     */
+    public void add(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), c -> new Node());
+        }
+        if (node.term == null) {
+            node.term = term;
+            size++;
+        }
+    }
+
+    /**
+     * Recherche les termes commençant par la même lettre, à une distance d'édition bornée
+     *
+     * @param term        Le terme recherché
+     * @param maxDistance La distance maximale
+     * @return Les termes trouvés avec leur distance
+     */
+    public List<Match> search(String term, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        int[] firstRow = new int[term.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        // Comme la plupart des correcteurs, la première lettre est supposée juste :
+        // le parcours est limité à une branche du trie
+        Node first = term.isEmpty() ? null : root.children.get(term.charAt(0));
+        if (first != null) {
+            search(first, term.charAt(0), term, firstRow, maxDistance, matches);
+        }
+        return matches;
+    }
+
+    private static void search(Node node, char letter, String term, int[] previousRow, int maxDistance,
+                               List<Match> matches) {
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int substitution = previousRow[i - 1] + (term.charAt(i - 1) == letter ? 0 : 1);
+            row[i] = Math.min(substitution, Math.min(previousRow[i], row[i - 1]) + 1);
+            rowMin = Math.min(rowMin, row[i]);
+        }
+
+        String nodeTerm = node.term;
+        if (nodeTerm != null && row[row.length - 1] <= maxDistance) {
+            matches.add(new Match(nodeTerm, row[row.length - 1]));
+        }
+        if (rowMin <= maxDistance) {
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                search(child.getValue(), child.getKey(), term, row, maxDistance, matches);
+            }
+        }
+    }
+
+    /**
+     * @return Le nombre de termes du vocabulaire
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Terme du vocabulaire trouvé par une recherche
+     *
+     * @param term     Le terme
+     * @param distance Sa distance au terme recherché
+     */
+    public record Match(String term, int distance) {
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new ConcurrentHashMap<>(4);
+        private volatile String term;
+    }
+}
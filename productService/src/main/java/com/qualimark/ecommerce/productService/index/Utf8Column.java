@@ -0,0 +1,144 @@
+package com.qualimark.ecommerce.productService.index;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Colonne de chaînes en UTF-8 dans une zone hors tas
+ *
+ * La chaîne de la ligne {@code row} occupe les octets
+ * {@code [starts[row], ends[row])} de la zone. La zone n'est jamais réécrite,
+ * seulement complétée : les instantanés successifs la partagent, chacun ne
+ * lisant que les octets écrits avant sa publication. Seules des lectures
+ * absolues sont faites : la zone est partagée sans verrou entre les lecteurs.
+ */
+final class Utf8Column {
+
+    static final Utf8Column EMPTY = new Utf8Column(new int[0], new int[0], ByteBuffer.allocateDirect(0), 0);
+
+    /**
+     * Taille minimale d'une nouvelle zone
+     */
+    private static final int MIN_CAPACITY = 64 * 1024;
+
+    private final int[] starts;
+    private final int[] ends;
+    private final ByteBuffer bytes;
+    private final int used;
+
+    /**
+     * @param used Octets de la zone déjà écrits, au-delà desquels les instantanés suivants écrivent
+     */
+    Utf8Column(int[] starts, int[] ends, ByteBuffer bytes, int used) {
+        this.starts = starts;
+        this.ends = ends;
+        this.bytes = bytes;
+        this.used = used;
+    }
+
+    /**
+     * Décode la chaîne d'une ligne (alloue la chaîne)
+     */
+    String get(int row) {
+        byte[] value = new byte[length(row)];
+        bytes.get(starts[row], value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    int start(int row) {
+        return starts[row];
+    }
+
+    int length(int row) {
+        return ends[row] - starts[row];
+    }
+
+    /**
+     * Taille en octets des {@code rows} premières lignes
+     */
+    long byteSize(int rows) {
+        long size = 0;
+        for (int row = 0; row < rows; row++) {
+            size += length(row);
+        }
+        return size;
+    }
+
+    ByteBuffer bytes() {
+        return bytes;
+    }
+
+    /**
+     * Colonne en cours de construction à partir de la colonne de l'instantané courant
+     *
+     * Les octets ajoutés sont écrits à la suite de la zone courante s'il y
+     * reste de la place : les lignes inchangées n'y sont pas recopiées. Sinon,
+     * une zone deux fois plus grande que les données vivantes est allouée, et
+     * seules les lignes recopiées y sont écrites, ce qui élimine les chaînes
+     * remplacées depuis.
+     */
+    static final class Builder {
+
+        private final Utf8Column source;
+        private final int[] starts;
+        private final int[] ends;
+        private final ByteBuffer bytes;
+        private final boolean compacting;
+        private int rows;
+        private int used;
+
+        /**
+         * @param source     La colonne de l'instantané courant
+         * @param sourceRows Le nombre de lignes de la colonne courante
+         * @param maxRows    Le nombre maximal de lignes de la nouvelle colonne
+         * @param addedBytes Le nombre d'octets ajoutés
+         */
+        Builder(Utf8Column source, int sourceRows, int maxRows, int addedBytes) {
+            this.source = source;
+            this.starts = new int[maxRows];
+            this.ends = new int[maxRows];
+            if (!source.bytes.isReadOnly() && (long) source.used + addedBytes <= source.bytes.capacity()) {
+                this.bytes = source.bytes;
+                this.used = source.used;
+                this.compacting = false;
+            } else {
+                long capacity = Math.max(MIN_CAPACITY, 2 * (source.byteSize(sourceRows) + addedBytes));
+                if (capacity > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Colonne de texte trop volumineuse : " + capacity + " octets");
+                }
+                this.bytes = ByteBuffer.allocateDirect((int) capacity);
+                this.compacting = true;
+            }
+        }
+
+        void add(byte[] value) {
+            bytes.put(used, value);
+            starts[rows] = used;
+            used += value.length;
+            ends[rows++] = used;
+        }
+
+        /**
+         * Reprend les lignes {@code [from, to)} de la colonne courante
+         */
+        void addRows(int from, int to) {
+            if (!compacting) {
+                System.arraycopy(source.starts, from, starts, rows, to - from);
+                System.arraycopy(source.ends, from, ends, rows, to - from);
+                rows += to - from;
+                return;
+            }
+            for (int row = from; row < to; row++) {
+                int length = source.length(row);
+                bytes.put(used, source.bytes, source.starts[row], length);
+                starts[rows] = used;
+                used += length;
+                ends[rows++] = used;
+            }
+        }
+
+        Utf8Column build() {
+            return new Utf8Column(starts, ends, bytes, used);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.qualimark.ecommerce.productService.limiter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limiteur de concurrence adaptatif selon l'algorithme AIMD
+ *
+ * La limite augmente de 1 à chaque requête rapide réussie lorsque la limite est
+ * réellement sollicitée (additive increase), et elle est multipliée par le
+ * facteur de recul lorsqu'une requête dépasse le seuil de latence ou échoue
+ * (multiplicative decrease). Une seule réduction est appliquée par fenêtre
+ * d'échantillonnage : seules les requêtes commencées après la dernière réduction
+ * peuvent en déclencher une nouvelle, comme TCP ne réduit sa fenêtre qu'une
+ * fois par aller-retour. Sans cela, une rafale de requêtes lentes lancées sous
+ * l'ancienne limite la ferait s'effondrer jusqu'au minimum. Au-delà de la
+ * limite, les requêtes sont rejetées immédiatement au lieu de s'accumuler
+ * dans les threads Tomcat.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final LongSupplier nanoClock;
+    private volatile int limit;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                               Duration latencyThreshold, double backoffRatio, LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limites de concurrence incohérentes");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Le facteur de recul doit être compris entre 0 et 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.lastDecreaseNanos = nanoClock.getAsLong() - Long.MAX_VALUE / 2;
+    }
+
+    /**
+     * Réserve une place pour une requête
+     *
+     * @return true si la requête peut être traitée, false si elle doit être rejetée
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Libère la place d'une requête terminée et ajuste la limite
+     *
+     * @param latencyNanos La durée de traitement de la requête
+     * @param success      false si la requête a échoué côté serveur
+     */
+    public void release(long latencyNanos, boolean success) {
+        int current = inFlight.getAndDecrement();
+        if (!success || latencyNanos > latencyThresholdNanos) {
+            decrease(nanoClock.getAsLong() - latencyNanos);
+        } else if (current * 2 >= limit) {
+            increase();
+        }
+    }
+
+    private synchronized void increase() {
+        if (limit < maxLimit) {
+            limit++;
+        }
+    }
+
+    private synchronized void decrease(long startNanos) {
+        // Requête commencée avant la dernière réduction : déjà prise en compte
+        if (startNanos - lastDecreaseNanos < 0) {
+            return;
+        }
+        limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        lastDecreaseNanos = nanoClock.getAsLong();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
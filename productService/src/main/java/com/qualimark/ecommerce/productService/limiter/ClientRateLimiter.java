@@ -0,0 +1,103 @@
+package com.qualimark.ecommerce.productService.limiter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Limitation de débit par client (clé d'API ou adresse IP)
+ *
+ * Chaque client dispose d'un {@link TokenBucket} conservé dans une map bornée
+ * qui oublie les clients inactifs. Chaque groupe d'endpoints a son coût en
+ * jetons : une recherche coûte plus qu'une lecture par identifiant.
+ */
+public class ClientRateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final Function<String, TokenBucket> bucketFactory;
+    private final int[] costs;
+    private final LongAdder[] throttled;
+
+    /**
+     * @param tokensPerSecond Débit de régénération des jetons par client
+     * @param capacity        Nombre maximal de jetons par client
+     * @param maximumClients  Nombre maximal de clients suivis
+     * @param idleTimeout     Durée d'inactivité après laquelle un client est oublié
+     * @param costs           Coût en jetons d'une requête de chaque groupe, indexé par ordinal
+     */
+    public ClientRateLimiter(double tokensPerSecond, int capacity, long maximumClients,
+                             Duration idleTimeout, int[] costs) {
+        if (tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Le débit doit être positif");
+        }
+        if (costs.length != EndpointGroup.values().length) {
+            throw new IllegalArgumentException("Un coût est attendu par groupe d'endpoints");
+        }
+        long nanosPerToken = (long) (Duration.ofSeconds(1).toNanos() / tokensPerSecond);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        this.bucketFactory = client -> new TokenBucket(nanosPerToken, capacity, System.nanoTime());
+        this.costs = costs.clone();
+        this.throttled = new LongAdder[costs.length];
+        for (int i = 0; i < throttled.length; i++) {
+            throttled[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Tente d'admettre une requête d'un client
+     *
+     * @param client La clé du client
+     * @param group  Le groupe d'endpoints de la requête
+     * @return 0 si la requête est admise, sinon le délai en nanosecondes avant
+     *         qu'elle puisse l'être
+     */
+    public long tryAcquire(String client, EndpointGroup group) {
+        return tryAcquire(buckets.get(client, bucketFactory), group);
+    }
+
+    /**
+     * Tente d'admettre une requête sur un seau détenu par l'appelant
+     *
+     * @param bucket Le seau du client, obtenu par {@link #newBucket()}
+     * @param group  Le groupe d'endpoints de la requête
+     * @return 0 si la requête est admise, sinon le délai en nanosecondes avant
+     *         qu'elle puisse l'être
+     */
+    public long tryAcquire(TokenBucket bucket, EndpointGroup group) {
+        long wait = bucket.tryConsume(costs[group.ordinal()], System.nanoTime());
+        if (wait > 0) {
+            throttled[group.ordinal()].increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Crée un seau plein, hors de la map des clients : il n'est jamais oublié
+     *
+     * @return Un seau au débit et à la capacité configurés
+     */
+    public TokenBucket newBucket() {
+        return bucketFactory.apply(null);
+    }
+
+    /**
+     * @param group Le groupe d'endpoints
+     * @return Le nombre de requêtes rejetées pour ce groupe
+     */
+    public long getThrottled(EndpointGroup group) {
+        return throttled[group.ordinal()].sum();
+    }
+
+    /**
+     * @return Le nombre approximatif de clients suivis
+     */
+    public long getTrackedClients() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,57 @@
+package com.qualimark.ecommerce.productService.limiter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Filtre appliquant une limite de concurrence adaptative par groupe d'endpoints
+ *
+ * Une requête au-delà de la limite de son groupe reçoit immédiatement un 429
+ * avec l'en-tête Retry-After.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters, Duration retryAfter) {
+        this.limiters = limiters;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(EndpointGroup.of(request));
+        if (!limiter.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Service saturé, réessayez plus tard");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            filterChain.doFilter(request, response);
+            success = response.getStatus() < 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, success);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Le flux SSE et l'import en flux sont des connexions longues, hors du modèle requête/réponse
+        String uri = request.getRequestURI();
+        return uri.endsWith("/events") || uri.endsWith("/import");
+    }
+}
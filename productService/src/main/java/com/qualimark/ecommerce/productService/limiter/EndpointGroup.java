@@ -0,0 +1,26 @@
+package com.qualimark.ecommerce.productService.limiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Groupes d'endpoints disposant chacun de leur propre limite de concurrence
+ * et de leur propre coût en jetons pour la limitation de débit
+ */
+public enum EndpointGroup {
+    READ,
+    SEARCH,
+    WRITE;
+
+    /**
+     * Détermine le groupe d'une requête de l'API produits
+     *
+     * @param request La requête HTTP
+     * @return Le groupe de la requête
+     */
+    public static EndpointGroup of(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return WRITE;
+        }
+        return request.getRequestURI().contains("/search") ? SEARCH : READ;
+    }
+}
@@ -0,0 +1,66 @@
+package com.qualimark.ecommerce.productService.limiter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtre appliquant la limitation de débit par client
+ *
+ * Le client est identifié par sa clé d'API lorsqu'elle fait partie des clés
+ * configurées, sinon par son adresse IP : une clé arbitraire ne permet pas
+ * d'obtenir un nouveau seau de jetons à chaque requête. Les seaux des clés
+ * configurées sont créés au démarrage. Une requête au-delà du débit reçoit
+ * un 429 avec le délai d'attente dans l'en-tête Retry-After.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final ClientRateLimiter rateLimiter;
+    private final String apiKeyHeader;
+    private final Map<String, TokenBucket> apiKeyBuckets;
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter, String apiKeyHeader, Set<String> apiKeys) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeyHeader = apiKeyHeader;
+        Map<String, TokenBucket> apiKeyBuckets = new HashMap<>();
+        for (String apiKey : apiKeys) {
+            apiKeyBuckets.put(apiKey, rateLimiter.newBucket());
+        }
+        this.apiKeyBuckets = Map.copyOf(apiKeyBuckets);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String apiKey = request.getHeader(apiKeyHeader);
+        // Les seaux des clés sont hors de la map des adresses IP : une clé ne peut pas en prendre l'identité
+        TokenBucket keyBucket = apiKey != null ? apiKeyBuckets.get(apiKey) : null;
+        EndpointGroup group = EndpointGroup.of(request);
+        long waitNanos = keyBucket != null
+                ? rateLimiter.tryAcquire(keyBucket, group)
+                : rateLimiter.tryAcquire(request.getRemoteAddr(), group);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Débit maximal atteint, réessayez plus tard");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Le flux SSE est une connexion longue durée, hors du modèle requête/réponse
+        return request.getRequestURI().endsWith("/events");
+    }
+}
@@ -0,0 +1,55 @@
+package com.qualimark.ecommerce.productService.limiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons sans verrou
+ *
+ * L'état tient dans un seul long : l'instant théorique auquel le seau sera de
+ * nouveau plein (algorithme GCRA, équivalent au seau à jetons). Consommer
+ * revient à repousser cet instant par compare-and-set, sans verrou ni
+ * allocation.
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param nanosPerToken Intervalle de régénération d'un jeton
+     * @param capacity      Nombre maximal de jetons (rafale autorisée)
+     * @param now           L'instant courant en nanosecondes
+     */
+    public TokenBucket(long nanosPerToken, int capacity, long now) {
+        if (nanosPerToken <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Débit et capacité doivent être positifs");
+        }
+        this.nanosPerToken = nanosPerToken;
+        this.burstNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Tente de consommer des jetons
+     *
+     * @param tokens Le nombre de jetons à consommer
+     * @param now    L'instant courant en nanosecondes
+     * @return 0 si les jetons ont été consommés, sinon le délai en nanosecondes
+     *         avant qu'ils soient disponibles
+     */
+    public long tryConsume(int tokens, long now) {
+        long cost = nanosPerToken * tokens;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.qualimark.ecommerce.productService.model;
+
+/**
+ * Noms des régions du cache de second niveau Hibernate
+ *
+ * Leur taille et leur expiration sont configurées sous
+ * {@code product.second-level-cache.regions}. Aucune requête n'est mise en
+ * cache : les recherches par catégorie et par disponibilité sont servies par
+ * l'instantané colonnaire du catalogue.
+ */
+public final class CacheRegions {
+
+    /**
+     * Entités {@link Product} par ID
+     */
+    public static final String PRODUCT = "product";
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,32 @@
+package com.qualimark.ecommerce.productService.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Entrée du dictionnaire des catégories
+ *
+ * Les produits ne stockent que l'identifiant entier de leur catégorie ; le nom
+ * n'est présent qu'une fois, dans cette table.
+ */
+@Entity
+@Table(name = "categories")
+public class Category {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 50)
+    private String name;
+
+    protected Category() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
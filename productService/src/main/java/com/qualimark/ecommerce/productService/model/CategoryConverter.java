@@ -0,0 +1,47 @@
+package com.qualimark.ecommerce.productService.model;
+
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stocke la catégorie d'un produit sous la forme de l'identifiant entier de
+ * son entrée dans le dictionnaire des catégories
+ *
+ * L'API et l'entité continuent de manipuler des noms ; les filtres par
+ * catégorie deviennent des comparaisons d'entiers. Instancié par Hibernate
+ * via le conteneur de beans Spring, qui fournit le dictionnaire.
+ *
+ * La conversion ne crée jamais de catégorie : elle sert aussi à lier les
+ * paramètres des requêtes. Une écriture de produit enregistre sa catégorie
+ * au préalable, dans {@link CategoryRegistrationListener}.
+ */
+@Converter
+public class CategoryConverter implements AttributeConverter<String, Integer> {
+
+    /**
+     * Identifiant ne correspondant à aucune catégorie, pour les recherches sur un nom inconnu
+     */
+    private static final int UNKNOWN_CATEGORY = -1;
+
+    private final CategoryDictionary dictionary;
+
+    public CategoryConverter(CategoryDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String category) {
+        if (category == null) {
+            return null;
+        }
+        // Un nom inconnu recherché ne correspond à rien
+        Integer id = dictionary.find(category);
+        return id != null ? id : UNKNOWN_CATEGORY;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : dictionary.nameOf(id);
+    }
+}
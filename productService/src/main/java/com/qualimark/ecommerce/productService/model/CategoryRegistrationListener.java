@@ -0,0 +1,29 @@
+package com.qualimark.ecommerce.productService.model;
+
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Enregistre la catégorie d'un produit dans le dictionnaire avant son insertion
+ * ou sa mise à jour
+ *
+ * C'est le seul point de création des catégories : le {@link CategoryConverter}
+ * peut alors se contenter de lectures, y compris pour les paramètres de requête.
+ */
+public class CategoryRegistrationListener {
+
+    private final CategoryDictionary dictionary;
+
+    public CategoryRegistrationListener(CategoryDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void registerCategory(Product product) {
+        if (product.getCategory() != null) {
+            dictionary.findOrCreate(product.getCategory());
+        }
+    }
+}
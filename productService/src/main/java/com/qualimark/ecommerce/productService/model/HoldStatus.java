@@ -0,0 +1,11 @@
+package com.qualimark.ecommerce.productService.model;
+
+/**
+ * États d'une réservation de stock
+ */
+public enum HoldStatus {
+    ACTIVE,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
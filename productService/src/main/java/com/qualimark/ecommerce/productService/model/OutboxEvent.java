@@ -0,0 +1,105 @@
+package com.qualimark.ecommerce.productService.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement de modification d'un produit stocké dans la table outbox
+ *
+ * L'événement est inséré dans la même transaction que l'écriture du produit
+ * (pattern "Transactional Outbox") : il ne peut donc ni être perdu ni publié
+ * pour une écriture annulée. Un relais le publie ensuite de manière asynchrone.
+ */
+@Entity
+@Table(name = "product_outbox", indexes = {
+        @Index(name = "idx_product_outbox_pending", columnList = "published_at, id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ProductChangeType type;
+
+    private Long version;
+
+    private Integer stock;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    // Constructeurs
+    protected OutboxEvent() {
+    }
+
+    public OutboxEvent(Long productId, ProductChangeType type, Long version, Integer stock) {
+        this.productId = productId;
+        this.type = type;
+        this.version = version;
+        this.stock = stock;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public ProductChangeType getType() {
+        return type;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    public LocalDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", productId=" + productId +
+                ", type=" + type +
+                ", version=" + version +
+                ", stock=" + stock +
+                ", occurredAt=" + occurredAt +
+                ", publishedAt=" + publishedAt +
+                '}';
+    }
+}
@@ -2,6 +2,8 @@ package com.qualimark.ecommerce.productService.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,7 +15,10 @@ import java.time.LocalDateTime;
  * microservice aurait sa propre base de données pour les produits.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_category", columnList = "category_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT)
+@EntityListeners(CategoryRegistrationListener.class)
 public class Product {
     
     @Id
@@ -40,7 +45,8 @@ public class Product {
     
     @NotBlank(message = "La catégorie est obligatoire")
     @Size(max = 50, message = "La catégorie ne peut pas dépasser 50 caractères")
-    @Column(nullable = false, length = 50)
+    @Convert(converter = CategoryConverter.class)
+    @Column(name = "category_id", nullable = false)
     private String category;
     
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -49,10 +55,15 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Version
+    private Long version;
+    
     // Constructeurs
     public Product() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        // Appelé aussi par Hibernate pour chaque entité chargée : une seule lecture de l'horloge
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
     }
     
     public Product(String name, String description, BigDecimal price, Integer stock, String category) {
@@ -135,6 +146,14 @@ public class Product {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     @Override
     public String toString() {
         return "Product{" +
@@ -146,6 +165,7 @@ public class Product {
                 ", category='" + category + '\'' +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
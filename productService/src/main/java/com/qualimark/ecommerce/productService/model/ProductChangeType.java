@@ -0,0 +1,11 @@
+package com.qualimark.ecommerce.productService.model;
+
+/**
+ * Types de modification d'un produit enregistrés dans l'outbox
+ */
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    STOCK_CHANGED,
+    DELETED
+}
@@ -0,0 +1,93 @@
+package com.qualimark.ecommerce.productService.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Réservation temporaire d'une quantité de stock pendant un checkout
+ *
+ * Les réservations sont stockées dans leur propre table : en créer une n'écrit
+ * pas la ligne du produit. Le stock du produit n'est décrémenté qu'à la confirmation.
+ */
+@Entity
+@Table(name = "stock_holds", indexes = {
+        @Index(name = "idx_stock_holds_status_expiry", columnList = "status, expires_at")
+})
+public class StockHold {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private HoldStatus status;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Constructeurs
+    protected StockHold() {
+    }
+
+    public StockHold(Long productId, Integer quantity, LocalDateTime expiresAt) {
+        this.id = UUID.randomUUID().toString();
+        this.productId = productId;
+        this.quantity = quantity;
+        this.status = HoldStatus.ACTIVE;
+        this.createdAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters et Setters
+    public String getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public HoldStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(HoldStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StockHold{" +
+                "id='" + id + '\'' +
+                ", productId=" + productId +
+                ", quantity=" + quantity +
+                ", status=" + status +
+                ", createdAt=" + createdAt +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.qualimark.ecommerce.productService.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Quantité réservée par les réservations actives d'un produit
+ *
+ * Une ligne par produit, tenue à jour avec chaque transition de réservation.
+ * Les réservations d'un même produit se sérialisent sur cette ligne : la
+ * ligne du produit n'est ni verrouillée ni écrite à la création d'une
+ * réservation.
+ */
+@Entity
+@Table(name = "stock_hold_totals")
+public class StockHoldTotal {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer reserved;
+
+    // Constructeurs
+    protected StockHoldTotal() {
+    }
+
+    public StockHoldTotal(Long productId) {
+        this.productId = productId;
+        this.reserved = 0;
+    }
+
+    // Getters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getReserved() {
+        return reserved;
+    }
+
+    @Override
+    public String toString() {
+        return "StockHoldTotal{" +
+                "productId=" + productId +
+                ", reserved=" + reserved +
+                '}';
+    }
+}
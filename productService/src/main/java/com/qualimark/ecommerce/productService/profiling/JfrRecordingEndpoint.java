@@ -0,0 +1,117 @@
+package com.qualimark.ecommerce.productService.profiling;
+
+import com.qualimark.ecommerce.productService.config.ProfilingProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Enregistrement JFR à la demande : {@code GET /actuator/jfr?duration=30s&settings=profile}
+ *
+ * L'enregistrement est borné en durée et en taille, un seul peut être en
+ * cours à la fois. Le fichier {@code .jfr} est transmis en réponse puis
+ * supprimé.
+ *
+ * L'appel occupe un thread du serveur pendant toute la durée de
+ * l'enregistrement : l'endpoint n'est pas exposé par défaut et ne doit l'être
+ * que derrière une authentification ({@code management.endpoints.web.exposure.include}).
+ */
+@Slf4j
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final ProfilingProperties properties;
+    private final Lock recordingLock = new ReentrantLock();
+
+    public JfrRecordingEndpoint(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Enregistre pendant la durée demandée et retourne l'enregistrement
+     *
+     * @param duration La durée de l'enregistrement (défaut : {@code product.profiling.default-duration})
+     * @param settings La configuration JFR, {@code default} ou {@code profile}
+     * @return Le fichier {@code .jfr} ; 400 si les paramètres sont invalides, 429 si un enregistrement est en cours
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> record(@Nullable Duration duration,
+                                                @Nullable String settings) throws IOException {
+        Duration recordingDuration = duration != null ? duration : properties.defaultDuration();
+        String settingsName = settings != null ? settings : properties.settings();
+        if (recordingDuration.isNegative() || recordingDuration.isZero()
+                || recordingDuration.compareTo(properties.maxDuration()) > 0
+                || !SETTINGS.contains(settingsName)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (!recordingLock.tryLock()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+
+        try {
+            Path file = Files.createTempFile("product-service-", ".jfr");
+            try {
+                record(file, recordingDuration, settingsName);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            // Le fichier disparaît quand la réponse a été transmise
+            return new WebEndpointResponse<>(
+                    new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)),
+                    WebEndpointResponse.STATUS_OK);
+        } finally {
+            recordingLock.unlock();
+        }
+    }
+
+    private void record(Path file, Duration duration, String settingsName) throws IOException {
+        try (Recording recording = new Recording(configuration(settingsName))) {
+            recording.setName("product-service-" + settingsName);
+            recording.setToDisk(true);
+            recording.setMaxSize(properties.maxSize().toBytes());
+            if ("profile".equals(settingsName)) {
+                recording.enable(ProductLookupEvent.NAME).withoutThreshold();
+                recording.enable(ProductCacheEvent.NAME);
+            }
+
+            log.info("Enregistrement JFR {} démarré pour {}", settingsName, duration);
+            recording.start();
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException e) {
+                // L'enregistrement partiel est tout de même retourné
+                Thread.currentThread().interrupt();
+            }
+            recording.stop();
+            recording.dump(file);
+            log.info("Enregistrement JFR {} terminé : {} octets", settingsName, Files.size(file));
+        }
+    }
+
+    private static Configuration configuration(String name) throws IOException {
+        try {
+            return Configuration.getConfiguration(name);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Configuration JFR illisible : " + name, e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.qualimark.ecommerce.productService.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Accès au cache des produits
+ *
+ * Émis à chaque lecture : désactivé par défaut, l'endpoint {@code jfr}
+ * l'active en mode {@code profile}.
+ */
+@Name(ProductCacheEvent.NAME)
+@Label("Accès au cache des produits")
+@Category({"Qualimark", "Product Service"})
+@Enabled(false)
+@StackTrace(false)
+public class ProductCacheEvent extends Event {
+
+    public static final String NAME = "com.qualimark.product.Cache";
+
+    @Label("ID du produit")
+    public long productId;
+
+    @Label("Succès")
+    public boolean hit;
+}
@@ -0,0 +1,30 @@
+package com.qualimark.ecommerce.productService.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Lecture d'un produit par son ID, cache compris
+ *
+ * Le seuil écarte les lectures servies par le cache des enregistrements
+ * continus ; l'endpoint {@code jfr} le lève en mode {@code profile}.
+ */
+@Name(ProductLookupEvent.NAME)
+@Label("Lecture d'un produit")
+@Category({"Qualimark", "Product Service"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class ProductLookupEvent extends Event {
+
+    public static final String NAME = "com.qualimark.product.Lookup";
+
+    @Label("ID du produit")
+    public long productId;
+
+    @Label("Trouvé")
+    public boolean found;
+}
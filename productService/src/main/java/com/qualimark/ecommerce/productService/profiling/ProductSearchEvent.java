@@ -0,0 +1,34 @@
+package com.qualimark.ecommerce.productService.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recherche ou listing de produits
+ */
+@Name(ProductSearchEvent.NAME)
+@Label("Recherche de produits")
+@Category({"Qualimark", "Product Service"})
+@StackTrace(false)
+public class ProductSearchEvent extends Event {
+
+    public static final String NAME = "com.qualimark.product.Search";
+
+    @Label("Type")
+    @Description("fulltext, name, category ou top-category")
+    public String kind;
+
+    @Label("Requête")
+    public String query;
+
+    @Label("Limite")
+    public int limit;
+
+    @Label("Lignes")
+    @Description("Nombre de produits retournés")
+    public int rows;
+}
@@ -0,0 +1,34 @@
+package com.qualimark.ecommerce.productService.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Modification du stock d'un ou plusieurs produits
+ *
+ * Pour une mise à jour groupée, {@code productId} vaut 0 et {@code rows}
+ * compte les produits modifiés.
+ */
+@Name(StockChangeEvent.NAME)
+@Label("Modification de stock")
+@Category({"Qualimark", "Product Service"})
+public class StockChangeEvent extends Event {
+
+    public static final String NAME = "com.qualimark.product.StockChange";
+
+    @Label("ID du produit")
+    public long productId;
+
+    @Label("Stock précédent")
+    public int previousStock;
+
+    @Label("Nouveau stock")
+    public int newStock;
+
+    @Label("Lignes")
+    @Description("Nombre de produits modifiés")
+    public int rows;
+}
@@ -0,0 +1,264 @@
+package com.qualimark.ecommerce.productService.repository;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dictionnaire en mémoire des catégories (nom ↔ identifiant entier)
+ *
+ * La table est petite : elle est chargée entièrement au premier accès, puis
+ * rechargée lorsqu'un identifiant inconnu apparaît (catégorie créée par une
+ * autre instance). Chaque nom est une instance unique, partagée par tous les
+ * produits chargés.
+ *
+ * Seule l'écriture d'un produit crée une catégorie
+ * ({@code CategoryRegistrationListener}). Dans une transaction, la catégorie
+ * est insérée sur la connexion de la transaction : emprunter une seconde
+ * connexion au pool pendant que la transaction tient la sienne peut épuiser
+ * le pool. L'insertion est protégée par un point de sauvegarde : si une autre
+ * instance crée la même catégorie, la contrainte d'unicité ne fait pas échouer
+ * la transaction et l'identifiant existant est relu. La catégorie n'est
+ * visible que de sa transaction jusqu'au commit, puis ajoutée au dictionnaire ;
+ * elle disparaît avec une transaction annulée. Hors transaction, elle est
+ * insérée en auto-commit.
+ */
+@Component
+public class CategoryDictionary {
+
+    private static final long MIN_RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final DataSource dataSource;
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile long lastReload;
+
+    public CategoryDictionary(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @param name Le nom de la catégorie
+     * @return L'identifiant de la catégorie, ou null si elle n'existe pas
+     */
+    public Integer find(String name) {
+        ensureLoaded();
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            id = pendingIdOf(name);
+        }
+        // Les recherches sur des noms inconnus ne rechargent la table qu'une fois par seconde
+        if (id == null && System.nanoTime() - lastReload > MIN_RELOAD_INTERVAL_NANOS) {
+            reload();
+            id = idsByName.get(name);
+        }
+        return id;
+    }
+
+    /**
+     * @param name Le nom de la catégorie
+     * @return L'identifiant de la catégorie, créée si nécessaire
+     */
+    public Integer findOrCreate(String name) {
+        Integer id = find(name);
+        if (id != null) {
+            return id;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Hors du verrou : l'insertion peut attendre la transaction d'une autre instance
+            return insertInTransaction(name);
+        }
+        synchronized (this) {
+            id = idsByName.get(name);
+            if (id == null) {
+                id = insert(name);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * @param id L'identifiant de la catégorie
+     * @return L'instance canonique du nom de la catégorie
+     */
+    public String nameOf(Integer id) {
+        ensureLoaded();
+        String name = namesById.get(id);
+        if (name == null) {
+            name = pendingNameOf(id);
+        }
+        if (name == null) {
+            reload();
+            name = namesById.get(id);
+        }
+        if (name == null) {
+            throw new IllegalStateException("Catégorie inconnue : " + id);
+        }
+        return name;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    private synchronized void reload() {
+        // Connexion de la transaction en cours s'il y en a une, pour ne pas en emprunter une seconde
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id, name FROM categories")) {
+            Map<String, Integer> pending = pendingInserts(false);
+            while (resultSet.next()) {
+                String name = resultSet.getString(2);
+                // Une catégorie de la transaction en cours n'est pas encore validée
+                if (pending == null || !pending.containsKey(name)) {
+                    register(resultSet.getInt(1), name);
+                }
+            }
+            loaded = true;
+            lastReload = System.nanoTime();
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Échec du chargement des catégories", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private Integer insertInTransaction(String name) {
+        Map<String, Integer> pending = pendingInserts(true);
+        Integer id = pending.get(name);
+        if (id != null) {
+            return id;
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            id = selectId(connection, name);
+            if (id == null) {
+                Savepoint savepoint = connection.setSavepoint();
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO categories (name) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+                    statement.setString(1, name);
+                    statement.executeUpdate();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        keys.next();
+                        id = keys.getInt(1);
+                    }
+                } catch (SQLException e) {
+                    // Créée entre-temps par une autre instance : la contrainte d'unicité a joué
+                    connection.rollback(savepoint);
+                    id = selectId(connection, name);
+                    if (id == null) {
+                        throw e;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Échec de la création de la catégorie " + name, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        pending.put(name, id);
+        return id;
+    }
+
+    private static Integer selectId(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM categories WHERE name = ?")) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : null;
+            }
+        }
+    }
+
+    /**
+     * @param create Crée la map si la transaction en cours n'en a pas encore
+     * @return Les catégories créées par la transaction en cours, ou null
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> pendingInserts(boolean create) {
+        Map<String, Integer> pending = (Map<String, Integer>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null && create) {
+            Map<String, Integer> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    created.forEach((name, id) -> register(id, name));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(CategoryDictionary.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private Integer pendingIdOf(String name) {
+        Map<String, Integer> pending = pendingInserts(false);
+        return pending != null ? pending.get(name) : null;
+    }
+
+    private String pendingNameOf(Integer id) {
+        Map<String, Integer> pending = pendingInserts(false);
+        if (pending != null) {
+            for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+                if (entry.getValue().equals(id)) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    private Integer insert(String name) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO categories (name) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
+            try {
+                statement.setString(1, name);
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    keys.next();
+                    return register(keys.getInt(1), name);
+                }
+            } finally {
+                JdbcUtils.closeStatement(statement);
+            }
+        } catch (SQLException e) {
+            // Créée entre-temps par une autre instance : la contrainte d'unicité a joué
+            reload();
+            Integer id = idsByName.get(name);
+            if (id == null) {
+                throw new DataAccessResourceFailureException("Échec de la création de la catégorie " + name, e);
+            }
+            return id;
+        }
+    }
+
+    private Integer register(int id, String name) {
+        String canonical = namesById.computeIfAbsent(id, key -> name);
+        idsByName.putIfAbsent(canonical, id);
+        return id;
+    }
+}
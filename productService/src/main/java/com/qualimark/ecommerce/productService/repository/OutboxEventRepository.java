@@ -0,0 +1,95 @@
+package com.qualimark.ecommerce.productService.repository;
+
+import com.qualimark.ecommerce.productService.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Verrouille les plus anciens événements non publiés et non réclamés
+     *
+     * Les lignes déjà verrouillées par un autre réplica sont sautées
+     * (SELECT ... FOR UPDATE SKIP LOCKED) au lieu d'être attendues.
+     *
+     * @param now      L'instant courant : une réclamation échue est reprise
+     * @param pageable Taille du lot à récupérer
+     * @return Les événements à réclamer, dans l'ordre d'insertion
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2 : SKIP LOCKED
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL "
+            + "AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) ORDER BY e.id")
+    List<OutboxEvent> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Réclame des événements jusqu'à une date, ou les libère
+     *
+     * @param ids          Les IDs des événements
+     * @param claimedUntil La fin de la réclamation (null pour libérer)
+     * @return Le nombre d'événements mis à jour
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = :claimedUntil WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    /**
+     * Récupère les événements postérieurs à une séquence donnée, publiés ou non
+     *
+     * @param id       Le dernier ID déjà traité
+     * @param pageable Taille du lot à récupérer
+     * @return Les événements suivants, dans l'ordre d'insertion
+     */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Récupère l'événement le plus récent survenu avant une date donnée
+     *
+     * @param before La date limite
+     * @return Le dernier événement inséré avant cette date s'il existe
+     */
+    Optional<OutboxEvent> findTopByOccurredAtBeforeOrderByIdDesc(LocalDateTime before);
+
+    /**
+     * Récupère l'événement le plus ancien encore conservé
+     *
+     * @return Le premier événement de l'outbox s'il existe
+     */
+    Optional<OutboxEvent> findTopByOrderByIdAsc();
+
+    /**
+     * Marque un lot d'événements comme publiés
+     *
+     * @param ids         Les IDs des événements publiés
+     * @param publishedAt La date de publication
+     * @return Le nombre d'événements mis à jour
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    /**
+     * Purge les événements publiés avant une date donnée
+     *
+     * Le dernier événement est toujours conservé : il matérialise la séquence
+     * courante pour la synchronisation incrémentale.
+     *
+     * @param before Date limite de rétention
+     * @return Le nombre d'événements supprimés
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before AND e.id < (SELECT MAX(o.id) FROM OutboxEvent o)")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,10 +1,12 @@
 package com.qualimark.ecommerce.productService.repository;
 
+import com.qualimark.ecommerce.productService.dto.ProductStockValue;
 import com.qualimark.ecommerce.productService.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +15,9 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     /**
      * Recherche des produits par catégorie
      *
+     * Utilisée uniquement avant la première publication de l'instantané
+     * colonnaire, qui sert ensuite cette recherche.
+     *
      * @param category La catégorie à rechercher
      * @return Liste des produits de la catégorie
      */
@@ -29,6 +34,9 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     /**
      * Recherche des produits en stock
      *
+     * Utilisée uniquement avant la première publication de l'instantané
+     * colonnaire, qui sert ensuite cette recherche.
+     *
      * @return Liste des produits avec stock > 0
      */
     @Query("SELECT p FROM Product p WHERE p.stock > 0")
@@ -52,6 +60,30 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     Optional<Product> findByName(String name);
 
+    /**
+     * Lit le stock d'un produit en base, sans passer par le cache de second niveau
+     *
+     * @param id L'ID du produit
+     * @return Le stock si le produit existe
+     */
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    /**
+     * Recherche des produits par nom exact
+     *
+     * @param names Les noms exacts
+     * @return Les produits existants parmi ces noms
+     */
+    List<Product> findByNameIn(Collection<String> names);
+
+    /**
+     * Parcourt le catalogue sans charger les entités
+     *
+     * @return L'ID, la catégorie, le prix et le stock de chaque produit
+     */
+    List<ProductStockValue> findAllProjectedBy();
+
     /**
      * Compte le nombre de produits par catégorie
      *
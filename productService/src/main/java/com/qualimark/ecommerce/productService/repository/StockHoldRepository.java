@@ -0,0 +1,48 @@
+package com.qualimark.ecommerce.productService.repository;
+
+import com.qualimark.ecommerce.productService.model.HoldStatus;
+import com.qualimark.ecommerce.productService.model.StockHold;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockHoldRepository extends JpaRepository<StockHold, String> {
+
+    /**
+     * Recherche les réservations dans un état donné
+     *
+     * @param status L'état recherché
+     * @return Les réservations dans cet état
+     */
+    List<StockHold> findByStatus(HoldStatus status);
+
+    /**
+     * Recherche les réservations d'un état donné échues avant une date
+     *
+     * @param status   L'état recherché
+     * @param before   La date d'échéance limite
+     * @param pageable La taille du lot
+     * @return Les réservations échues
+     */
+    List<StockHold> findByStatusAndExpiresAtBefore(HoldStatus status, LocalDateTime before, Pageable pageable);
+
+    /**
+     * Change l'état d'une réservation si elle est dans l'état attendu
+     *
+     * La condition sur l'état rend la transition atomique entre une confirmation,
+     * une libération et une expiration concurrentes.
+     *
+     * @param id   L'ID de la réservation
+     * @param from L'état attendu
+     * @param to   Le nouvel état
+     * @return 1 si la transition a eu lieu, 0 sinon
+     */
+    @Modifying
+    @Query("UPDATE StockHold h SET h.status = :to WHERE h.id = :id AND h.status = :from")
+    int transition(@Param("id") String id, @Param("from") HoldStatus from, @Param("to") HoldStatus to);
+}
@@ -0,0 +1,35 @@
+package com.qualimark.ecommerce.productService.repository;
+
+import com.qualimark.ecommerce.productService.model.StockHoldTotal;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface StockHoldTotalRepository extends JpaRepository<StockHoldTotal, Long> {
+
+    /**
+     * Charge la quantité réservée d'un produit en verrouillant sa ligne jusqu'à la fin de la transaction
+     *
+     * @param productId L'ID du produit
+     * @return La quantité réservée si la ligne existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM StockHoldTotal t WHERE t.productId = :productId")
+    Optional<StockHoldTotal> findByIdForUpdate(@Param("productId") Long productId);
+
+    /**
+     * Ajoute une quantité (négative à la fin d'une réservation) à la quantité réservée d'un produit
+     *
+     * @param productId L'ID du produit
+     * @param delta     La quantité ajoutée
+     * @return 1 si la ligne existe, 0 sinon
+     */
+    @Modifying
+    @Query("UPDATE StockHoldTotal t SET t.reserved = t.reserved + :delta WHERE t.productId = :productId")
+    int addReserved(@Param("productId") Long productId, @Param("delta") int delta);
+}
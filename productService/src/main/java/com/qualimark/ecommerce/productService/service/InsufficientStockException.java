@@ -0,0 +1,11 @@
+package com.qualimark.ecommerce.productService.service;
+
+/**
+ * Levée lorsque le stock disponible ne permet pas de servir la quantité demandée
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(Long productId, int quantity) {
+        super("Stock insuffisant pour réserver " + quantity + " unité(s) du produit " + productId);
+    }
+}
@@ -0,0 +1,62 @@
+package com.qualimark.ecommerce.productService.service;
+
+import com.qualimark.ecommerce.productService.model.OutboxEvent;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.model.ProductChangeType;
+import com.qualimark.ecommerce.productService.repository.OutboxEventRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Service
+@AllArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    /**
+     * Ajoute un événement de modification à l'outbox
+     *
+     * Doit être appelé dans la transaction de l'écriture du produit : l'événement
+     * est validé ou annulé avec elle.
+     *
+     * @param type    Le type de modification
+     * @param product Le produit modifié
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(ProductChangeType type, Product product) {
+        // Le flush applique l'écriture du produit et incrémente sa version avant de l'enregistrer
+        outboxEventRepository.flush();
+        outboxEventRepository.save(new OutboxEvent(product.getId(), type, product.getVersion(), product.getStock()));
+    }
+
+    /**
+     * Ajoute un événement de modification pour chacun des produits
+     *
+     * Un seul flush est effectué pour l'ensemble : les mises à jour des produits
+     * partent en un lot JDBC.
+     *
+     * @param type     Le type de modification
+     * @param products Les produits modifiés
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(ProductChangeType type, Collection<Product> products) {
+        outboxEventRepository.flush();
+        outboxEventRepository.saveAll(products.stream()
+                .map(product -> new OutboxEvent(product.getId(), type, product.getVersion(), product.getStock()))
+                .toList());
+    }
+
+    /**
+     * Ajoute un événement de suppression à l'outbox
+     *
+     * @param productId L'ID du produit supprimé
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendDeletion(Long productId) {
+        outboxEventRepository.save(new OutboxEvent(productId, ProductChangeType.DELETED, null, null));
+    }
+}
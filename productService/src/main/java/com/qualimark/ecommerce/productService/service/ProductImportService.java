@@ -0,0 +1,245 @@
+package com.qualimark.ecommerce.productService.service;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.qualimark.ecommerce.productService.dto.ProductImportReport;
+import com.qualimark.ecommerce.productService.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Import de produits au format NDJSON, un produit JSON par ligne
+ *
+ * Le flux est lu au fil de l'eau : une ligne n'est lue qu'une fois le lot
+ * précédent enregistré, ce qui ralentit l'envoi par le contrôle de flux TCP.
+ * La mémoire utilisée est bornée par la taille d'un lot et d'une ligne, quelle
+ * que soit la taille du fichier. Les produits sont créés ou mis à jour par nom,
+ * un lot par transaction.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    private final ProductService productService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectReader productReader;
+    private final ObjectWriter reportWriter;
+    private final int batchSize;
+    private final int maxLineBytes;
+
+    public ProductImportService(ProductService productService,
+                                EntityManager entityManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${product.import.batch-size:500}") int batchSize,
+                                @Value("${product.import.max-line-bytes:65536}") int maxLineBytes) {
+        this.productService = productService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.productReader = objectMapper.readerFor(Product.class);
+        this.reportWriter = objectMapper.writerFor(ProductImportReport.class);
+        this.batchSize = batchSize;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * Importe les produits du flux et écrit le compte rendu NDJSON au fil de l'import
+     *
+     * @param input  Le flux NDJSON des produits
+     * @param output Le flux du compte rendu, vidé après chaque lot
+     * @return Le résumé de l'import
+     * @throws IOException si la lecture du flux ou l'écriture du compte rendu échoue
+     */
+    public ProductImportReport importProducts(InputStream input, OutputStream output) throws IOException {
+        LineReader reader = new LineReader(input, maxLineBytes);
+        // Par nom : la dernière ligne d'un même produit l'emporte dans le lot
+        Map<String, Row> batch = new LinkedHashMap<>();
+        Counters counters = new Counters();
+
+        while (reader.next()) {
+            counters.lines++;
+            if (reader.isBlank()) {
+                continue;
+            }
+            if (reader.isTruncated()) {
+                reject(output, counters, List.of("Ligne de plus de " + maxLineBytes + " octets"));
+                continue;
+            }
+
+            Product product;
+            try {
+                product = productReader.readValue(reader.buffer(), 0, reader.length());
+            } catch (JacksonException e) {
+                reject(output, counters, List.of("JSON invalide : " + e.getOriginalMessage()));
+                continue;
+            }
+            if (product == null) {
+                reject(output, counters, List.of("Un produit JSON est attendu"));
+                continue;
+            }
+            List<String> violations = validate(product);
+            if (!violations.isEmpty()) {
+                reject(output, counters, violations);
+                continue;
+            }
+
+            // Les identifiants du fournisseur ne sont pas ceux du catalogue
+            product.setId(null);
+            product.setVersion(null);
+            batch.put(product.getName(), new Row(counters.lines, product));
+            if (batch.size() == batchSize) {
+                flush(batch, output, counters);
+            }
+        }
+        flush(batch, output, counters);
+
+        ProductImportReport summary = ProductImportReport.summary(
+                counters.lines, counters.created, counters.updated, counters.failed);
+        write(output, summary);
+        output.flush();
+        log.info("Import de produits terminé : {} lignes, {} créés, {} mis à jour, {} rejetés",
+                counters.lines, counters.created, counters.updated, counters.failed);
+        return summary;
+    }
+
+    private List<String> validate(Product product) {
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<Product> violation : violations) {
+            errors.add(violation.getPropertyPath() + " : " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private void flush(Map<String, Row> batch, OutputStream output, Counters counters) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            UpsertResult result = productService.upsertProducts(batch.values().stream().map(Row::product).toList());
+            counters.created += result.created();
+            counters.updated += result.updated();
+        } catch (RuntimeException e) {
+            log.warn("Échec de l'enregistrement d'un lot de {} produits importés", batch.size(), e);
+            for (Row row : batch.values()) {
+                counters.failed++;
+                write(output, ProductImportReport.error(row.line(), List.of("Échec de l'enregistrement : " + e.getMessage())));
+            }
+        } finally {
+            batch.clear();
+            // Avec open-in-view, le contexte de persistance vit le temps de la requête
+            entityManager.clear();
+        }
+        write(output, ProductImportReport.progress(counters.lines, counters.created, counters.updated, counters.failed));
+        output.flush();
+    }
+
+    private void reject(OutputStream output, Counters counters, List<String> errors) throws IOException {
+        counters.failed++;
+        write(output, ProductImportReport.error(counters.lines, errors));
+    }
+
+    private void write(OutputStream output, ProductImportReport report) throws IOException {
+        output.write(reportWriter.writeValueAsBytes(report));
+        output.write('\n');
+    }
+
+    private record Row(long line, Product product) {
+    }
+
+    private static final class Counters {
+        private long lines;
+        private long created;
+        private long updated;
+        private long failed;
+    }
+
+    /**
+     * Lecture ligne à ligne dans des tampons de taille fixe ; une ligne trop longue est tronquée et signalée
+     */
+    private static final class LineReader {
+
+        private final InputStream input;
+        private final byte[] chunk = new byte[8192];
+        private final byte[] line;
+        private int chunkPosition;
+        private int chunkLimit;
+        private int length;
+        private boolean truncated;
+
+        private LineReader(InputStream input, int maxLineBytes) {
+            this.input = input;
+            this.line = new byte[maxLineBytes];
+        }
+
+        /**
+         * @return false à la fin du flux
+         */
+        boolean next() throws IOException {
+            length = 0;
+            truncated = false;
+            boolean read = false;
+            while (true) {
+                if (chunkPosition == chunkLimit) {
+                    chunkLimit = input.read(chunk);
+                    chunkPosition = 0;
+                    if (chunkLimit <= 0) {
+                        chunkLimit = 0;
+                        return read;
+                    }
+                }
+                read = true;
+                byte b = chunk[chunkPosition++];
+                if (b == '\n') {
+                    break;
+                }
+                if (length < line.length) {
+                    line[length++] = b;
+                } else {
+                    truncated = true;
+                }
+            }
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return true;
+        }
+
+        boolean isBlank() {
+            for (int i = 0; i < length; i++) {
+                if (!Character.isWhitespace(line[i])) {
+                    return false;
+                }
+            }
+            return !truncated;
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        byte[] buffer() {
+            return line;
+        }
+
+        int length() {
+            return length;
+        }
+    }
+}
@@ -1,20 +1,52 @@
 package com.qualimark.ecommerce.productService.service;
 
+import com.qualimark.ecommerce.productService.cache.InvalidationBus;
+import com.qualimark.ecommerce.productService.cache.ProductCache;
+import com.qualimark.ecommerce.productService.index.CatalogSnapshot;
+import com.qualimark.ecommerce.productService.index.CategoryTopIndex;
+import com.qualimark.ecommerce.productService.index.ColumnarCatalogIndex;
+import com.qualimark.ecommerce.productService.index.ProductSearchIndex;
+import com.qualimark.ecommerce.productService.index.RankingCriterion;
 import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.model.ProductChangeType;
+import com.qualimark.ecommerce.productService.profiling.ProductLookupEvent;
+import com.qualimark.ecommerce.productService.profiling.ProductSearchEvent;
+import com.qualimark.ecommerce.productService.profiling.StockChangeEvent;
 import com.qualimark.ecommerce.productService.repository.ProductRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 @Service
 @AllArgsConstructor
 @Transactional
 public class ProductService {
 
+    private static final long[] NO_IDS = new long[0];
+
+    /**
+     * Taille maximale d'un lot d'IDs chargé en une requête (PostgreSQL plafonne à 65 535 paramètres)
+     */
+    private static final int MAX_IDS_PER_QUERY = 1_000;
+
     private final ProductRepository productRepository;
+    private final OutboxService outboxService;
+    private final InvalidationBus invalidationBus;
+    private final ProductCache productCache;
+    private final CategoryTopIndex categoryTopIndex;
+    private final ProductSearchIndex productSearchIndex;
+    private final ColumnarCatalogIndex catalogIndex;
 
     /**
      * Récupère tous les produits
@@ -34,7 +66,15 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        ProductLookupEvent event = new ProductLookupEvent();
+        event.begin();
+        Product product = productCache.getOrLoad(id, key -> productRepository.findById(key).orElse(null));
+        if (event.shouldCommit()) {
+            event.productId = id;
+            event.found = product != null;
+            event.commit();
+        }
+        return Optional.ofNullable(product);
     }
 
     /**
@@ -49,7 +89,9 @@ public class ProductService {
             throw new IllegalArgumentException("Un produit avec ce nom existe déjà");
         }
 
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        recordChange(ProductChangeType.CREATED, savedProduct);
+        return savedProduct;
     }
 
     /**
@@ -69,7 +111,9 @@ public class ProductService {
         product.setStock(productDetails.getStock());
         product.setCategory(productDetails.getCategory());
 
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        recordChange(ProductChangeType.UPDATED, savedProduct);
+        return savedProduct;
     }
 
     /**
@@ -83,6 +127,8 @@ public class ProductService {
         }
 
         productRepository.deleteById(id);
+        outboxService.appendDeletion(id);
+        invalidationBus.broadcast(id, null);
     }
 
     /**
@@ -93,7 +139,42 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+        ProductSearchEvent event = new ProductSearchEvent();
+        event.begin();
+        CatalogSnapshot snapshot = catalogIndex.snapshot();
+        List<Product> products;
+        if (isPublished(snapshot)) {
+            int categoryCode = catalogIndex.categoryCode(category);
+            long[] ids = new long[snapshot.selectByCategory(categoryCode, NO_IDS)];
+            snapshot.selectByCategory(categoryCode, ids);
+            products = loadSelected(ids, product -> category.equals(product.getCategory()));
+        } else {
+            products = productRepository.findByCategory(category);
+        }
+        commitSearch(event, "category", category, 0, products);
+        return products;
+    }
+
+    /**
+     * Récupère les n premiers produits d'une catégorie selon un critère
+     *
+     * @param category  La catégorie
+     * @param criterion Le critère de classement
+     * @param direction L'ordre du classement
+     * @param n         Le nombre de produits souhaité
+     * @return Les produits, dans l'ordre du classement
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getTopProductsByCategory(String category, RankingCriterion criterion,
+                                                  Sort.Direction direction, int n) {
+        ProductSearchEvent event = new ProductSearchEvent();
+        event.begin();
+        List<Product> products = categoryTopIndex.top(category, criterion, direction, n).stream()
+                .map(this::getProductById)
+                .flatMap(Optional::stream)
+                .toList();
+        commitSearch(event, "top-category", category, n, products);
+        return products;
     }
 
     /**
@@ -104,7 +185,32 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<Product> searchProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+        ProductSearchEvent event = new ProductSearchEvent();
+        event.begin();
+        List<Product> products = productRepository.findByNameContainingIgnoreCase(name);
+        commitSearch(event, "name", name, 0, products);
+        return products;
+    }
+
+    /**
+     * Recherche plein texte classée sur le nom et la description
+     *
+     * Insensible à la casse et aux accents, tolérante aux fautes de frappe.
+     *
+     * @param query La requête en texte libre
+     * @param limit Le nombre maximal de résultats
+     * @return Les produits, du plus pertinent au moins pertinent
+     */
+    @Transactional(readOnly = true)
+    public List<Product> searchProducts(String query, int limit) {
+        ProductSearchEvent event = new ProductSearchEvent();
+        event.begin();
+        List<Product> products = productSearchIndex.search(query, limit).stream()
+                .map(this::getProductById)
+                .flatMap(Optional::stream)
+                .toList();
+        commitSearch(event, "fulltext", query, limit, products);
+        return products;
     }
 
     /**
@@ -114,7 +220,35 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<Product> getAvailableProducts() {
-        return productRepository.findAvailableProducts();
+        CatalogSnapshot snapshot = catalogIndex.snapshot();
+        if (!isPublished(snapshot)) {
+            return productRepository.findAvailableProducts();
+        }
+        long[] ids = new long[snapshot.selectAvailable(NO_IDS)];
+        snapshot.selectAvailable(ids);
+        return loadSelected(ids, product -> product.getStock() > 0);
+    }
+
+    /**
+     * Recherche des produits dans une fourchette de prix
+     *
+     * @param minPrice Le prix minimal, inclus
+     * @param maxPrice Le prix maximal, inclus
+     * @return Liste des produits dont le prix est compris entre les deux bornes
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        CatalogSnapshot snapshot = catalogIndex.snapshot();
+        if (!isPublished(snapshot)) {
+            return productRepository.findByPriceRange(minPrice.doubleValue(), maxPrice.doubleValue());
+        }
+        // Les prix sont au centime : l'arrondi des bornes ne retient pas moins de produits
+        long minCents = ColumnarCatalogIndex.toCents(minPrice);
+        long maxCents = ColumnarCatalogIndex.toCents(maxPrice);
+        long[] ids = new long[snapshot.selectByPriceRange(minCents, maxCents, NO_IDS)];
+        snapshot.selectByPriceRange(minCents, maxCents, ids);
+        return loadSelected(ids, product -> product.getPrice().compareTo(minPrice) >= 0
+                && product.getPrice().compareTo(maxPrice) <= 0);
     }
 
     /**
@@ -125,6 +259,8 @@ public class ProductService {
      * @return Le produit mis à jour
      */
     public Product updateStock(Long id, Integer newStock) {
+        StockChangeEvent event = new StockChangeEvent();
+        event.begin();
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Produit non trouvé avec l'ID : " + id));
 
@@ -132,8 +268,110 @@ public class ProductService {
             throw new IllegalArgumentException("Le stock ne peut pas être négatif");
         }
 
+        int previousStock = product.getStock();
         product.setStock(newStock);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        recordChange(ProductChangeType.STOCK_CHANGED, savedProduct);
+        commitStockChange(event, id, previousStock, newStock);
+        return savedProduct;
+    }
+
+    /**
+     * Met à jour le stock de plusieurs produits dans une seule transaction
+     *
+     * @param stocks Le nouveau stock par ID de produit
+     * @return Les produits mis à jour par ID ; les produits inexistants sont absents
+     * @throws IllegalArgumentException si un stock est négatif
+     */
+    public Map<Long, Product> updateStocks(Map<Long, Integer> stocks) {
+        if (stocks.values().stream().anyMatch(stock -> stock < 0)) {
+            throw new IllegalArgumentException("Le stock ne peut pas être négatif");
+        }
+
+        StockChangeEvent event = new StockChangeEvent();
+        event.begin();
+        List<Product> products = productRepository.findAllById(stocks.keySet());
+        for (Product product : products) {
+            product.setStock(stocks.get(product.getId()));
+        }
+
+        List<Product> savedProducts = productRepository.saveAll(products);
+        outboxService.appendAll(ProductChangeType.STOCK_CHANGED, savedProducts);
+        Map<Long, Product> updated = new HashMap<>();
+        for (Product product : savedProducts) {
+            invalidationBus.broadcast(product.getId(), product.getVersion());
+            updated.put(product.getId(), product);
+        }
+        if (event.shouldCommit()) {
+            event.rows = updated.size();
+            event.commit();
+        }
+        return updated;
+    }
+
+    /**
+     * Crée ou met à jour des produits dans une seule transaction, par nom
+     *
+     * @param products Les produits, de noms distincts
+     * @return Le nombre de produits créés et mis à jour
+     */
+    public UpsertResult upsertProducts(Collection<Product> products) {
+        Map<String, Product> existing = new HashMap<>();
+        for (Product product : productRepository.findByNameIn(products.stream().map(Product::getName).toList())) {
+            existing.put(product.getName(), product);
+        }
+
+        List<Product> created = new ArrayList<>();
+        List<Product> updated = new ArrayList<>();
+        for (Product product : products) {
+            Product current = existing.get(product.getName());
+            if (current == null) {
+                created.add(product);
+            } else {
+                current.setDescription(product.getDescription());
+                current.setPrice(product.getPrice());
+                current.setStock(product.getStock());
+                current.setCategory(product.getCategory());
+                updated.add(current);
+            }
+        }
+
+        List<Product> savedCreated = productRepository.saveAll(created);
+        List<Product> savedUpdated = productRepository.saveAll(updated);
+        outboxService.appendAll(ProductChangeType.CREATED, savedCreated);
+        outboxService.appendAll(ProductChangeType.UPDATED, savedUpdated);
+        for (Product product : savedCreated) {
+            invalidationBus.broadcast(product.getId(), product.getVersion());
+        }
+        for (Product product : savedUpdated) {
+            invalidationBus.broadcast(product.getId(), product.getVersion());
+        }
+        return new UpsertResult(savedCreated.size(), savedUpdated.size());
+    }
+
+    /**
+     * Décrémente le stock d'un produit
+     *
+     * @param id       L'ID du produit
+     * @param quantity La quantité à retirer du stock
+     * @return Le produit mis à jour
+     */
+    public Product decreaseStock(Long id, int quantity) {
+        StockChangeEvent event = new StockChangeEvent();
+        event.begin();
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Produit non trouvé avec l'ID : " + id));
+
+        if (product.getStock() < quantity) {
+            throw new InsufficientStockException(id, quantity);
+        }
+
+        int previousStock = product.getStock();
+        product.setStock(previousStock - quantity);
+        Product savedProduct = productRepository.save(product);
+        recordChange(ProductChangeType.STOCK_CHANGED, savedProduct);
+        commitStockChange(event, id, previousStock, previousStock - quantity);
+        return savedProduct;
     }
 
     /**
@@ -149,4 +387,68 @@ public class ProductService {
                 .orElse(false);
     }
 
+    /**
+     * Tant qu'aucun instantané n'a été publié (démarrage), les filtres sont servis par la base
+     */
+    private static boolean isPublished(CatalogSnapshot snapshot) {
+        return snapshot.epoch() > 0;
+    }
+
+    /**
+     * Charge les produits retenus par un filtre de l'instantané du catalogue, triés par ID
+     *
+     * Les IDs sont comptés avant d'être copiés : le tableau a la taille du
+     * résultat, pas celle du catalogue. Les produits en cache sont servis sans
+     * requête, les autres sont chargés par lots de {@link #MAX_IDS_PER_QUERY}.
+     * L'instantané peut être en retard d'une époque : le critère est vérifié de
+     * nouveau sur l'état chargé.
+     */
+    private List<Product> loadSelected(long[] ids, Predicate<Product> criterion) {
+        List<Product> products = new ArrayList<>(ids.length);
+        List<Long> missing = new ArrayList<>();
+        for (long id : ids) {
+            Product cached = productCache.get(id);
+            if (cached != null) {
+                products.add(cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += MAX_IDS_PER_QUERY) {
+            products.addAll(productRepository.findAllById(
+                    missing.subList(from, Math.min(from + MAX_IDS_PER_QUERY, missing.size()))));
+        }
+        products.removeIf(criterion.negate());
+        products.sort(Comparator.comparing(Product::getId));
+        return products;
+    }
+
+    private static void commitSearch(ProductSearchEvent event, String kind, String query, int limit, List<Product> products) {
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.query = query;
+            event.limit = limit;
+            event.rows = products.size();
+            event.commit();
+        }
+    }
+
+    private static void commitStockChange(StockChangeEvent event, Long id, int previousStock, int newStock) {
+        if (event.shouldCommit()) {
+            event.productId = id;
+            event.previousStock = previousStock;
+            event.newStock = newStock;
+            event.rows = 1;
+            event.commit();
+        }
+    }
+
+    /**
+     * Enregistre une modification dans l'outbox et invalide les caches de tous les réplicas
+     */
+    private void recordChange(ProductChangeType type, Product product) {
+        outboxService.append(type, product);
+        invalidationBus.broadcast(product.getId(), product.getVersion());
+    }
+
 }
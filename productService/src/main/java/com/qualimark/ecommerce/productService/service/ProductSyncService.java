@@ -0,0 +1,154 @@
+package com.qualimark.ecommerce.productService.service;
+
+import com.qualimark.ecommerce.productService.dto.ProductChanges;
+import com.qualimark.ecommerce.productService.model.OutboxEvent;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.model.ProductChangeType;
+import com.qualimark.ecommerce.productService.repository.OutboxEventRepository;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Synchronisation incrémentale du catalogue à partir de la séquence de l'outbox
+ *
+ * Le jeton est le numéro de séquence du dernier événement outbox transmis au client.
+ * Les événements DELETED de l'outbox servent de "tombstones" pour les suppressions.
+ * Le coût d'une synchronisation dépend du nombre de modifications, pas de la taille
+ * du catalogue : un parcours de la clé primaire de l'outbox puis un chargement par IDs.
+ *
+ * Les IDs de l'outbox sont attribués à l'insertion mais deviennent visibles au
+ * commit, dans un ordre qui peut différer : un jeton ne dépasse donc jamais un
+ * événement survenu depuis moins de {@code product.sync.commit-lag}. Toute
+ * transaction écrivant dans l'outbox doit durer moins que ce délai, décalage
+ * d'horloge entre réplicas compris.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductSyncService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ProductRepository productRepository;
+    private final Duration commitLag;
+    private final int maxLimit;
+
+    public ProductSyncService(OutboxEventRepository outboxEventRepository,
+                              ProductRepository productRepository,
+                              @Value("${product.sync.commit-lag:PT10S}") Duration commitLag,
+                              @Value("${product.sync.max-limit:1000}") int maxLimit) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.productRepository = productRepository;
+        this.commitLag = commitLag;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Retourne le jeton désignant l'état courant du catalogue
+     *
+     * Un client qui télécharge le catalogue complet doit obtenir ce jeton avant
+     * le téléchargement : les modifications concurrentes lui seront retransmises.
+     *
+     * @return Le jeton courant
+     */
+    public String currentToken() {
+        Optional<OutboxEvent> settled = outboxEventRepository.findTopByOccurredAtBeforeOrderByIdDesc(commitCutoff());
+        if (settled.isPresent()) {
+            return String.valueOf(settled.get().getId());
+        }
+        // Uniquement des événements récents : le jeton les précède tous sans être expiré
+        return outboxEventRepository.findTopByOrderByIdAsc()
+                .map(event -> String.valueOf(event.getId() - 1))
+                .orElse("0");
+    }
+
+    /**
+     * Récupère les modifications postérieures à un jeton
+     *
+     * @param token Le jeton obtenu lors de la synchronisation précédente
+     * @param limit Le nombre maximal d'événements à parcourir, plafonné à
+     *              {@code product.sync.max-limit}
+     * @return Les produits modifiés, les produits supprimés et le nouveau jeton
+     * @throws IllegalArgumentException  si le jeton est invalide
+     * @throws SyncTokenExpiredException si des modifications postérieures au jeton ont été purgées
+     */
+    public ProductChanges getChangesSince(String token, int limit) {
+        long since = parseToken(token);
+        if (limit <= 0) {
+            throw new IllegalArgumentException("La limite doit être positive");
+        }
+        // Le client choisit la limite : sans plafond, une seule requête chargerait toute l'outbox
+        limit = Math.min(limit, maxLimit);
+
+        Optional<OutboxEvent> oldest = outboxEventRepository.findTopByOrderByIdAsc();
+        if (oldest.isPresent() && since < oldest.get().getId() - 1) {
+            throw new SyncTokenExpiredException(token);
+        }
+
+        List<OutboxEvent> page = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(since, PageRequest.of(0, limit));
+        // Arrêt au premier événement récent : un ID inférieur peut encore être en cours de commit
+        LocalDateTime cutoff = commitCutoff();
+        int settled = 0;
+        while (settled < page.size() && page.get(settled).getOccurredAt().isBefore(cutoff)) {
+            settled++;
+        }
+        List<OutboxEvent> events = page.subList(0, settled);
+        if (events.isEmpty()) {
+            return new ProductChanges(List.of(), List.of(), String.valueOf(since), false);
+        }
+
+        // Seul le dernier événement de chaque produit compte ; l'ordre est celui de la première modification
+        Map<Long, ProductChangeType> lastChanges = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            lastChanges.put(event.getProductId(), event.getType());
+        }
+
+        List<Long> upsertedIds = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        lastChanges.forEach((productId, type) -> (type == ProductChangeType.DELETED ? deleted : upsertedIds).add(productId));
+
+        Map<Long, Product> found = new HashMap<>();
+        for (Product product : productRepository.findAllById(upsertedIds)) {
+            found.put(product.getId(), product);
+        }
+        List<Product> updated = new ArrayList<>(found.size());
+        for (Long id : upsertedIds) {
+            Product product = found.get(id);
+            if (product != null) {
+                updated.add(product);
+            } else {
+                // Produit supprimé après le dernier événement lu : sa tombstone suivra
+                deleted.add(id);
+            }
+        }
+
+        String nextToken = String.valueOf(events.get(events.size() - 1).getId());
+        return new ProductChanges(updated, deleted, nextToken, page.size() == limit && settled == limit);
+    }
+
+    private LocalDateTime commitCutoff() {
+        return LocalDateTime.now().minus(commitLag);
+    }
+
+    private static long parseToken(String token) {
+        try {
+            long since = Long.parseLong(token);
+            if (since < 0) {
+                throw new IllegalArgumentException("Jeton de synchronisation invalide : " + token);
+            }
+            return since;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Jeton de synchronisation invalide : " + token);
+        }
+    }
+}
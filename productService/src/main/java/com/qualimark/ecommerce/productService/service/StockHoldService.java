@@ -0,0 +1,290 @@
+package com.qualimark.ecommerce.productService.service;
+
+import com.qualimark.ecommerce.productService.hold.HashedTimingWheel;
+import com.qualimark.ecommerce.productService.model.HoldStatus;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.model.StockHold;
+import com.qualimark.ecommerce.productService.model.StockHoldTotal;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import com.qualimark.ecommerce.productService.repository.StockHoldRepository;
+import com.qualimark.ecommerce.productService.repository.StockHoldTotalRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Réservations de stock à durée limitée pour le checkout
+ *
+ * Une réservation est insérée dans sa propre table ; le stock du produit n'est
+ * modifié qu'à la confirmation. La quantité réservée de chaque produit est
+ * tenue dans {@code stock_hold_totals} : les réservations d'un produit se
+ * sérialisent sur cette ligne, jamais sur celle du produit, et deux réplicas
+ * ne peuvent pas réserver la même unité.
+ *
+ * L'expiration est portée par une {@link HashedTimingWheel} sur l'instance qui
+ * a créé la réservation. Si cette instance s'arrête, un balayage périodique
+ * des réservations échues les expire depuis n'importe quelle instance.
+ */
+@Slf4j
+@Service
+@Transactional
+public class StockHoldService {
+
+    private static final Duration EXPIRY_RETRY_DELAY = Duration.ofSeconds(30);
+    private static final int RECLAIM_BATCH_SIZE = 500;
+
+    private final StockHoldRepository stockHoldRepository;
+    private final StockHoldTotalRepository stockHoldTotalRepository;
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final HashedTimingWheel timingWheel;
+    private final ExecutorService expiryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentMap<String, HashedTimingWheel.Timeout> scheduledHolds = new ConcurrentHashMap<>();
+
+    public StockHoldService(StockHoldRepository stockHoldRepository,
+                            StockHoldTotalRepository stockHoldTotalRepository,
+                            ProductService productService,
+                            ProductRepository productRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${product.holds.default-ttl:PT15M}") Duration defaultTtl,
+                            @Value("${product.holds.max-ttl:PT2H}") Duration maxTtl,
+                            @Value("${product.holds.wheel.tick:100ms}") Duration tick,
+                            @Value("${product.holds.wheel.ticks-per-wheel:512}") int ticksPerWheel) {
+        this.stockHoldRepository = stockHoldRepository;
+        this.stockHoldTotalRepository = stockHoldTotalRepository;
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.timingWheel = new HashedTimingWheel(tick, ticksPerWheel, "stock-hold-expiry");
+    }
+
+    /**
+     * Crée une réservation de stock
+     *
+     * @param productId L'ID du produit
+     * @param quantity  La quantité à réserver
+     * @param ttl       La durée de la réservation (null : durée par défaut, plafonnée à la durée maximale)
+     * @return La réservation créée
+     * @throws IllegalArgumentException   si le produit n'existe pas ou si les paramètres sont invalides
+     * @throws InsufficientStockException si le stock disponible est insuffisant
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StockHold createHold(Long productId, int quantity, Duration ttl) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("La quantité doit être positive");
+        }
+        Duration requestedTtl = ttl != null ? ttl : defaultTtl;
+        if (requestedTtl.isNegative() || requestedTtl.isZero()) {
+            throw new IllegalArgumentException("La durée de réservation doit être positive");
+        }
+        Duration holdTtl = requestedTtl.compareTo(maxTtl) > 0 ? maxTtl : requestedTtl;
+
+        // La ligne des totaux est créée dans sa propre transaction, avant d'être verrouillée
+        createTotalIfAbsent(productId);
+        return transactionTemplate.execute(status -> reserve(productId, quantity, holdTtl));
+    }
+
+    /**
+     * Confirme une réservation : le stock du produit est décrémenté
+     *
+     * @param holdId L'ID de la réservation
+     * @return La réservation confirmée
+     * @throws IllegalArgumentException si la réservation n'existe pas
+     * @throws IllegalStateException    si la réservation n'est plus active
+     */
+    public StockHold confirm(String holdId) {
+        StockHold hold = transition(holdId, HoldStatus.CONFIRMED);
+        productService.decreaseStock(hold.getProductId(), hold.getQuantity());
+        return hold;
+    }
+
+    /**
+     * Libère une réservation avant son expiration
+     *
+     * @param holdId L'ID de la réservation
+     * @return La réservation libérée
+     * @throws IllegalArgumentException si la réservation n'existe pas
+     * @throws IllegalStateException    si la réservation n'est plus active
+     */
+    public StockHold release(String holdId) {
+        return transition(holdId, HoldStatus.RELEASED);
+    }
+
+    /**
+     * Calcule le stock disponible : stock du produit moins les réservations actives
+     *
+     * @param productId L'ID du produit
+     * @return Le stock disponible
+     * @throws IllegalArgumentException si le produit n'existe pas
+     */
+    @Transactional(readOnly = true)
+    public int getAvailableStock(Long productId) {
+        Product product = productService.getProductById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Produit non trouvé avec l'ID : " + productId));
+        int reserved = stockHoldTotalRepository.findById(productId).map(StockHoldTotal::getReserved).orElse(0);
+        return Math.max(0, product.getStock() - reserved);
+    }
+
+    /**
+     * Reprend les réservations actives après un redémarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverActiveHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        for (StockHold hold : stockHoldRepository.findByStatus(HoldStatus.ACTIVE)) {
+            Duration remaining = Duration.between(now, hold.getExpiresAt());
+            schedule(hold.getId(), remaining.isNegative() ? Duration.ZERO : remaining);
+        }
+    }
+
+    /**
+     * Expire les réservations échues que leur instance n'a pas expirées (instance arrêtée)
+     */
+    @Scheduled(fixedDelayString = "${product.holds.reclaim-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reclaimExpiredHolds() {
+        List<StockHold> expired;
+        do {
+            // Chaque réservation expire dans sa propre transaction : le lot suivant ne relit pas celles-ci
+            expired = stockHoldRepository.findByStatusAndExpiresAtBefore(HoldStatus.ACTIVE, LocalDateTime.now(),
+                    PageRequest.of(0, RECLAIM_BATCH_SIZE, Sort.by("expiresAt")));
+            expired.forEach(hold -> expire(hold.getId()));
+        } while (expired.size() == RECLAIM_BATCH_SIZE);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timingWheel.close();
+        expiryExecutor.shutdown();
+    }
+
+    private void createTotalIfAbsent(Long productId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!stockHoldTotalRepository.existsById(productId)) {
+                    if (!productRepository.existsById(productId)) {
+                        throw new IllegalArgumentException("Produit non trouvé avec l'ID : " + productId);
+                    }
+                    stockHoldTotalRepository.saveAndFlush(new StockHoldTotal(productId));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Créée entre-temps par une réservation concurrente
+        }
+    }
+
+    private StockHold reserve(Long productId, int quantity, Duration holdTtl) {
+        // Le verrou sérialise les réservations du produit entre toutes les instances jusqu'au commit
+        StockHoldTotal total = stockHoldTotalRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new IllegalStateException("Totaux de réservation absents : " + productId));
+        // Lu sous le verrou : une confirmation décrémente le stock et la quantité réservée dans la même transaction
+        int stock = productRepository.findStockById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Produit non trouvé avec l'ID : " + productId));
+        if (stock - total.getReserved() < quantity) {
+            throw new InsufficientStockException(productId, quantity);
+        }
+        stockHoldTotalRepository.addReserved(productId, quantity);
+
+        StockHold hold = new StockHold(productId, quantity, LocalDateTime.now().plus(holdTtl));
+        afterCompletion(committed -> {
+            if (committed) {
+                schedule(hold.getId(), holdTtl);
+            }
+        });
+        return stockHoldRepository.save(hold);
+    }
+
+    private StockHold transition(String holdId, HoldStatus target) {
+        StockHold hold = stockHoldRepository.findById(holdId)
+                .orElseThrow(() -> new IllegalArgumentException("Réservation non trouvée : " + holdId));
+        if (!finish(hold, target)) {
+            throw new IllegalStateException("La réservation n'est plus active : " + holdId);
+        }
+        afterCompletion(committed -> {
+            if (committed) {
+                unschedule(holdId);
+            }
+        });
+        return hold;
+    }
+
+    /**
+     * Termine une réservation active et rend sa quantité au stock disponible
+     *
+     * Une réservation échue reste comptée jusqu'à son expiration effective : elle peut encore être confirmée.
+     *
+     * @return false si la réservation n'était plus active
+     */
+    private boolean finish(StockHold hold, HoldStatus target) {
+        if (stockHoldRepository.transition(hold.getId(), HoldStatus.ACTIVE, target) == 0) {
+            return false;
+        }
+        stockHoldTotalRepository.addReserved(hold.getProductId(), -hold.getQuantity());
+        hold.setStatus(target);
+        return true;
+    }
+
+    private void schedule(String holdId, Duration delay) {
+        scheduledHolds.put(holdId, scheduleExpiry(holdId, delay));
+    }
+
+    private HashedTimingWheel.Timeout scheduleExpiry(String holdId, Duration delay) {
+        // Le thread de la roue ne fait que déléguer : l'expiration écrit en base
+        return timingWheel.schedule(() -> expiryExecutor.execute(() -> expire(holdId)), delay);
+    }
+
+    private void unschedule(String holdId) {
+        HashedTimingWheel.Timeout timeout = scheduledHolds.remove(holdId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void expire(String holdId) {
+        try {
+            // Expirée ici ou déjà confirmée/libérée ailleurs : la réservation n'est plus active
+            transactionTemplate.executeWithoutResult(status ->
+                    stockHoldRepository.findById(holdId).ifPresent(hold -> finish(hold, HoldStatus.EXPIRED)));
+            unschedule(holdId);
+        } catch (RuntimeException e) {
+            log.warn("Échec de l'expiration de la réservation {}, nouvelle tentative dans {}", holdId, EXPIRY_RETRY_DELAY, e);
+            scheduledHolds.computeIfPresent(holdId, (id, timeout) -> scheduleExpiry(id, EXPIRY_RETRY_DELAY));
+        }
+    }
+
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
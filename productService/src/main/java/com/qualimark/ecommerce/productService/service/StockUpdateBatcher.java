@@ -0,0 +1,196 @@
+package com.qualimark.ecommerce.productService.service;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Regroupe les mises à jour de stock en micro-lots validés ensemble (group commit)
+ *
+ * Les mises à jour sont placées dans une file qu'un thread unique vide par lots,
+ * au plus tard après le délai maximal ou dès que la taille maximale est atteinte.
+ * Les mises à jour d'un même produit sont fusionnées (la dernière l'emporte) et
+ * chaque lot est appliqué dans une seule transaction : un seul commit pour
+ * l'ensemble des appelants, qui reçoivent leur résultat après ce commit.
+ *
+ * L'attente d'un appelant est bornée. Si le thread d'écriture s'arrête (arrêt
+ * de l'application ou erreur fatale), les mises à jour encore en file sont
+ * mises en échec et les suivantes sont appliquées seules.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "product.stock.group-commit", name = "enabled", havingValue = "true")
+public class StockUpdateBatcher {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final ProductService productService;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+    private final Duration commitTimeout;
+    private final BlockingQueue<PendingUpdate> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public StockUpdateBatcher(ProductService productService,
+                              @Value("${product.stock.group-commit.max-delay:2ms}") Duration maxDelay,
+                              @Value("${product.stock.group-commit.max-batch-size:500}") int maxBatchSize,
+                              @Value("${product.stock.group-commit.queue-capacity:10000}") int queueCapacity,
+                              @Value("${product.stock.group-commit.commit-timeout:5s}") Duration commitTimeout) {
+        this.productService = productService;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.commitTimeout = commitTimeout;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.writer = Thread.ofPlatform().name("stock-group-commit").daemon().start(this::run);
+    }
+
+    /**
+     * Met à jour le stock d'un produit et attend le commit du lot qui la contient
+     *
+     * @param id    L'ID du produit
+     * @param stock Le nouveau stock
+     * @return Le produit mis à jour
+     * @throws IllegalArgumentException si le produit n'existe pas ou si le stock est négatif
+     * @throws IllegalStateException    si le commit n'est pas confirmé dans le délai ou si le regroupement s'est arrêté
+     */
+    public Product updateStock(Long id, Integer stock) {
+        if (stock < 0) {
+            throw new IllegalArgumentException("Le stock ne peut pas être négatif");
+        }
+        PendingUpdate update = new PendingUpdate(id, stock, new CompletableFuture<>());
+        if (!running || !queue.offer(update)) {
+            // File saturée : la mise à jour est appliquée seule plutôt que rejetée
+            return productService.updateStock(id, stock);
+        }
+        if (!running && queue.remove(update)) {
+            // Le thread d'écriture s'est arrêté après la vérification : la file ne sera plus vidée
+            return productService.updateStock(id, stock);
+        }
+        try {
+            return update.result().get(commitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (queue.remove(update)) {
+                throw new IllegalStateException("Mise à jour de stock non appliquée dans le délai de " + commitTimeout, e);
+            }
+            // Déjà prise dans un lot : elle peut encore être validée
+            throw new IllegalStateException("Commit de la mise à jour de stock non confirmé dans le délai de " + commitTimeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attente du commit interrompue", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return Le nombre de mises à jour en attente d'un lot
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(Duration.ofSeconds(5));
+    }
+
+    private void run() {
+        List<PendingUpdate> batch = new ArrayList<>(maxBatchSize);
+        try {
+            // Après l'arrêt, la file est vidée avant de rendre la main
+            while (running || !queue.isEmpty()) {
+                PendingUpdate first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingUpdate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                apply(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | Error e) {
+            log.error("Arrêt du regroupement des mises à jour de stock", e);
+            throw e;
+        } finally {
+            running = false;
+            // Aucun appelant ne doit attendre un lot qui ne sera jamais appliqué
+            queue.drainTo(batch);
+            batch.forEach(update -> update.result().completeExceptionally(
+                    new IllegalStateException("Mise à jour de stock abandonnée : regroupement arrêté")));
+        }
+    }
+
+    private void apply(List<PendingUpdate> batch) {
+        Map<Long, Integer> stocks = new LinkedHashMap<>();
+        for (PendingUpdate update : batch) {
+            stocks.put(update.productId(), update.stock());
+        }
+
+        Map<Long, Product> updated;
+        try {
+            updated = productService.updateStocks(stocks);
+        } catch (RuntimeException e) {
+            // Un conflit sur un produit ne doit pas faire échouer tout le lot
+            log.warn("Échec du lot de {} mises à jour de stock, application unitaire", stocks.size(), e);
+            applyIndividually(batch);
+            return;
+        }
+
+        for (PendingUpdate update : batch) {
+            Product product = updated.get(update.productId());
+            if (product != null) {
+                update.result().complete(product);
+            } else {
+                update.result().completeExceptionally(
+                        new IllegalArgumentException("Produit non trouvé avec l'ID : " + update.productId()));
+            }
+        }
+    }
+
+    private void applyIndividually(List<PendingUpdate> batch) {
+        for (PendingUpdate update : batch) {
+            try {
+                update.result().complete(productService.updateStock(update.productId(), update.stock()));
+            } catch (RuntimeException e) {
+                update.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private record PendingUpdate(Long productId, int stock, CompletableFuture<Product> result) {
+    }
+}
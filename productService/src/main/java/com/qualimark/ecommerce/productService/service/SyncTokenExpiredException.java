@@ -0,0 +1,12 @@
+package com.qualimark.ecommerce.productService.service;
+
+/**
+ * Levée lorsque les modifications postérieures à un jeton de synchronisation
+ * ne sont plus conservées : le client doit recharger le catalogue complet
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+
+    public SyncTokenExpiredException(String token) {
+        super("Jeton de synchronisation expiré : " + token);
+    }
+}
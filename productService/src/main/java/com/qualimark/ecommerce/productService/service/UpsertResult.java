@@ -0,0 +1,10 @@
+package com.qualimark.ecommerce.productService.service;
+
+/**
+ * Résultat d'une création ou mise à jour groupée de produits
+ *
+ * @param created Le nombre de produits créés
+ * @param updated Le nombre de produits mis à jour
+ */
+public record UpsertResult(int created, int updated) {
+}
@@ -0,0 +1,99 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trace en cours de construction, propre au thread de la requête
+ */
+final class ActiveTrace {
+
+    private final String method;
+    private final String path;
+    private final Instant startedAt = Instant.now();
+    private final int maxSpans;
+    private final List<OpenSpan> spans = new ArrayList<>();
+    private int depth;
+    private int droppedSpans;
+
+    ActiveTrace(String method, String path, int maxSpans) {
+        this.method = method;
+        this.path = path;
+        this.maxSpans = maxSpans;
+        // Le span racine, d'index 0, porte le début et la durée de la trace
+        open(Layer.HTTP, method + " " + path);
+    }
+
+    /**
+     * @return L'index du span, ou -1 s'il est écarté
+     */
+    int open(Layer layer, String name) {
+        int spanDepth = depth++;
+        if (spans.size() == maxSpans) {
+            droppedSpans++;
+            return -1;
+        }
+        spans.add(new OpenSpan(layer, name, spanDepth, System.nanoTime()));
+        return spans.size() - 1;
+    }
+
+    void close(int index) {
+        depth--;
+        if (index >= 0) {
+            OpenSpan span = spans.get(index);
+            span.durationNanos = System.nanoTime() - span.startNanos;
+        }
+    }
+
+    long elapsedNanos() {
+        OpenSpan root = spans.get(0);
+        return root.durationNanos >= 0 ? root.durationNanos : System.nanoTime() - root.startNanos;
+    }
+
+    Trace toTrace(int status) {
+        long startNanos = spans.get(0).startNanos;
+        long durationNanos = elapsedNanos();
+        List<Span> finished = new ArrayList<>(spans.size());
+        long[] selfNanos = new long[spans.size()];
+        int[] lastAtDepth = new int[spans.size() + 1];
+        for (int i = 0; i < spans.size(); i++) {
+            OpenSpan span = spans.get(i);
+            // Un span resté ouvert se termine avec la requête
+            long spanNanos = span.durationNanos >= 0 ? span.durationNanos : startNanos + durationNanos - span.startNanos;
+            selfNanos[i] += spanNanos;
+            lastAtDepth[span.depth] = i;
+            if (span.depth > 0) {
+                selfNanos[lastAtDepth[span.depth - 1]] -= spanNanos;
+            }
+            finished.add(new Span(span.layer, span.name, span.depth,
+                    (span.startNanos - startNanos) / 1000, spanNanos / 1000));
+        }
+
+        Map<Layer, Long> selfTime = new EnumMap<>(Layer.class);
+        for (int i = 0; i < spans.size(); i++) {
+            selfTime.merge(spans.get(i).layer, Math.max(0, selfNanos[i]) / 1000, Long::sum);
+        }
+        return new Trace(Long.toHexString(ThreadLocalRandom.current().nextLong()), method, path, status,
+                startedAt, durationNanos / 1000, selfTime, finished, droppedSpans);
+    }
+
+    private static final class OpenSpan {
+
+        private final Layer layer;
+        private final String name;
+        private final int depth;
+        private final long startNanos;
+        private long durationNanos = -1;
+
+        private OpenSpan(Layer layer, String name, int depth, long startNanos) {
+            this.layer = layer;
+            this.name = name;
+            this.depth = depth;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+/**
+ * Couche applicative d'un span
+ */
+public enum Layer {
+    /** Requête HTTP : filtres, sérialisation JSON */
+    HTTP,
+    CONTROLLER,
+    /** Méthode de service, transaction et flush Hibernate compris */
+    SERVICE,
+    REPOSITORY,
+    /** Attente d'une connexion du pool */
+    CONNECTION,
+    /** Exécution d'une requête SQL, commit ou rollback */
+    JDBC
+}
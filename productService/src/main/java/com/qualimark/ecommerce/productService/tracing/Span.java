@@ -0,0 +1,13 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+/**
+ * Span terminé d'une trace
+ *
+ * @param layer          La couche
+ * @param name           La méthode ou la requête SQL
+ * @param depth          La profondeur d'imbrication, 0 pour la requête HTTP
+ * @param startMicros    Le début, relatif au début de la trace
+ * @param durationMicros La durée, enfants compris
+ */
+public record Span(Layer layer, String name, int depth, long startMicros, long durationMicros) {
+}
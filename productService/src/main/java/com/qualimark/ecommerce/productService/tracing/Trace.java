@@ -0,0 +1,29 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trace conservée d'une requête lente ou en erreur
+ *
+ * @param id             L'identifiant de la trace
+ * @param method         La méthode HTTP
+ * @param path           Le chemin de la requête
+ * @param status         Le statut de la réponse
+ * @param startedAt      Le début de la requête
+ * @param durationMicros La durée totale
+ * @param selfTimeMicros Le temps passé dans chaque couche, hors couches appelées
+ * @param spans          Les spans, dans l'ordre d'ouverture
+ * @param droppedSpans   Le nombre de spans écartés au-delà de {@code product.tracing.max-spans}
+ */
+public record Trace(String id,
+                    String method,
+                    String path,
+                    int status,
+                    Instant startedAt,
+                    long durationMicros,
+                    Map<Layer, Long> selfTimeMicros,
+                    List<Span> spans,
+                    int droppedSpans) {
+}
@@ -0,0 +1,56 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Consultation des traces lentes : {@code GET /actuator/traces?minDuration=1s&layer=JDBC}
+ */
+@Endpoint(id = "traces")
+public class TraceEndpoint {
+
+    private final Tracer tracer;
+
+    public TraceEndpoint(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * @param minDuration La durée minimale des traces retournées
+     * @param layer       Ne retourne que les traces ayant passé du temps dans cette couche
+     * @param limit       Le nombre maximal de traces, les plus récentes d'abord
+     * @return Les traces conservées correspondantes ; 400 si la limite est négative
+     */
+    @ReadOperation
+    public WebEndpointResponse<List<Trace>> traces(@Nullable Duration minDuration,
+                                                   @Nullable Layer layer,
+                                                   @Nullable Integer limit) {
+        if (limit != null && limit < 0) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        long minMicros = minDuration != null ? minDuration.toNanos() / 1000 : 0;
+        return new WebEndpointResponse<>(tracer.traces().stream()
+                .filter(trace -> trace.durationMicros() >= minMicros)
+                .filter(trace -> layer == null || trace.selfTimeMicros().containsKey(layer))
+                .limit(limit != null ? limit : Long.MAX_VALUE)
+                .toList());
+    }
+
+    /**
+     * @param id L'identifiant de la trace
+     * @return La trace, ou null (404) si elle n'est plus conservée
+     */
+    @ReadOperation
+    public Trace trace(@Selector String id) {
+        return tracer.traces().stream()
+                .filter(trace -> trace.id().equals(id))
+                .findFirst()
+                .orElse(null);
+    }
+}
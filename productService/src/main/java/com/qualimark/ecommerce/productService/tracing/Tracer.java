@@ -0,0 +1,85 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traces échantillonnées des requêtes, conservées en mémoire si elles sont lentes
+ *
+ * L'échantillonnage est décidé au début de la requête : les requêtes non
+ * échantillonnées ne coûtent qu'une lecture de ThreadLocal par span. La
+ * rétention est décidée à la fin : seules les traces plus lentes que le seuil,
+ * ou terminées en erreur serveur, entrent dans le tampon circulaire.
+ */
+public class Tracer {
+
+    private final ThreadLocal<ActiveTrace> current = new ThreadLocal<>();
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final int maxSpans;
+    private final Trace[] retained;
+    private long retainedCount;
+
+    public Tracer(double sampleRate, Duration slowThreshold, int capacity, int maxSpans) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        // Le span racine de la requête est toujours conservé
+        this.maxSpans = Math.max(1, maxSpans);
+        this.retained = new Trace[capacity];
+    }
+
+    /**
+     * Démarre la trace de la requête du thread courant si elle est échantillonnée
+     *
+     * @return true si la requête est tracée ; {@link #finish(int)} doit alors être appelé
+     */
+    public boolean start(String method, String path) {
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return false;
+        }
+        current.set(new ActiveTrace(method, path, maxSpans));
+        return true;
+    }
+
+    /**
+     * Termine la trace du thread courant et la conserve si la requête a été lente ou en erreur
+     *
+     * @param status Le statut de la réponse
+     */
+    public void finish(int status) {
+        ActiveTrace trace = current.get();
+        if (trace == null) {
+            return;
+        }
+        current.remove();
+        trace.close(0);
+        if (status >= 500 || trace.elapsedNanos() >= slowThresholdNanos) {
+            retain(trace.toTrace(status));
+        }
+    }
+
+    /**
+     * @return La trace en cours sur ce thread, ou null si la requête n'est pas échantillonnée
+     */
+    ActiveTrace current() {
+        return current.get();
+    }
+
+    /**
+     * @return Les traces conservées, de la plus récente à la plus ancienne
+     */
+    public synchronized List<Trace> traces() {
+        int size = (int) Math.min(retainedCount, retained.length);
+        List<Trace> traces = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            traces.add(retained[(int) ((retainedCount - i) % retained.length)]);
+        }
+        return traces;
+    }
+
+    private synchronized void retain(Trace trace) {
+        retained[(int) (retainedCount++ % retained.length)] = trace;
+    }
+}
@@ -0,0 +1,60 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+import com.qualimark.ecommerce.productService.controller.ProductController;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import com.qualimark.ecommerce.productService.service.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Instrumente le contrôleur, le service et le dépôt des produits ainsi que le pool de connexions
+ *
+ * Seul un pool Hikari déclaré en bean est enveloppé : avec les réplicas, le
+ * bean {@code dataSource} est un proxy paresseux qui n'attend jamais le pool,
+ * et ce sont les pools routés qui sont tracés par la configuration des réplicas.
+ *
+ * Sur un bean déjà proxifié, l'intercepteur est placé en tête de chaîne : le
+ * span d'une méthode transactionnelle couvre le flush et le commit.
+ */
+public class TracingBeanPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<Tracer> tracer;
+
+    public TracingBeanPostProcessor(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ProductController) {
+            return advise(bean, Layer.CONTROLLER, "ProductController");
+        }
+        if (bean instanceof ProductService) {
+            return advise(bean, Layer.SERVICE, "ProductService");
+        }
+        if (bean instanceof ProductRepository) {
+            return advise(bean, Layer.REPOSITORY, "ProductRepository");
+        }
+        if (bean instanceof HikariDataSource pool) {
+            return new TracingDataSource(pool, tracer.getObject());
+        }
+        return bean;
+    }
+
+    private Object advise(Object bean, Layer layer, String owner) {
+        TracingInterceptor interceptor = new TracingInterceptor(tracer.getObject(), layer, owner);
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(!Proxy.isProxyClass(bean.getClass()));
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,112 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource traçant l'attente d'une connexion du pool et l'exécution des requêtes SQL
+ *
+ * Les connexions obtenues hors d'une requête tracée sont retournées telles
+ * quelles.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final int MAX_SQL_LENGTH = 200;
+
+    private final Tracer tracer;
+
+    public TracingDataSource(DataSource targetDataSource, Tracer tracer) {
+        super(targetDataSource);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ActiveTrace trace = tracer.current();
+        if (trace == null) {
+            return super.getConnection();
+        }
+        int span = trace.open(Layer.CONNECTION, "getConnection");
+        try {
+            return trace(super.getConnection());
+        } finally {
+            trace.close(span);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        ActiveTrace trace = tracer.current();
+        if (trace == null) {
+            return super.getConnection(username, password);
+        }
+        int span = trace.open(Layer.CONNECTION, "getConnection");
+        try {
+            return trace(super.getConnection(username, password));
+        } finally {
+            trace.close(span);
+        }
+    }
+
+    private Connection trace(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "createStatement" -> traceStatement(invoke(connection, method, args), Statement.class, null);
+                    case "prepareStatement" -> traceStatement(invoke(connection, method, args), PreparedStatement.class, (String) args[0]);
+                    case "prepareCall" -> traceStatement(invoke(connection, method, args), CallableStatement.class, (String) args[0]);
+                    case "commit", "rollback" -> traced(method.getName(), () -> invoke(connection, method, args));
+                    default -> invoke(connection, method, args);
+                });
+    }
+
+    private Object traceStatement(Object statement, Class<? extends Statement> type, String preparedSql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            return traced(sql != null ? abbreviate(sql) : method.getName(), () -> invoke(statement, method, args));
+        };
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private Object traced(String name, JdbcCall call) throws Throwable {
+        ActiveTrace trace = tracer.current();
+        if (trace == null) {
+            return call.run();
+        }
+        int span = trace.open(Layer.JDBC, name);
+        try {
+            return call.run();
+        } finally {
+            trace.close(span);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "…";
+    }
+
+    @FunctionalInterface
+    private interface JdbcCall {
+        Object run() throws Throwable;
+    }
+}
@@ -0,0 +1,41 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ouvre un span autour de chaque appel de méthode d'un bean tracé
+ */
+class TracingInterceptor implements MethodInterceptor {
+
+    private final Tracer tracer;
+    private final Layer layer;
+    private final String owner;
+    private final Map<Method, String> spanNames = new ConcurrentHashMap<>();
+
+    TracingInterceptor(Tracer tracer, Layer layer, String owner) {
+        this.tracer = tracer;
+        this.layer = layer;
+        this.owner = owner;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ActiveTrace trace = tracer.current();
+        if (trace == null) {
+            return invocation.proceed();
+        }
+
+        int span = trace.open(layer, spanNames.computeIfAbsent(invocation.getMethod(),
+                method -> owner + "." + method.getName()));
+        try {
+            return invocation.proceed();
+        } finally {
+            trace.close(span);
+        }
+    }
+}
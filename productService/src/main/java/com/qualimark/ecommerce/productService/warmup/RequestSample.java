@@ -0,0 +1,105 @@
+package com.qualimark.ecommerce.productService.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Échantillon des requêtes de lecture reçues, rejoué au démarrage suivant
+ *
+ * Une fraction des requêtes est conservée dans un tampon circulaire de taille
+ * fixe : les requêtes récentes remplacent les plus anciennes. L'échantillon
+ * est sauvegardé dans un fichier texte, une requête (chemin et paramètres)
+ * par ligne, et rechargé au démarrage suivant.
+ */
+@Slf4j
+public class RequestSample {
+
+    private final AtomicReferenceArray<String> requests;
+    private final AtomicLong cursor = new AtomicLong();
+    private final double rate;
+
+    public RequestSample(int capacity, double rate) {
+        this.requests = new AtomicReferenceArray<>(capacity);
+        this.rate = rate;
+    }
+
+    /**
+     * Enregistre une requête avec la probabilité configurée
+     *
+     * @param request Le chemin de la requête, suivi de ses paramètres
+     */
+    public void offer(String request) {
+        if (ThreadLocalRandom.current().nextDouble() < rate) {
+            record(request);
+        }
+    }
+
+    /**
+     * Enregistre une requête, en remplaçant la plus ancienne si le tampon est plein
+     *
+     * @param request Le chemin de la requête, suivi de ses paramètres
+     */
+    public void record(String request) {
+        requests.set((int) (cursor.getAndIncrement() % requests.length()), request);
+    }
+
+    /**
+     * @return Les requêtes enregistrées
+     */
+    public List<String> requests() {
+        List<String> recorded = new ArrayList<>(requests.length());
+        for (int i = 0; i < requests.length(); i++) {
+            String request = requests.get(i);
+            if (request != null) {
+                recorded.add(request);
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * Ajoute à l'échantillon les requêtes d'un fichier sauvegardé
+     *
+     * @param path Le fichier d'échantillon
+     */
+    public void load(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    record(line.strip());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Échantillon de requêtes illisible : {}", path, e);
+        }
+    }
+
+    /**
+     * Sauvegarde l'échantillon dans un fichier
+     *
+     * @param path Le fichier d'échantillon
+     */
+    public void save(Path path) {
+        List<String> recorded = requests();
+        if (recorded.isEmpty()) {
+            return;
+        }
+        try {
+            Files.write(path, recorded, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Échec de la sauvegarde de l'échantillon de requêtes dans {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.qualimark.ecommerce.productService.warmup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtre alimentant le {@link RequestSample} avec les lectures ayant abouti
+ */
+public class RequestSampleFilter extends OncePerRequestFilter {
+
+    private final RequestSample sample;
+
+    public RequestSampleFilter(RequestSample sample) {
+        this.sample = sample;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        if (response.getStatus() < 400) {
+            String query = request.getQueryString();
+            sample.offer(query != null ? request.getRequestURI() + "?" + query : request.getRequestURI());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Seules les lectures sont rejouées ; le flux SSE est une connexion longue durée
+        return !"GET".equals(request.getMethod()) || request.getRequestURI().endsWith("/events");
+    }
+}
@@ -0,0 +1,288 @@
+package com.qualimark.ecommerce.productService.warmup;
+
+import com.qualimark.ecommerce.productService.config.WarmUpProperties;
+import com.qualimark.ecommerce.productService.index.RankingCriterion;
+import com.qualimark.ecommerce.productService.service.ProductService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Préchauffage du service avant qu'il ne reçoive du trafic
+ *
+ * Après la construction des index, un thread dédié ouvre les connexions du
+ * pool, charge les produits et les catégories les plus demandés de
+ * l'échantillon de requêtes, puis rejoue l'échantillon plusieurs fois à
+ * travers {@link ProductService} pour que le JIT compile les chemins chauds.
+ * Cet indicateur de santé, inclus dans le groupe readiness, reste
+ * OUT_OF_SERVICE jusqu'à la fin du préchauffage.
+ */
+@Slf4j
+public class WarmUp implements HealthIndicator {
+
+    private final WarmUpProperties properties;
+    private final DataSource dataSource;
+    private final ProductService productService;
+    private final RequestSample sample;
+    private volatile boolean finished;
+    private volatile Duration duration = Duration.ZERO;
+    private volatile int preloadedProducts;
+    private volatile int sampledRequests;
+    private volatile int replayedRequests;
+
+    public WarmUp(WarmUpProperties properties, DataSource dataSource, ProductService productService, RequestSample sample) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.productService = productService;
+        this.sample = sample;
+    }
+
+    /**
+     * Démarre le préchauffage une fois l'application prête, après la construction des index
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.enabled()) {
+            finished = true;
+            return;
+        }
+        Thread.ofPlatform().name("warm-up").daemon().start(this::run);
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = finished ? Health.up() : Health.outOfService();
+        return health.withDetail("durationMs", duration.toMillis())
+                .withDetail("preloadedProducts", preloadedProducts)
+                .withDetail("replayedRequests", replayedRequests)
+                .withDetail("sampledRequests", sampledRequests)
+                .build();
+    }
+
+    /**
+     * @return true une fois le préchauffage terminé
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return La durée du préchauffage
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return La part des requêtes de l'échantillon rejouées avec succès, entre 0 et 1
+     */
+    public double getCoverage() {
+        return sampledRequests == 0 ? 0 : (double) replayedRequests / sampledRequests;
+    }
+
+    /**
+     * @return Le nombre de produits chargés dans le cache
+     */
+    public int getPreloadedProducts() {
+        return preloadedProducts;
+    }
+
+    @PreDestroy
+    public void saveSample() {
+        sample.save(properties.sampleFile());
+    }
+
+    void run() {
+        long start = System.nanoTime();
+        try {
+            openConnections();
+            List<String> requests = sample.requests();
+            sampledRequests = requests.size();
+            preload(requests);
+            replay(requests, start);
+        } catch (RuntimeException e) {
+            log.warn("Préchauffage interrompu", e);
+        } finally {
+            duration = Duration.ofNanos(System.nanoTime() - start);
+            finished = true;
+            log.info("Préchauffage terminé en {} ms : {} produits chargés, {}/{} requêtes rejouées",
+                    duration.toMillis(), preloadedProducts, replayedRequests, sampledRequests);
+        }
+    }
+
+    /**
+     * Ouvre simultanément plusieurs connexions pour que le pool les conserve
+     */
+    private void openConnections() {
+        List<Connection> connections = new ArrayList<>(properties.connections());
+        try {
+            for (int i = 0; i < properties.connections(); i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Ouverture des connexions interrompue après {} connexions", connections.size(), e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Échec de la fermeture d'une connexion de préchauffage", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Charge les produits les plus demandés dans le cache et parcourt les catégories demandées
+     */
+    private void preload(List<String> requests) {
+        Map<Long, Integer> productHits = new HashMap<>();
+        Set<String> categories = new LinkedHashSet<>();
+        for (String request : requests) {
+            List<String> path = productPath(UriComponentsBuilder.fromUriString(request).build());
+            if (path == null || path.isEmpty()) {
+                continue;
+            }
+            if (path.size() >= 2 && path.get(0).equals("category")) {
+                categories.add(path.get(1));
+            } else if (isId(path.get(0))) {
+                productHits.merge(Long.valueOf(path.get(0)), 1, Integer::sum);
+            }
+        }
+
+        List<Long> hotProducts = productHits.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(properties.hotProducts())
+                .map(Map.Entry::getKey)
+                .toList();
+        for (Long id : hotProducts) {
+            if (productService.getProductById(id).isPresent()) {
+                preloadedProducts++;
+            }
+        }
+        categories.forEach(productService::getProductsByCategory);
+    }
+
+    /**
+     * Rejoue l'échantillon jusqu'au nombre de passes ou à la durée maximale configurés
+     */
+    private void replay(List<String> requests, long start) {
+        long deadline = start + properties.maxDuration().toNanos();
+        for (int round = 0; round < properties.rounds(); round++) {
+            int replayed = 0;
+            for (String request : requests) {
+                if (System.nanoTime() > deadline) {
+                    return;
+                }
+                try {
+                    if (replay(request)) {
+                        replayed++;
+                    }
+                } catch (RuntimeException e) {
+                    log.debug("Requête de préchauffage en échec : {}", request, e);
+                }
+            }
+            replayedRequests = replayed;
+        }
+    }
+
+    /**
+     * Rejoue une lecture de l'API produits sur {@link ProductService}
+     *
+     * @return false si la requête ne correspond à aucune lecture connue
+     */
+    boolean replay(String request) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(request).build();
+        List<String> path = productPath(uri);
+        if (path == null) {
+            return false;
+        }
+        MultiValueMap<String, String> params = uri.getQueryParams();
+        switch (path.size()) {
+            case 0 -> productService.getAllProducts();
+            case 1 -> {
+                switch (path.get(0)) {
+                    case "available" -> productService.getAvailableProducts();
+                    case "search" -> productService.searchProductsByName(param(params, "name", ""));
+                    default -> {
+                        if (!isId(path.get(0))) {
+                            return false;
+                        }
+                        productService.getProductById(Long.valueOf(path.get(0)));
+                    }
+                }
+            }
+            case 2 -> {
+                if (path.get(0).equals("category")) {
+                    productService.getProductsByCategory(path.get(1));
+                } else if (path.get(0).equals("search") && path.get(1).equals("ranked")) {
+                    productService.searchProducts(param(params, "q", ""), Integer.parseInt(param(params, "limit", "20")));
+                } else if (isId(path.get(0)) && path.get(1).equals("availability")) {
+                    productService.isProductAvailable(Long.valueOf(path.get(0)));
+                } else {
+                    return false;
+                }
+            }
+            case 3 -> {
+                if (!path.get(0).equals("category") || !path.get(2).equals("top")) {
+                    return false;
+                }
+                productService.getTopProductsByCategory(path.get(1),
+                        RankingCriterion.fromString(param(params, "by", "price")),
+                        Sort.Direction.fromString(param(params, "order", "asc")),
+                        Integer.parseInt(param(params, "n", "10")));
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Les segments décodés qui suivent {@code /api/products}, ou null pour un autre chemin
+     */
+    private static List<String> productPath(UriComponents uri) {
+        List<String> segments = uri.getPathSegments();
+        if (segments.size() < 2 || !segments.get(0).equals("api") || !segments.get(1).equals("products")) {
+            return null;
+        }
+        return segments.subList(2, segments.size()).stream()
+                .map(segment -> UriUtils.decode(segment, StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    private static String param(MultiValueMap<String, String> params, String name, String defaultValue) {
+        String value = params.getFirst(name);
+        // Paramètres encodés comme un formulaire : '+' désigne une espace
+        return value != null ? UriUtils.decode(value.replace('+', ' '), StandardCharsets.UTF_8) : defaultValue;
+    }
+
+    private static boolean isId(String segment) {
+        return !segment.isEmpty() && segment.length() < 19 && segment.chars().allMatch(Character::isDigit);
+    }
+}
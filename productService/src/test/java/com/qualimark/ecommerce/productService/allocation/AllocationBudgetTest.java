@@ -0,0 +1,189 @@
+package com.qualimark.ecommerce.productService.allocation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qualimark.ecommerce.productService.cache.InvalidationBus;
+import com.qualimark.ecommerce.productService.cache.ProductCache;
+import com.qualimark.ecommerce.productService.cache.ProductResponseCache;
+import com.qualimark.ecommerce.productService.controller.ProductController;
+import com.qualimark.ecommerce.productService.index.CategoryTopIndex;
+import com.qualimark.ecommerce.productService.index.ColumnarCatalogIndex;
+import com.qualimark.ecommerce.productService.index.ProductSearchIndex;
+import com.qualimark.ecommerce.productService.index.RankingCriterion;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import com.qualimark.ecommerce.productService.service.OutboxService;
+import com.qualimark.ecommerce.productService.service.ProductService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests de non-régression des allocations sur les chemins de lecture
+ *
+ * Chaque opération est exécutée jusqu'à compilation par le JIT, puis les
+ * octets alloués par le thread courant sont mesurés sur un grand nombre
+ * d'exécutions. La moyenne par opération est comparée au budget déclaré dans
+ * {@code allocation-budgets.properties}.
+ */
+@DisplayName("Budgets d'allocation des chemins de lecture")
+class AllocationBudgetTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+    private static final int RUNS = 3;
+    private static final String[] WORDS = {
+            "pomme", "poire", "banane", "abricot", "cerise", "fraise", "kiwi", "mangue", "melon", "pêche"
+    };
+    private static final Map<String, Integer> CATEGORY_CODES = Map.of(
+            "Catégorie 0", 0, "Catégorie 1", 1, "Catégorie 2", 2, "Catégorie 3", 3, "Catégorie 4", 4);
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static Properties budgets;
+
+    private ProductService productService;
+    private ProductController productController;
+    private Object sink;
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        assumeTrue(THREAD_MX_BEAN.isThreadAllocatedMemorySupported(), "Mesure des allocations indisponible");
+        budgets = new Properties();
+        try (InputStream input = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            assertNotNull(input, "allocation-budgets.properties introuvable");
+            budgets.load(input);
+        }
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ProductCache productCache = new ProductCache(10_000, Duration.ofMinutes(5));
+        CategoryTopIndex categoryTopIndex = new CategoryTopIndex();
+        ProductSearchIndex productSearchIndex = new ProductSearchIndex();
+        // Un mock Mockito allouerait à chaque appel : le dictionnaire est figé sans base
+        ColumnarCatalogIndex catalogIndex = new ColumnarCatalogIndex(new CategoryDictionary(null) {
+            @Override
+            public Integer find(String name) {
+                return CATEGORY_CODES.get(name);
+            }
+        });
+        for (long id = 1; id <= 500; id++) {
+            Product product = new Product(
+                    "Produit " + WORDS[(int) (id % WORDS.length)] + " " + id,
+                    "Description " + WORDS[(int) (id * 7 % WORDS.length)],
+                    new BigDecimal(id % 50 + ".99"),
+                    (int) (id % 100),
+                    "Catégorie " + id % 5);
+            product.setId(id);
+            product.setVersion(1L);
+            productCache.getOrLoad(id, key -> product);
+            categoryTopIndex.upsert(product);
+            productSearchIndex.upsert(product);
+            catalogIndex.upsert(product);
+        }
+        catalogIndex.publish();
+
+        // Le dépôt n'est pas sollicité : tous les produits sont en cache
+        productService = new ProductService(mock(ProductRepository.class), mock(OutboxService.class),
+                mock(InvalidationBus.class), productCache, categoryTopIndex, productSearchIndex, catalogIndex);
+        ProductResponseCache responseCache = new ProductResponseCache(
+                new ObjectMapper().registerModule(new JavaTimeModule()), 10_000);
+        productController = new ProductController(productService, responseCache, mock(ObjectProvider.class));
+    }
+
+    /**
+     * Mesure les octets alloués par exécution, en retenant la meilleure de plusieurs séries
+     * pour écarter les désoptimisations et les compilations tardives
+     */
+    private long bytesPerOperation(Runnable operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                operation.run();
+            }
+            best = Math.min(best, (THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - before) / MEASURED_ITERATIONS);
+        }
+        return best;
+    }
+
+    private void assertWithinBudget(String name, Runnable operation) {
+        long budget = Long.parseLong(budgets.getProperty(name));
+        long allocated = bytesPerOperation(operation);
+        assertTrue(allocated <= budget, name + " : " + allocated + " octets/op pour un budget de " + budget);
+    }
+
+    @Test
+    @DisplayName("Construction d'un produit")
+    void testProductConstruction() {
+        assertWithinBudget("product.new", () -> sink = new Product());
+    }
+
+    @Test
+    @DisplayName("Lecture d'un produit en cache")
+    void testGetProductById() {
+        assertWithinBudget("product-service.get-by-id", () -> sink = productService.getProductById(250L));
+    }
+
+    @Test
+    @DisplayName("Classement d'une catégorie")
+    void testTopProductsByCategory() {
+        assertWithinBudget("product-service.top-by-category", () -> sink = productService.getTopProductsByCategory(
+                "Catégorie 1", RankingCriterion.PRICE, Sort.Direction.ASC, 10));
+    }
+
+    @Test
+    @DisplayName("Recherche classée")
+    void testSearchProducts() {
+        assertWithinBudget("product-service.search", () -> sink = productService.searchProducts("pomme", 20));
+    }
+
+    @Test
+    @DisplayName("Filtre par catégorie sur l'instantané colonnaire")
+    void testProductsByCategory() {
+        assertWithinBudget("product-service.by-category", () -> sink = productService.getProductsByCategory("Catégorie 1"));
+    }
+
+    @Test
+    @DisplayName("Filtre des produits disponibles sur l'instantané colonnaire")
+    void testAvailableProducts() {
+        assertWithinBudget("product-service.available", () -> sink = productService.getAvailableProducts());
+    }
+
+    @Test
+    @DisplayName("Filtre par fourchette de prix sur l'instantané colonnaire")
+    void testProductsByPriceRange() {
+        BigDecimal min = new BigDecimal("10.00");
+        BigDecimal max = new BigDecimal("19.99");
+        assertWithinBudget("product-service.by-price-range", () -> sink = productService.getProductsByPriceRange(min, max));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id} en JSON")
+    void testControllerGetProductById() {
+        assertWithinBudget("product-controller.get-by-id",
+                () -> sink = productController.getProductById(250L, "application/json", null));
+    }
+}
@@ -0,0 +1,105 @@
+package com.qualimark.ecommerce.productService.benchmark;
+
+import com.qualimark.ecommerce.productService.index.CatalogSnapshot;
+import com.qualimark.ecommerce.productService.index.ColumnarCatalogIndex;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark du filtrage des produits disponibles : requête JPA contre
+ * parcours de l'instantané colonnaire
+ *
+ * Mesure le temps et les octets alloués par filtrage.
+ * Exécution : {@code mvn test -Pbenchmark}
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Import(CategoryDictionary.class)
+@ActiveProfiles("test")
+@DisplayName("Benchmark de l'instantané colonnaire du catalogue")
+class CatalogSnapshotBenchmarkTest {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Test
+    void compareAvailableFilter() {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new Product("Produit " + i, "Description " + i,
+                    new BigDecimal(i % 100 + ".99"), i % 4, "Catégorie " + (i % 12)));
+        }
+        productRepository.saveAll(products);
+        entityManager.flush();
+        entityManager.clear();
+
+        ColumnarCatalogIndex index = new ColumnarCatalogIndex(categoryDictionary);
+        productRepository.findAll().forEach(index::upsert);
+        index.publish();
+        entityManager.clear();
+        CatalogSnapshot snapshot = index.snapshot();
+        long[] out = new long[snapshot.size()];
+        int expected = snapshot.selectAvailable(out);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertEquals(expected, productRepository.findAvailableProducts().size());
+            entityManager.clear();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            productRepository.findAvailableProducts();
+            entityManager.clear();
+        }
+        long jpaNanos = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+        long jpaBytes = (threadMXBean.getThreadAllocatedBytes(threadId) - allocated) / MEASURED_ITERATIONS;
+
+        for (int i = 0; i < WARMUP_ITERATIONS * 100; i++) {
+            snapshot.selectAvailable(out);
+        }
+        allocated = threadMXBean.getThreadAllocatedBytes(threadId);
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            assertEquals(expected, snapshot.selectAvailable(out));
+        }
+        long snapshotNanos = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+        long snapshotBytes = (threadMXBean.getThreadAllocatedBytes(threadId) - allocated) / MEASURED_ITERATIONS;
+
+        System.out.printf("%-12s %12s %14s%n", "chemin", "µs/filtrage", "octets/filtrage");
+        System.out.printf("%-12s %12d %14d%n", "jpa", jpaNanos / 1000, jpaBytes);
+        System.out.printf("%-12s %12d %14d%n", "colonnaire", snapshotNanos / 1000, snapshotBytes);
+
+        assertTrue(snapshotNanos < jpaNanos);
+        assertTrue(snapshotBytes < jpaBytes);
+    }
+}
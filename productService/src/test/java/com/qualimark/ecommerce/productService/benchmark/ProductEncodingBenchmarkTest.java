@@ -0,0 +1,104 @@
+package com.qualimark.ecommerce.productService.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qualimark.ecommerce.productService.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark des encodages JSON, Smile et CBOR pour une liste de 1000 produits
+ *
+ * Mesure la taille des réponses et le temps CPU d'encodage et de décodage.
+ * Exécution : {@code mvn test -Pbenchmark}
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark des encodages de produits")
+class ProductEncodingBenchmarkTest {
+
+    private static final int PRODUCTS = 1000;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 500;
+    private static final TypeReference<List<Product>> PRODUCT_LIST = new TypeReference<>() {
+    };
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private static ObjectMapper mapper(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static List<Product> catalog() {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product(
+                    "Produit " + i,
+                    "Description du produit numéro " + i,
+                    new BigDecimal(i % 100 + ".99"),
+                    i % 250,
+                    "Catégorie " + (i % 12)
+            );
+            product.setId((long) i);
+            product.setVersion((long) (i % 5));
+            products.add(product);
+        }
+        return products;
+    }
+
+    @Test
+    void compareEncodings() throws Exception {
+        List<Product> products = catalog();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", mapper(new ObjectMapper()));
+        mappers.put("smile", mapper(new ObjectMapper(new SmileFactory())));
+        mappers.put("cbor", mapper(new ObjectMapper(new CBORFactory())));
+
+        System.out.printf("%-6s %10s %14s %14s%n", "format", "octets", "encodage µs", "décodage µs");
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] payload = mapper.writeValueAsBytes(products);
+            List<Product> decoded = mapper.readValue(payload, PRODUCT_LIST);
+            assertEquals(PRODUCTS, decoded.size());
+            assertEquals(products.get(42).getPrice(), decoded.get(42).getPrice());
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(products), PRODUCT_LIST);
+            }
+
+            long start = threadMXBean.getCurrentThreadCpuTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                mapper.writeValueAsBytes(products);
+            }
+            long encodeNanos = (threadMXBean.getCurrentThreadCpuTime() - start) / MEASURED_ITERATIONS;
+
+            start = threadMXBean.getCurrentThreadCpuTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                mapper.readValue(payload, PRODUCT_LIST);
+            }
+            long decodeNanos = (threadMXBean.getCurrentThreadCpuTime() - start) / MEASURED_ITERATIONS;
+
+            sizes.put(entry.getKey(), payload.length);
+            System.out.printf("%-6s %10d %14d %14d%n", entry.getKey(), payload.length, encodeNanos / 1000, decodeNanos / 1000);
+        }
+
+        assertTrue(sizes.get("smile") < sizes.get("json"));
+        assertTrue(sizes.get("cbor") < sizes.get("json"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.qualimark.ecommerce.productService.benchmark;
+
+import com.qualimark.ecommerce.productService.index.ProductSearchIndex;
+import com.qualimark.ecommerce.productService.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de la recherche plein texte sur un million de produits
+ *
+ * Mesure la latence médiane et au 99e centile d'une requête exacte sur un
+ * terme rare puis sur un terme courant, d'une requête avec une faute de
+ * frappe et d'une requête de plusieurs termes courants.
+ * Les termes suivent une loi de Zipf, comme dans un vrai catalogue : les
+ * plus fréquents sont de vrais mots du commerce alimentaire, présents dans
+ * une grande partie des produits, suivis d'une longue traîne de termes rares.
+ * Exécution : {@code mvn test -Pbenchmark}
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark de la recherche plein texte")
+class ProductSearchBenchmarkTest {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int VOCABULARY = 50_000;
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    /**
+     * Termes les plus fréquents, par rang
+     */
+    private static final String[] COMMON_TERMS = {
+            "bio", "lot", "pack", "chocolat", "noir", "blanc", "lait", "pomme", "sucre", "crème",
+            "fromage", "tomate", "huile", "olive", "vanille", "café", "thé", "miel", "beurre", "farine",
+            "riz", "pâtes", "jus", "orange", "citron", "fraise", "framboise", "poulet", "jambon", "saumon",
+            "sauce", "biscuit", "céréales", "yaourt", "nature", "sel", "poivre", "épices", "légumes", "fruits",
+            "surgelé", "frais", "entier", "demi", "écrémé", "sans", "gluten", "artisanal", "français", "familial"
+    };
+
+    private static String[] vocabulary(Random random) {
+        String[] words = new String[VOCABULARY];
+        System.arraycopy(COMMON_TERMS, 0, words, 0, COMMON_TERMS.length);
+        for (int i = COMMON_TERMS.length; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 4 + random.nextInt(7);
+            for (int c = 0; c < length; c++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    /**
+     * Fonction de répartition de la loi de Zipf sur les rangs du vocabulaire
+     */
+    private static double[] zipfDistribution() {
+        double[] cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            sum += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static String words(String[] vocabulary, double[] distribution, Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int rank = Arrays.binarySearch(distribution, random.nextDouble());
+            text.append(vocabulary[Math.min(rank >= 0 ? rank : -rank - 1, vocabulary.length - 1)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    @Test
+    void measureSearchLatency() {
+        Random random = new Random(42);
+        String[] vocabulary = vocabulary(random);
+        double[] distribution = zipfDistribution();
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 0; id < PRODUCTS; id++) {
+            Product product = new Product(words(vocabulary, distribution, random, 2),
+                    words(vocabulary, distribution, random, 6), BigDecimal.ONE, 1, "Benchmark");
+            product.setId(id);
+            index.upsert(product);
+        }
+
+        // Le score BM25 est calculé pour chaque produit contenant un terme de la requête :
+        // la latence croît avec la fréquence des termes, les budgets médians en tiennent compte
+        Map<String, Query> queries = new LinkedHashMap<>();
+        queries.put("rare", new Query(vocabulary[20_000], 1_000));
+        queries.put("exacte", new Query("chocolat", 250_000));
+        queries.put("faute", new Query("framboize", 60_000));
+        queries.put("multi-termes", new Query("chocolat noir bio", 1_000_000));
+
+        System.out.printf("%-14s %10s %10s%n", "requête", "p50 µs", "p99 µs");
+        for (Map.Entry<String, Query> entry : queries.entrySet()) {
+            Query query = entry.getValue();
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                index.search(query.text(), 20);
+            }
+            long[] latencies = new long[MEASURED_ITERATIONS];
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                long start = System.nanoTime();
+                assertFalse(index.search(query.text(), 20).isEmpty());
+                latencies[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+            long p50 = latencies[MEASURED_ITERATIONS / 2] / 1000;
+            long p99 = latencies[MEASURED_ITERATIONS * 99 / 100] / 1000;
+            System.out.printf("%-14s %10d %10d%n", entry.getKey(), p50, p99);
+
+            assertTrue(p50 < query.p50BudgetMicros(), "Latence médiane de " + p50 + " µs pour la requête "
+                    + entry.getKey() + ", budget de " + query.p50BudgetMicros() + " µs");
+        }
+    }
+
+    /**
+     * @param text            Le texte de la requête
+     * @param p50BudgetMicros La latence médiane maximale, en microsecondes
+     */
+    private record Query(String text, long p50BudgetMicros) {
+    }
+}
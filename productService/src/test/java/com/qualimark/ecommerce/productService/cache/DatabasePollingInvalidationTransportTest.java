@@ -0,0 +1,90 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import com.qualimark.ecommerce.productService.model.OutboxEvent;
+import com.qualimark.ecommerce.productService.model.ProductChangeType;
+import com.qualimark.ecommerce.productService.repository.OutboxEventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires du transport d'invalidation par interrogation de l'outbox
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires DatabasePollingInvalidationTransport")
+class DatabasePollingInvalidationTransportTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private final List<Long> invalidated = new ArrayList<>();
+
+    private DatabasePollingInvalidationTransport transport(Duration commitLag) {
+        DatabasePollingInvalidationTransport transport =
+                new DatabasePollingInvalidationTransport(outboxEventRepository, 500, commitLag);
+        transport.subscribe(invalidation -> invalidated.add(invalidation.productId()));
+        when(outboxEventRepository.findTopByOccurredAtBeforeOrderByIdDesc(any())).thenReturn(Optional.of(event(10, 10)));
+        transport.poll();
+        return transport;
+    }
+
+    private static OutboxEvent event(long id, long productId) {
+        OutboxEvent event = new OutboxEvent(productId, ProductChangeType.UPDATED, 1L, 10);
+        ReflectionTestUtils.setField(event, "id", id);
+        ReflectionTestUtils.setField(event, "occurredAt", LocalDateTime.now());
+        return event;
+    }
+
+    @Test
+    @DisplayName("Devrait diffuser un événement validé après un événement d'ID supérieur")
+    void testLateCommitDelivered() {
+        // Given : l'ID 11 est encore en cours de transaction quand l'ID 12 est lu
+        DatabasePollingInvalidationTransport transport = transport(Duration.ofSeconds(10));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(event(12, 2)));
+        transport.poll();
+
+        // When : l'ID 11 est validé
+        when(outboxEventRepository.findAllById(List.of(11L))).thenReturn(List.of(event(11, 1)));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(12L), any(Pageable.class))).thenReturn(List.of());
+        transport.poll();
+        transport.poll();
+
+        // Then
+        assertEquals(List.of(2L, 1L), invalidated);
+        verify(outboxEventRepository).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Ne devrait plus attendre un ID sauté au-delà du délai de validation")
+    void testSkippedIdAbandoned() {
+        // Given
+        DatabasePollingInvalidationTransport transport = transport(Duration.ZERO);
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(event(12, 2)));
+        transport.poll();
+
+        // When : la transaction de l'ID 11 a été annulée
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(12L), any(Pageable.class))).thenReturn(List.of());
+        transport.poll();
+
+        // Then
+        assertEquals(List.of(2L), invalidated);
+        verify(outboxEventRepository, never()).findAllById(any());
+    }
+}
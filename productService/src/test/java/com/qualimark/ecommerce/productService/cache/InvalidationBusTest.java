@@ -0,0 +1,100 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du bus d'invalidation
+ *
+ * Deux bus partageant le même transport loopback simulent deux réplicas du service.
+ */
+@DisplayName("Tests InvalidationBus")
+class InvalidationBusTest {
+
+    private MeterRegistry meterRegistry;
+    private ProductCache cacheReplicaA;
+    private ProductCache cacheReplicaB;
+    private InvalidationBus busReplicaA;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+        cacheReplicaA = new ProductCache(100, Duration.ofMinutes(5));
+        cacheReplicaB = new ProductCache(100, Duration.ofMinutes(5));
+        busReplicaA = new InvalidationBus(transport, List.of(cacheReplicaA), meterRegistry);
+        new InvalidationBus(transport, List.of(cacheReplicaB), meterRegistry);
+    }
+
+    private Product product(Long id, Long version) {
+        Product product = new Product("Produit " + id, "Desc", new BigDecimal("1.00"), 10, "Test");
+        product.setId(id);
+        product.setVersion(version);
+        return product;
+    }
+
+    @Test
+    @DisplayName("Devrait invalider l'entrée sur le réplica local et sur les autres réplicas")
+    void testBroadcastEvictsAllReplicas() {
+        // Given
+        cacheReplicaA.put(product(1L, 0L));
+        cacheReplicaB.put(product(1L, 0L));
+        cacheReplicaB.put(product(2L, 0L));
+
+        // When
+        busReplicaA.broadcast(1L, 1L);
+
+        // Then
+        assertNull(cacheReplicaA.get(1L));
+        assertNull(cacheReplicaB.get(1L));
+        assertNotNull(cacheReplicaB.get(2L));
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas invalider une entrée déjà à jour")
+    void testBroadcastKeepsUpToDateEntry() {
+        // Given
+        cacheReplicaB.put(product(1L, 3L));
+
+        // When
+        busReplicaA.broadcast(1L, 2L);
+
+        // Then
+        assertNotNull(cacheReplicaB.get(1L));
+    }
+
+    @Test
+    @DisplayName("Devrait invalider sans condition après une suppression")
+    void testBroadcastDeletion() {
+        // Given
+        cacheReplicaB.put(product(1L, 7L));
+
+        // When
+        busReplicaA.broadcast(1L, null);
+
+        // Then
+        assertNull(cacheReplicaB.get(1L));
+    }
+
+    @Test
+    @DisplayName("Devrait mesurer le délai de propagation des invalidations reçues")
+    void testLagIsRecorded() {
+        // When
+        busReplicaA.broadcast(1L, 1L);
+        busReplicaA.broadcast(2L, 1L);
+
+        // Then
+        assertEquals(2, meterRegistry.get("product.cache.invalidation.lag").timer().count());
+        assertEquals(2.0, meterRegistry.get("product.cache.invalidations").tag("direction", "received").counter().count());
+    }
+}
@@ -0,0 +1,192 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du chargement "single-flight" du cache produits sous forte concurrence
+ */
+@DisplayName("Tests ProductCache")
+class ProductCacheTest {
+
+    private static final int THREADS = 200;
+
+    private ProductCache productCache;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        productCache = new ProductCache(100, Duration.ofMinutes(5));
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product("Produit " + id, "Desc", new BigDecimal("1.00"), 10, "Test");
+        product.setId(id);
+        return product;
+    }
+
+    /**
+     * Lance THREADS lectures simultanées réparties sur les clés données
+     */
+    private List<Future<Product>> concurrentLoads(List<Long> keys, Function<Long, Product> loader,
+                                                  CountDownLatch arrived) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Product>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Long key = keys.get(i % keys.size());
+            results.add(executor.submit(() -> {
+                start.await();
+                arrived.countDown();
+                return productCache.getOrLoad(key, loader);
+            }));
+        }
+        start.countDown();
+        return results;
+    }
+
+    /**
+     * Chargement lent qui attend que tous les lecteurs soient arrivés
+     */
+    private static Function<Long, Product> slowLoader(CountDownLatch arrived, ConcurrentMap<Long, AtomicInteger> queries,
+                                                      Function<Long, Product> result) {
+        return key -> {
+            queries.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            try {
+                arrived.await(5, TimeUnit.SECONDS);
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result.apply(key);
+        };
+    }
+
+    @Test
+    @DisplayName("Devrait n'exécuter qu'une requête par clé pour des lectures concurrentes")
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        // Given
+        CountDownLatch arrived = new CountDownLatch(THREADS);
+        ConcurrentMap<Long, AtomicInteger> queries = new ConcurrentHashMap<>();
+        Function<Long, Product> loader = slowLoader(arrived, queries, ProductCacheTest::product);
+
+        // When
+        List<Future<Product>> results = concurrentLoads(List.of(1L, 2L), loader, arrived);
+
+        // Then
+        for (Future<Product> result : results) {
+            assertNotNull(result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, queries.get(1L).get());
+        assertEquals(1, queries.get(2L).get());
+        assertNotNull(productCache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Devrait transmettre l'échec du chargement à tous les lecteurs en attente")
+    void testFailureIsSharedByAllWaiters() throws Exception {
+        // Given
+        CountDownLatch arrived = new CountDownLatch(THREADS);
+        ConcurrentMap<Long, AtomicInteger> queries = new ConcurrentHashMap<>();
+        Function<Long, Product> loader = slowLoader(arrived, queries, key -> {
+            throw new IllegalStateException("base indisponible");
+        });
+
+        // When
+        List<Future<Product>> results = concurrentLoads(List.of(1L), loader, arrived);
+
+        // Then
+        for (Future<Product> result : results) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+        }
+        assertEquals(1, queries.get(1L).get());
+        assertNull(productCache.get(1L), "Un échec ne doit pas être mis en cache");
+    }
+
+    @Test
+    @DisplayName("Devrait relancer un chargement après invalidation de l'entrée")
+    void testReloadAfterInvalidation() {
+        // Given
+        AtomicInteger queries = new AtomicInteger();
+        Function<Long, Product> loader = key -> {
+            queries.incrementAndGet();
+            return product(key);
+        };
+        productCache.getOrLoad(1L, loader);
+        productCache.getOrLoad(1L, loader);
+
+        // When
+        productCache.onInvalidation(new ProductInvalidation(1L, null, null, null));
+        productCache.getOrLoad(1L, loader);
+
+        // Then
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mettre en cache une lecture antérieure à une invalidation reçue pendant le chargement")
+    void testInvalidationDuringLoadDiscardsStaleRead() {
+        // Given : le chargement lit la version 1, l'écriture de la version 2 est invalidée avant la fin du chargement
+        Function<Long, Product> staleLoader = key -> {
+            Product product = product(key);
+            product.setVersion(1L);
+            productCache.onInvalidation(new ProductInvalidation(key, 2L, null, null));
+            return product;
+        };
+
+        // When
+        Product result = productCache.getOrLoad(1L, staleLoader);
+
+        // Then
+        assertEquals(Long.valueOf(1L), result.getVersion());
+        assertNull(productCache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Devrait conserver une lecture au moins aussi récente que l'invalidation reçue pendant le chargement")
+    void testInvalidationDuringLoadKeepsFreshRead() {
+        // Given
+        Function<Long, Product> freshLoader = key -> {
+            productCache.onInvalidation(new ProductInvalidation(key, 2L, null, null));
+            Product product = product(key);
+            product.setVersion(2L);
+            return product;
+        };
+
+        // When
+        productCache.getOrLoad(1L, freshLoader);
+
+        // Then
+        assertNotNull(productCache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mettre en cache un produit inexistant")
+    void testMissingProductIsNotCached() {
+        // When
+        Product result = productCache.getOrLoad(99L, key -> null);
+
+        // Then
+        assertNull(result);
+        assertNull(productCache.get(99L));
+    }
+}
@@ -0,0 +1,74 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qualimark.ecommerce.productService.cache.ProductResponseCache.SerializedProduct;
+import com.qualimark.ecommerce.productService.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du cache des réponses sérialisées
+ */
+@DisplayName("Tests ProductResponseCache")
+class ProductResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private ProductResponseCache responseCache;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ProductResponseCache(objectMapper, 100);
+        product = new Product("Pomme", "Pomme Golden", new BigDecimal("2.50"), 100, "Fruits");
+        product.setId(1L);
+        product.setVersion(1L);
+    }
+
+    @Test
+    @DisplayName("Devrait réutiliser les octets sérialisés pour une même version")
+    void testSameVersionIsServedFromCache() throws Exception {
+        // When
+        SerializedProduct first = responseCache.get(product);
+        SerializedProduct second = responseCache.get(product);
+
+        // Then
+        assertSame(first, second);
+        assertSame(first.gzip(), second.gzip());
+        assertEquals("Pomme", objectMapper.readValue(first.json(), Product.class).getName());
+    }
+
+    @Test
+    @DisplayName("Devrait resérialiser un produit dont la version a changé")
+    void testNewVersionIsReserialized() throws Exception {
+        // Given
+        SerializedProduct first = responseCache.get(product);
+
+        // When
+        product.setVersion(2L);
+        product.setStock(42);
+        SerializedProduct second = responseCache.get(product);
+
+        // Then
+        assertNotSame(first, second);
+        assertEquals(42, objectMapper.readValue(second.json(), Product.class).getStock());
+    }
+
+    @Test
+    @DisplayName("Devrait oublier l'entrée invalidée par une écriture")
+    void testInvalidationEvictsOlderVersion() {
+        // Given
+        SerializedProduct first = responseCache.get(product);
+
+        // When
+        responseCache.onInvalidation(new ProductInvalidation(1L, 2L, null, null));
+
+        // Then
+        assertNotSame(first, responseCache.get(product));
+    }
+}
@@ -0,0 +1,126 @@
+package com.qualimark.ecommerce.productService.cache;
+
+import com.qualimark.ecommerce.productService.config.SecondLevelCacheConfig;
+import com.qualimark.ecommerce.productService.model.CacheRegions;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration du cache de second niveau Hibernate
+ *
+ * Chaque appel du repository valide sa propre transaction : les lectures
+ * successives passent réellement par le cache partagé.
+ */
+@DataJpaTest
+@Import({CategoryDictionary.class, SecondLevelCacheConfig.class, SecondLevelCacheInvalidator.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tests d'intégration du cache de second niveau")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private SecondLevelCacheInvalidator invalidator;
+
+    @Autowired
+    private MeterBinder secondLevelCacheMetrics;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    private Product save(String name, String category, int stock) {
+        return productRepository.save(new Product(name, "Description", new BigDecimal("1.00"), stock, category));
+    }
+
+    @Test
+    @DisplayName("Une écriture de cette instance met à jour le produit en cache")
+    void testLocalWriteRefreshesCachedProduct() {
+        Product apple = save("Pomme", "Fruits", 5);
+        assertEquals(5, productRepository.findById(apple.getId()).orElseThrow().getStock().intValue());
+
+        apple.setCategory("Légumes");
+        apple.setStock(0);
+        productRepository.save(apple);
+
+        Product cached = productRepository.findById(apple.getId()).orElseThrow();
+        assertEquals("Légumes", cached.getCategory());
+        assertEquals(0, cached.getStock().intValue());
+    }
+
+    @Test
+    @DisplayName("Une écriture d'un autre réplica est visible après son invalidation")
+    void testRemoteWriteRefreshedByInvalidation() {
+        Product apple = save("Pomme", "Fruits", 5);
+        assertEquals(5, productRepository.findById(apple.getId()).orElseThrow().getStock().intValue());
+
+        // Écriture d'un autre réplica : Hibernate n'en sait rien, le produit en cache est servi
+        new JdbcTemplate(dataSource).update(
+                "UPDATE products SET category_id = ?, stock = 0, version = version + 1 WHERE id = ?",
+                categoryDictionary.findOrCreate("Légumes"), apple.getId());
+        assertEquals(5, productRepository.findById(apple.getId()).orElseThrow().getStock().intValue());
+
+        invalidator.onInvalidation(new ProductInvalidation(apple.getId(), apple.getVersion() + 1, "replica-2", Instant.now()));
+
+        Product reloaded = productRepository.findById(apple.getId()).orElseThrow();
+        assertEquals(0, reloaded.getStock().intValue());
+        assertEquals("Légumes", reloaded.getCategory());
+    }
+
+    @Test
+    @DisplayName("Les succès et les échecs de chaque région sont publiés")
+    void testMetrics() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        secondLevelCacheMetrics.bindTo(registry);
+        assertNotNull(registry.find("product.l2cache.hit-ratio").tag("region", CacheRegions.PRODUCT).gauge());
+        assertNotNull(registry.find("product.l2cache.requests").tag("region", CacheRegions.PRODUCT).tag("result", "hit").functionCounter());
+        assertNotNull(registry.find("product.l2cache.requests").tag("region", CacheRegions.PRODUCT).tag("result", "miss").functionCounter());
+        Product apple = save("Pomme", "Fruits", 5);
+        // Évincé pour que la première lecture soit un échec
+        invalidator.onInvalidation(new ProductInvalidation(apple.getId(), apple.getVersion(), "replica-2", Instant.now()));
+        // Les statistiques Hibernate sont cumulées sur tout le contexte, partagé entre les tests
+        double hits = requests(registry, CacheRegions.PRODUCT, "hit");
+        double misses = requests(registry, CacheRegions.PRODUCT, "miss");
+
+        productRepository.findById(apple.getId());
+        productRepository.findById(apple.getId());
+
+        assertEquals(misses + 1, requests(registry, CacheRegions.PRODUCT, "miss"));
+        assertEquals(hits + 1, requests(registry, CacheRegions.PRODUCT, "hit"));
+        double hitRatio = registry.get("product.l2cache.hit-ratio").tag("region", CacheRegions.PRODUCT).gauge().value();
+        assertTrue(hitRatio > 0 && hitRatio < 1, "Taux de succès : " + hitRatio);
+    }
+
+    private static double requests(MeterRegistry registry, String region, String result) {
+        return registry.get("product.l2cache.requests").tag("region", region).tag("result", result).functionCounter().count();
+    }
+}
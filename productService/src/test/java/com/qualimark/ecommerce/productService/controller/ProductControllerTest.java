@@ -1,6 +1,10 @@
 package com.qualimark.ecommerce.productService.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qualimark.ecommerce.productService.cache.ProductResponseCache;
+import com.qualimark.ecommerce.productService.index.RankingCriterion;
 import com.qualimark.ecommerce.productService.model.Product;
 import com.qualimark.ecommerce.productService.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,15 +14,22 @@ import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -31,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * sans démarrer le contexte Spring complet. Le ProductService est mocké.
  */
 @WebMvcTest(ProductController.class)
+@Import(ProductResponseCache.class)
 class ProductControllerTest {
 
     @Autowired
@@ -104,6 +116,50 @@ class ProductControllerTest {
         verify(productService, times(1)).getProductById(1L);
     }
 
+    @Test
+    void testGetProductById_Gzip() throws Exception {
+        // Given
+        testProduct.setVersion(3L);
+        when(productService.getProductById(1L)).thenReturn(Optional.of(testProduct));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/1").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        // Then
+        byte[] json;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            json = gzip.readAllBytes();
+        }
+        Product decoded = objectMapper.readValue(json, Product.class);
+        assertEquals("Test Product", decoded.getName());
+        assertEquals(3L, decoded.getVersion());
+    }
+
+    @Test
+    void testGetProductById_Cbor() throws Exception {
+        // Given
+        when(productService.getProductById(1L)).thenReturn(Optional.of(testProduct));
+        MediaType cbor = MediaType.parseMediaType("application/cbor");
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/1").accept(cbor))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(cbor))
+                .andReturn();
+
+        // Then
+        Product decoded = new CBORMapper().registerModule(new JavaTimeModule())
+                .readValue(result.getResponse().getContentAsByteArray(), Product.class);
+        assertEquals(1L, decoded.getId());
+        assertEquals("Test Product", decoded.getName());
+        assertEquals(new BigDecimal("10.00"), decoded.getPrice());
+        assertEquals(testProduct.getCreatedAt(), decoded.getCreatedAt());
+    }
+
     @Test
     void testGetProductById_NotFound() throws Exception {
         // Given
@@ -293,6 +349,52 @@ class ProductControllerTest {
         verify(productService, times(1)).getProductsByCategory("Electronics");
     }
 
+    @Test
+    void testGetTopProductsByCategory() throws Exception {
+        // Given
+        when(productService.getTopProductsByCategory("Electronics", RankingCriterion.STOCK, Sort.Direction.DESC, 5))
+                .thenReturn(List.of(testProduct));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/category/Electronics/top")
+                        .param("by", "stock")
+                        .param("order", "desc")
+                        .param("n", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    void testGetTopProductsByCategoryWithInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/products/category/Electronics/top").param("by", "name"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/category/Electronics/top").param("n", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).getTopProductsByCategory(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testSearchProductsRanked() throws Exception {
+        // Given
+        when(productService.searchProducts("pates", 20)).thenReturn(List.of(testProduct2, testProduct));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/search/ranked").param("q", "pates"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(2));
+    }
+
+    @Test
+    void testSearchProductsRankedWithBlankQuery() throws Exception {
+        mockMvc.perform(get("/api/products/search/ranked").param("q", " "))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).searchProducts(any(), anyInt());
+    }
+
     @Test
     void testSearchProductsByName() throws Exception {
         // Given
@@ -326,6 +428,23 @@ class ProductControllerTest {
         verify(productService, times(1)).getAvailableProducts();
     }
 
+    @Test
+    void testGetProductsByPriceRange() throws Exception {
+        // Given
+        when(productService.getProductsByPriceRange(new BigDecimal("5.00"), new BigDecimal("20.00")))
+                .thenReturn(List.of(testProduct));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/price-range").param("min", "5.00").param("max", "20.00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Test Product"));
+        mockMvc.perform(get("/api/products/price-range").param("min", "20.00").param("max", "5.00"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, times(1)).getProductsByPriceRange(any(), any());
+    }
+
     @Test
     void testUpdateStock_Success() throws Exception {
         // Given
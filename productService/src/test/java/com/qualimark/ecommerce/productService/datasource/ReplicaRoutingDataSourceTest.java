@@ -0,0 +1,117 @@
+package com.qualimark.ecommerce.productService.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du routage lecture/écriture entre deux bases H2 locales
+ *
+ * Chaque base contient une table "node" indiquant son nom, ce qui permet
+ * de vérifier quelle base a servi la requête.
+ */
+@DisplayName("Tests ReplicaRoutingDataSource")
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private static DataSource h2(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        template.update("DELETE FROM node");
+        template.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("routing_primary");
+        replica = h2("routing_replica");
+        useReplicas(List.of(replica));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+    }
+
+    private void useReplicas(List<DataSource> replicas) {
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    private String servingNode(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    @DisplayName("Devrait servir les transactions en lecture seule depuis le réplica")
+    void testReadOnlyTransactionUsesReplica() {
+        assertEquals("routing_replica", servingNode(readOnlyTransaction));
+    }
+
+    @Test
+    @DisplayName("Devrait servir les transactions en écriture depuis la primaire")
+    void testReadWriteTransactionUsesPrimary() {
+        assertEquals("routing_primary", servingNode(readWriteTransaction));
+    }
+
+    @Test
+    @DisplayName("Devrait basculer sur la primaire si le réplica est indisponible")
+    void testFailoverToPrimary() {
+        // Given : aucun driver ne reconnaît cette URL, la connexion échoue
+        useReplicas(List.of(new DriverManagerDataSource("jdbc:unavailable:replica")));
+
+        // When & Then
+        assertEquals("routing_primary", servingNode(readOnlyTransaction));
+        assertEquals(0, routingDataSource.getHealthyReplicaCount());
+    }
+
+    @Test
+    @DisplayName("Devrait répartir les lectures entre les réplicas sains")
+    void testLoadBalancingAcrossReplicas() {
+        // Given
+        useReplicas(List.of(replica, h2("routing_replica2")));
+
+        // When
+        String first = servingNode(readOnlyTransaction);
+        String second = servingNode(readOnlyTransaction);
+
+        // Then
+        assertNotEquals(first, second);
+        assertEquals(2, routingDataSource.getHealthyReplicaCount());
+    }
+
+    @Test
+    @DisplayName("Devrait lire sur la primaire après une écriture récente du client")
+    void testReadYourWritesForcesPrimary() {
+        // Given
+        ReadYourWritesContext.forcePrimary();
+
+        // When & Then
+        assertEquals("routing_primary", servingNode(readOnlyTransaction));
+    }
+}
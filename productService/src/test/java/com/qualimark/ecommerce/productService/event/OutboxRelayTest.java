@@ -0,0 +1,115 @@
+package com.qualimark.ecommerce.productService.event;
+
+import com.qualimark.ecommerce.productService.model.OutboxEvent;
+import com.qualimark.ecommerce.productService.model.ProductChangeType;
+import com.qualimark.ecommerce.productService.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour le relais outbox
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires OutboxRelay")
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ProductEventSink sink;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, List.of(sink), mock(PlatformTransactionManager.class),
+                10, Duration.ofSeconds(30), Duration.ofDays(1));
+    }
+
+    private OutboxEvent outboxEvent(long id, long productId, ProductChangeType type) {
+        OutboxEvent event = new OutboxEvent(productId, type, 1L, 5);
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+
+    @Test
+    @DisplayName("Devrait publier le lot en attente puis le marquer comme publié")
+    @SuppressWarnings("unchecked")
+    void testRelayPublishesPendingBatch() {
+        // Given
+        List<OutboxEvent> pending = List.of(
+                outboxEvent(1L, 10L, ProductChangeType.CREATED),
+                outboxEvent(2L, 10L, ProductChangeType.STOCK_CHANGED)
+        );
+        when(outboxEventRepository.findClaimable(any(LocalDateTime.class), any(Pageable.class))).thenReturn(pending);
+
+        // When
+        int published = outboxRelay.relay();
+
+        // Then
+        assertEquals(2, published);
+        ArgumentCaptor<List<ProductChangeEvent>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(sink).publish(eventsCaptor.capture());
+        assertEquals(List.of(1L, 2L), eventsCaptor.getValue().stream().map(ProductChangeEvent::sequence).toList());
+        assertEquals(ProductChangeType.STOCK_CHANGED, eventsCaptor.getValue().get(1).type());
+
+        // La réclamation précède la publication, le marquage la suit
+        InOrder inOrder = inOrder(outboxEventRepository, sink);
+        inOrder.verify(outboxEventRepository).claim(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        inOrder.verify(sink).publish(any());
+        inOrder.verify(outboxEventRepository).markPublished(any(), any());
+
+        ArgumentCaptor<Collection<Long>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxEventRepository).markPublished(idsCaptor.capture(), any());
+        assertEquals(List.of(1L, 2L), List.copyOf(idsCaptor.getValue()));
+    }
+
+    @Test
+    @DisplayName("Ne devrait rien publier quand l'outbox est vide")
+    void testRelayWithEmptyOutbox() {
+        // Given
+        when(outboxEventRepository.findClaimable(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        int published = outboxRelay.relay();
+
+        // Then
+        assertEquals(0, published);
+        verifyNoInteractions(sink);
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas marquer le lot comme publié si un sink échoue")
+    void testRelayKeepsBatchWhenSinkFails() {
+        // Given
+        when(outboxEventRepository.findClaimable(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(outboxEvent(1L, 10L, ProductChangeType.DELETED)));
+        doThrow(new IllegalStateException("broker indisponible")).when(sink).publish(any());
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> outboxRelay.relay());
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+        verify(outboxEventRepository).claim(List.of(1L), null);
+    }
+}
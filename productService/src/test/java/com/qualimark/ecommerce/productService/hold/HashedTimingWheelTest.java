@@ -0,0 +1,72 @@
+package com.qualimark.ecommerce.productService.hold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de la roue temporelle
+ */
+@DisplayName("Tests unitaires HashedTimingWheel")
+class HashedTimingWheelTest {
+
+    private final HashedTimingWheel wheel = new HashedTimingWheel(Duration.ofMillis(10), 8, "test-wheel");
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    @DisplayName("Devrait exécuter la tâche à l'échéance")
+    void testExpires() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        HashedTimingWheel.Timeout timeout = wheel.schedule(latch::countDown, Duration.ofMillis(30));
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(timeout.isExpired());
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas exécuter une tâche annulée")
+    void testCancel() throws InterruptedException {
+        AtomicInteger executions = new AtomicInteger();
+
+        HashedTimingWheel.Timeout timeout = wheel.schedule(executions::incrementAndGet, Duration.ofMillis(30));
+        assertTrue(timeout.cancel());
+        Thread.sleep(100);
+
+        assertEquals(0, executions.get());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    @DisplayName("Devrait respecter un délai supérieur à un tour de roue")
+    void testMultipleRounds() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // 8 cases de 10 ms : 200 ms représentent plus de deux tours
+        wheel.schedule(latch::countDown, Duration.ofMillis(200));
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(190).toNanos());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une planification après l'arrêt")
+    void testScheduleAfterClose() {
+        wheel.close();
+
+        assertThrows(IllegalStateException.class, () -> wheel.schedule(() -> { }, Duration.ofMillis(10)));
+    }
+}
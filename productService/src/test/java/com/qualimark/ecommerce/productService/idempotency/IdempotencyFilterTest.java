@@ -0,0 +1,221 @@
+package com.qualimark.ecommerce.productService.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires du filtre d'idempotence
+ */
+@DisplayName("Tests unitaires IdempotencyFilter")
+class IdempotencyFilterTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(100, Duration.ofMinutes(5));
+    private final IdempotencyFilter filter = new IdempotencyFilter(store, Duration.ofSeconds(5));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final FilterChain createdChain = (request, response) -> {
+        executions.incrementAndGet();
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        httpResponse.setStatus(201);
+        httpResponse.setContentType("application/json");
+        httpResponse.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+    };
+
+    private static MockHttpServletRequest request(String uri, String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Devrait rejouer la réponse mémorisée sans réexécuter la requête")
+    void testReplay() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(request("/api/products", "key-1"), first, createdChain);
+
+        MockHttpServletResponse replay = new MockHttpServletResponse();
+        filter.doFilter(request("/api/products", "key-1"), replay, createdChain);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, replay.getStatus());
+        assertEquals("application/json", replay.getContentType());
+        assertEquals(first.getContentAsString(), replay.getContentAsString());
+        assertEquals("true", replay.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, store.getReplayed());
+    }
+
+    @Test
+    @DisplayName("Devrait distinguer une même clé sur des endpoints différents")
+    void testKeyScopedToEndpoint() throws Exception {
+        filter.doFilter(request("/api/products", "key-1"), new MockHttpServletResponse(), createdChain);
+        filter.doFilter(request("/api/products/1/holds", "key-1"), new MockHttpServletResponse(), createdChain);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mémoriser une réponse en erreur serveur")
+    void testServerErrorNotStored() throws Exception {
+        FilterChain failingChain = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+
+        filter.doFilter(request("/api/products", "key-1"), new MockHttpServletResponse(), failingChain);
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(request("/api/products", "key-1"), retry, createdChain);
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mémoriser un refus transitoire comme un dépassement de débit")
+    void testTransientClientErrorNotStored() throws Exception {
+        FilterChain throttledChain = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(429);
+        };
+
+        filter.doFilter(request("/api/products", "key-1"), new MockHttpServletResponse(), throttledChain);
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(request("/api/products", "key-1"), retry, createdChain);
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+    }
+
+    @Test
+    @DisplayName("Devrait mémoriser une erreur client déterministe")
+    void testDeterministicClientErrorStored() throws Exception {
+        FilterChain invalidChain = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(400);
+        };
+
+        filter.doFilter(request("/api/products", "key-1"), new MockHttpServletResponse(), invalidChain);
+        MockHttpServletResponse replay = new MockHttpServletResponse();
+        filter.doFilter(request("/api/products", "key-1"), replay, createdChain);
+
+        assertEquals(1, executions.get());
+        assertEquals(400, replay.getStatus());
+        assertEquals("true", replay.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une clé réutilisée avec un autre corps de requête")
+    void testKeyReusedWithDifferentBody() throws Exception {
+        MockHttpServletRequest first = request("/api/products", "key-1");
+        first.setContent("{\"name\":\"Pomme\"}".getBytes(StandardCharsets.UTF_8));
+        filter.doFilter(first, new MockHttpServletResponse(), createdChain);
+
+        MockHttpServletRequest other = request("/api/products", "key-1");
+        other.setContent("{\"name\":\"Poire\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(other, response, createdChain);
+
+        assertEquals(1, executions.get());
+        assertEquals(422, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une clé réutilisée avec d'autres paramètres d'URL")
+    void testKeyReusedWithDifferentQueryString() throws Exception {
+        MockHttpServletRequest first = request("/api/products/1/stock", "key-1");
+        first.setMethod("PATCH");
+        first.setQueryString("stock=5");
+        filter.doFilter(first, new MockHttpServletResponse(), createdChain);
+
+        MockHttpServletRequest other = request("/api/products/1/stock", "key-1");
+        other.setMethod("PATCH");
+        other.setQueryString("stock=7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(other, response, createdChain);
+
+        assertEquals(1, executions.get());
+        assertEquals(422, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Devrait transmettre le corps de la requête à l'exécution")
+    void testBodyForwarded() throws Exception {
+        MockHttpServletRequest request = request("/api/products", "key-1");
+        request.setContent("{\"name\":\"Pomme\"}".getBytes(StandardCharsets.UTF_8));
+        List<String> received = new ArrayList<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, response) ->
+                received.add(new String(servletRequest.getInputStream().readAllBytes(), StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("{\"name\":\"Pomme\"}"), received);
+    }
+
+    @Test
+    @DisplayName("Devrait faire attendre les doublons concurrents sur la première exécution")
+    void testConcurrentDuplicatesWait() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            createdChain.doFilter(request, response);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            responses.add(executor.submit(() -> {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(request("/api/products", "key-1"), response, slowChain);
+                return response;
+            }));
+            started.await();
+            for (int i = 0; i < 7; i++) {
+                responses.add(executor.submit(() -> {
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    filter.doFilter(request("/api/products", "key-1"), response, slowChain);
+                    return response;
+                }));
+            }
+            release.countDown();
+
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertEquals(201, response.get().getStatus());
+            }
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer les requêtes sans clé d'idempotence")
+    void testWithoutKey() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products");
+
+        filter.doFilter(request, new MockHttpServletResponse(), createdChain);
+        filter.doFilter(request, new MockHttpServletResponse(), createdChain);
+
+        assertEquals(2, executions.get());
+    }
+}
@@ -0,0 +1,51 @@
+package com.qualimark.ecommerce.productService.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires du plafond de l'IdempotencyStore
+ */
+@DisplayName("Tests unitaires IdempotencyStore")
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(1, Duration.ofMinutes(5));
+
+    @Test
+    @DisplayName("Ne devrait pas évincer une réclamation en cours quand le plafond est atteint")
+    void testInFlightClaimsNotEvicted() {
+        // Given
+        IdempotencyClaim first = new IdempotencyClaim("a");
+        IdempotencyClaim second = new IdempotencyClaim("b");
+        assertNull(store.claim("key-1", first));
+        assertNull(store.claim("key-2", second));
+
+        // When
+        store.cleanUp();
+
+        // Then : les doublons trouvent toujours l'exécution en cours
+        assertSame(first, store.claim("key-1", new IdempotencyClaim("a")));
+        assertSame(second, store.claim("key-2", new IdempotencyClaim("b")));
+    }
+
+    @Test
+    @DisplayName("Devrait plafonner le nombre de réponses mémorisées")
+    void testCompletedResponsesBounded() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            IdempotencyClaim claim = new IdempotencyClaim("a");
+            store.claim("key-" + i, claim);
+            store.complete("key-" + i, claim, new IdempotentResponse(200, null, null, new byte[0]));
+        }
+
+        // When
+        store.cleanUp();
+
+        // Then
+        assertEquals(1, store.size());
+    }
+}
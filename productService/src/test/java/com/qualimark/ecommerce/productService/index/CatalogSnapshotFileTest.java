@@ -0,0 +1,92 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires du format de fichier de l'instantané du catalogue
+ */
+@DisplayName("Tests unitaires CatalogSnapshotFile")
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private final CategoryDictionary categoryDictionary = mock(CategoryDictionary.class);
+
+    private static Product product(long id, String name, String category, String price, int stock, Long version) {
+        Product product = new Product(name, "Description de " + name, new BigDecimal(price), stock, category);
+        product.setId(id);
+        product.setVersion(version);
+        return product;
+    }
+
+    @Test
+    @DisplayName("Devrait relire les colonnes, les textes compactés et le jeton écrits")
+    void testRoundTrip() throws IOException {
+        when(categoryDictionary.find("Fruits")).thenReturn(1);
+        when(categoryDictionary.find("Desserts")).thenReturn(4);
+        ColumnarCatalogIndex index = new ColumnarCatalogIndex(categoryDictionary);
+        index.upsert(product(2, "Crème", "Desserts", "4.50", 0, 2L));
+        index.upsert(product(1, "Pomme", "Fruits", "1.20", 10, null));
+        index.publish();
+        // Le nom remplacé reste dans la zone en mémoire mais n'est pas écrit
+        index.upsert(product(2, "Crème brûlée", "Desserts", "4.50", 0, 3L));
+        index.publish();
+        Path path = directory.resolve("catalog.snapshot");
+        Instant watermarkAt = Instant.parse("2026-01-15T10:00:00Z");
+
+        CatalogSnapshotFile.write(path, new CatalogSnapshotFile.Contents(index.snapshot(), 42, watermarkAt));
+        CatalogSnapshotFile.Contents contents = CatalogSnapshotFile.read(path);
+        CatalogSnapshot snapshot = contents.snapshot();
+
+        assertEquals(42, contents.watermark());
+        assertEquals(watermarkAt, contents.watermarkAt());
+        assertEquals(2, snapshot.size());
+        int row = snapshot.rowOf(2);
+        assertEquals("Crème brûlée", snapshot.name(row));
+        assertEquals("Description de Crème brûlée", snapshot.description(row));
+        assertEquals(450, snapshot.priceInCents(row));
+        assertEquals(3, snapshot.version(row));
+        assertEquals(4, snapshot.categoryCode(row));
+        assertEquals("Pomme", snapshot.name(snapshot.rowOf(1)));
+        assertEquals(index.snapshot().names().byteSize(2), snapshot.names().bytes().capacity());
+        assertEquals(CatalogSnapshot.NO_VERSION, snapshot.version(snapshot.rowOf(1)));
+        // Les colonnes numériques sont lues dans le fichier projeté, pas recopiées sur le tas
+        assertTrue(snapshot.ids().isDirect());
+        assertTrue(snapshot.stocks().isDirect());
+        assertFalse(Files.exists(directory.resolve("catalog.snapshot.tmp")));
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un fichier tronqué ou d'un autre format")
+    void testRejectsInvalidFile() throws IOException {
+        when(categoryDictionary.find("Fruits")).thenReturn(1);
+        ColumnarCatalogIndex index = new ColumnarCatalogIndex(categoryDictionary);
+        index.upsert(product(1, "Pomme", "Fruits", "1.20", 10, 1L));
+        index.publish();
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(path, new CatalogSnapshotFile.Contents(index.snapshot(), 1, Instant.now()));
+
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+    }
+}
@@ -0,0 +1,123 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.dto.ProductChanges;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import com.qualimark.ecommerce.productService.service.ProductSyncService;
+import com.qualimark.ecommerce.productService.service.SyncTokenExpiredException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de la restauration du catalogue depuis le fichier d'instantané
+ */
+@DisplayName("Tests unitaires CatalogSnapshotStore")
+class CatalogSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final CategoryDictionary categoryDictionary = mock(CategoryDictionary.class);
+    private final ProductSyncService productSyncService = mock(ProductSyncService.class);
+    private final List<Product> restored = new ArrayList<>();
+    private final List<Product> upserted = new ArrayList<>();
+    private final List<Long> removed = new ArrayList<>();
+    private ColumnarCatalogIndex catalogIndex;
+    private CatalogSnapshotStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(categoryDictionary.find("Fruits")).thenReturn(1);
+        when(categoryDictionary.nameOf(1)).thenReturn("Fruits");
+        ColumnarCatalogIndex previous = new ColumnarCatalogIndex(categoryDictionary);
+        previous.upsert(product(1, "Pomme", 10, 1L));
+        previous.upsert(product(2, "Poire", 5, 1L));
+        previous.upsert(product(3, "Prune", 7, 1L));
+        previous.publish();
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(path, new CatalogSnapshotFile.Contents(previous.snapshot(), 5, Instant.now()));
+
+        catalogIndex = new ColumnarCatalogIndex(categoryDictionary);
+        store = new CatalogSnapshotStore(catalogIndex, productSyncService, categoryDictionary, path);
+    }
+
+    private static Product product(long id, String name, int stock, Long version) {
+        Product product = new Product(name, "Description de " + name, new BigDecimal("1.00"), stock, "Fruits");
+        product.setId(id);
+        product.setVersion(version);
+        return product;
+    }
+
+    private boolean restore() {
+        return store.restore(restored::add, product -> {
+            upserted.add(product);
+            catalogIndex.upsert(product);
+        }, id -> {
+            removed.add(id);
+            catalogIndex.remove(id);
+        });
+    }
+
+    @Test
+    @DisplayName("Devrait publier l'instantané du fichier et rejouer les modifications postérieures à son jeton")
+    void testRestoreReplaysChangesSinceWatermark() {
+        // Given : depuis le jeton 5, le produit 2 a été modifié et le produit 3 supprimé
+        Product updated = product(2, "Poire", 0, 2L);
+        when(productSyncService.getChangesSince("5", 1000))
+                .thenReturn(new ProductChanges(List.of(updated), List.of(), "6", true));
+        when(productSyncService.getChangesSince("6", 1000))
+                .thenReturn(new ProductChanges(List.of(), List.of(3L), "7", false));
+
+        // When
+        assertTrue(restore());
+
+        // Then : seuls les produits inchangés sont relus du fichier pour les autres index
+        assertEquals(List.of(1L), restored.stream().map(Product::getId).toList());
+        assertEquals("Pomme", restored.get(0).getName());
+        assertEquals(1L, restored.get(0).getVersion());
+        assertEquals(List.of(updated), upserted);
+        assertEquals(List.of(3L), removed);
+        CatalogSnapshot snapshot = catalogIndex.snapshot();
+        assertTrue(snapshot.epoch() > 0);
+        assertEquals(2, snapshot.size());
+        assertEquals(10, snapshot.stock(snapshot.rowOf(1)));
+        assertEquals(0, snapshot.stock(snapshot.rowOf(2)));
+        assertTrue(snapshot.rowOf(3) < 0);
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer un fichier dont les modifications postérieures ont été purgées")
+    void testExpiredWatermarkFallsBackToRebuild() {
+        // Given
+        when(productSyncService.getChangesSince("5", 1000)).thenThrow(new SyncTokenExpiredException("5"));
+
+        // When & Then : rien n'est appliqué, la reconstruction complète prend le relais
+        assertFalse(restore());
+        assertTrue(restored.isEmpty());
+        assertTrue(upserted.isEmpty());
+        assertTrue(removed.isEmpty());
+        assertEquals(0, catalogIndex.snapshot().epoch());
+    }
+
+    @Test
+    @DisplayName("Devrait signaler l'absence de fichier")
+    void testMissingFile() {
+        store = new CatalogSnapshotStore(catalogIndex, productSyncService, categoryDictionary,
+                directory.resolve("absent.snapshot"));
+
+        assertFalse(restore());
+        verifyNoInteractions(productSyncService);
+    }
+}
@@ -0,0 +1,68 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de l'index des classements par catégorie
+ */
+@DisplayName("Tests unitaires CategoryTopIndex")
+class CategoryTopIndexTest {
+
+    private CategoryTopIndex index;
+
+    private static Product product(long id, String category, String price, int stock) {
+        Product product = new Product("Produit " + id, "Description", new BigDecimal(price), stock, category);
+        product.setId(id);
+        return product;
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new CategoryTopIndex();
+        index.upsert(product(1, "Fruits", "3.00", 10));
+        index.upsert(product(2, "Fruits", "1.50", 40));
+        index.upsert(product(3, "Fruits", "2.00", 25));
+        index.upsert(product(4, "Légumes", "0.50", 100));
+    }
+
+    @Test
+    @DisplayName("Devrait retourner les produits les moins chers d'une catégorie")
+    void testCheapest() {
+        assertEquals(List.of(2L, 3L), index.top("Fruits", RankingCriterion.PRICE, Sort.Direction.ASC, 2));
+    }
+
+    @Test
+    @DisplayName("Devrait retourner les produits les plus stockés d'une catégorie")
+    void testMostStocked() {
+        assertEquals(List.of(2L, 3L, 1L), index.top("Fruits", RankingCriterion.STOCK, Sort.Direction.DESC, 10));
+    }
+
+    @Test
+    @DisplayName("Devrait reclasser un produit modifié et le déplacer de catégorie")
+    void testUpsertMovesEntry() {
+        index.upsert(product(1, "Fruits", "1.00", 10));
+        assertEquals(List.of(1L, 2L, 3L), index.top("Fruits", RankingCriterion.PRICE, Sort.Direction.ASC, 10));
+
+        index.upsert(product(1, "Légumes", "1.00", 10));
+        assertEquals(List.of(2L, 3L), index.top("Fruits", RankingCriterion.PRICE, Sort.Direction.ASC, 10));
+        assertEquals(List.of(4L, 1L), index.top("Légumes", RankingCriterion.PRICE, Sort.Direction.ASC, 10));
+    }
+
+    @Test
+    @DisplayName("Devrait retirer un produit supprimé")
+    void testRemove() {
+        index.remove(2L);
+
+        assertEquals(List.of(3L, 1L), index.top("Fruits", RankingCriterion.PRICE, Sort.Direction.ASC, 10));
+        assertTrue(index.top("Inconnue", RankingCriterion.PRICE, Sort.Direction.ASC, 10).isEmpty());
+    }
+}
@@ -0,0 +1,155 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires de l'instantané colonnaire du catalogue
+ */
+@DisplayName("Tests unitaires ColumnarCatalogIndex")
+class ColumnarCatalogIndexTest {
+
+    private ColumnarCatalogIndex index;
+
+    private static Product product(long id, String name, String category, String price, int stock) {
+        Product product = new Product(name, "Description", new BigDecimal(price), stock, category);
+        product.setId(id);
+        return product;
+    }
+
+    private static long[] select(int count, long[] out) {
+        return Arrays.copyOf(out, count);
+    }
+
+    @BeforeEach
+    void setUp() {
+        CategoryDictionary categoryDictionary = mock(CategoryDictionary.class);
+        when(categoryDictionary.find(anyString())).thenReturn(null);
+        when(categoryDictionary.find("Fruits")).thenReturn(1);
+        when(categoryDictionary.find("Desserts")).thenReturn(4);
+        index = new ColumnarCatalogIndex(categoryDictionary);
+        index.upsert(product(3, "Crème brûlée", "Desserts", "4.50", 0));
+        index.upsert(product(1, "Pomme", "Fruits", "1.20", 10));
+        index.upsert(product(2, "Poire", "Fruits", "2.00", 5));
+        index.publish();
+    }
+
+    @Test
+    @DisplayName("Devrait publier les produits triés par ID dans des colonnes")
+    void testPublishSortsRows() {
+        CatalogSnapshot snapshot = index.snapshot();
+
+        assertEquals(3, snapshot.size());
+        assertEquals(1L, snapshot.id(0));
+        assertEquals(3L, snapshot.id(2));
+        assertEquals(120L, snapshot.priceInCents(0));
+        assertEquals("Crème brûlée", snapshot.name(snapshot.rowOf(3)));
+        assertTrue(snapshot.rowOf(4) < 0);
+    }
+
+    @Test
+    @DisplayName("Devrait filtrer par disponibilité, catégorie et fourchette de prix")
+    void testFilters() {
+        CatalogSnapshot snapshot = index.snapshot();
+        long[] out = new long[snapshot.size()];
+
+        assertArrayEquals(new long[]{1, 2}, select(snapshot.selectAvailable(out), out));
+        assertArrayEquals(new long[]{3}, select(snapshot.selectByCategory(index.categoryCode("Desserts"), out), out));
+        assertArrayEquals(new long[]{2, 3}, select(snapshot.selectByPriceRange(150, 500, out), out));
+        // Un tableau trop petit reçoit les premiers IDs, le compte reste complet
+        long[] first = new long[1];
+        assertEquals(2, snapshot.selectAvailable(first));
+        assertArrayEquals(new long[]{1}, first);
+        assertEquals(4, index.categoryCode("Desserts"));
+        assertEquals(-1, index.categoryCode("Inconnue"));
+    }
+
+    @Test
+    @DisplayName("Ne devrait rendre les écritures visibles qu'à la publication suivante")
+    void testEpochSwap() {
+        CatalogSnapshot before = index.snapshot();
+        index.upsert(product(2, "Poire", "Fruits", "2.00", 0));
+        index.remove(1L);
+        index.upsert(product(4, "Abricot", "Fruits", "3.10", 7));
+
+        assertSame(before, index.snapshot());
+        index.publish();
+        CatalogSnapshot after = index.snapshot();
+
+        assertEquals(before.epoch() + 1, after.epoch());
+        assertEquals(3, before.size());
+        assertEquals(3, after.size());
+        long[] out = new long[after.size()];
+        assertArrayEquals(new long[]{4}, select(after.selectAvailable(out), out));
+        assertEquals("Poire", after.name(after.rowOf(2)));
+        assertEquals("Abricot", after.name(after.rowOf(4)));
+        assertTrue(after.rowOf(1) < 0);
+    }
+
+    @Test
+    @DisplayName("Devrait compléter les zones de texte de l'époque précédente sans les réallouer")
+    void testEpochsShareTextColumns() {
+        CatalogSnapshot before = index.snapshot();
+        index.upsert(product(2, "Poire Williams", "Fruits", "2.00", 5));
+        index.publish();
+        CatalogSnapshot after = index.snapshot();
+
+        assertSame(before.names().bytes(), after.names().bytes());
+        assertSame(before.descriptions().bytes(), after.descriptions().bytes());
+        assertEquals("Poire", before.name(before.rowOf(2)));
+        assertEquals("Poire Williams", after.name(after.rowOf(2)));
+        assertEquals("Pomme", after.name(after.rowOf(1)));
+    }
+
+    @Test
+    @DisplayName("Devrait allouer une zone plus grande et compacter les textes lorsque la zone est pleine")
+    void testFullTextColumnIsCompacted() {
+        CatalogSnapshot before = index.snapshot();
+        String longName = "Tarte ".repeat(20_000);
+        index.upsert(product(3, longName, "Desserts", "4.50", 1));
+        index.publish();
+        CatalogSnapshot after = index.snapshot();
+
+        assertNotSame(before.names().bytes(), after.names().bytes());
+        assertEquals("Crème brûlée", before.name(before.rowOf(3)));
+        assertEquals(longName, after.name(after.rowOf(3)));
+        assertEquals("Poire", after.name(after.rowOf(2)));
+        // Seules les chaînes vivantes ont été recopiées dans la nouvelle zone
+        assertEquals(after.names().byteSize(after.size()), after.names().start(2) + after.names().length(2));
+    }
+
+    @Test
+    @DisplayName("Ne devrait rien allouer pendant un filtrage")
+    void testFiltersDoNotAllocate() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CatalogSnapshot snapshot = index.snapshot();
+        long[] out = new long[snapshot.size()];
+        int category = index.categoryCode("Fruits");
+        long threadId = Thread.currentThread().threadId();
+
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        long matches = 0;
+        for (int i = 0; i < 100_000; i++) {
+            matches += snapshot.selectAvailable(out);
+            matches += snapshot.selectByCategory(category, out);
+            matches += snapshot.selectByPriceRange(100, 300, out);
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(600_000, matches);
+        // Tolérance pour la mesure elle-même
+        assertTrue(allocated < 1024, "Octets alloués : " + allocated);
+    }
+}
@@ -0,0 +1,147 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.dto.InventoryValue;
+import com.qualimark.ecommerce.productService.dto.ProductStockValue;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de la valeur du stock maintenue incrémentalement
+ */
+@DisplayName("Tests unitaires InventoryValueIndex")
+class InventoryValueIndexTest {
+
+    private ProductRepository productRepository;
+    private InventoryValueIndex index;
+
+    private static Product product(long id, String category, String price, int stock) {
+        Product product = new Product("Produit " + id, "Description", new BigDecimal(price), stock, category);
+        product.setId(id);
+        return product;
+    }
+
+    private static ProductStockValue row(long id, String category, String price, int stock) {
+        return new ProductStockValue(id, category, new BigDecimal(price), stock);
+    }
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        index = new InventoryValueIndex(productRepository);
+        index.upsert(product(1, "Fruits", "0.10", 3));
+        index.upsert(product(2, "Fruits", "0.20", 1));
+        index.upsert(product(3, "Légumes", "19.99", 7));
+    }
+
+    @Test
+    @DisplayName("Les totaux sont exacts au centime")
+    void testExactTotals() {
+        InventoryValue value = index.value();
+
+        // 0.10 × 3 + 0.20 en virgule flottante vaut 0.5000000000000001
+        assertEquals(new BigDecimal("0.50"), value.categories().get("Fruits"));
+        assertEquals(new BigDecimal("139.93"), value.categories().get("Légumes"));
+        assertEquals(new BigDecimal("140.43"), value.total());
+        assertNull(value.reconciledAt());
+    }
+
+    @Test
+    @DisplayName("Une mise à jour applique l'écart avec la contribution précédente")
+    void testUpdateAppliesDelta() {
+        index.upsert(product(1, "Fruits", "0.10", 13));
+        index.upsert(product(3, "Fruits", "19.99", 1));
+
+        InventoryValue value = index.value();
+        assertEquals(new BigDecimal("21.49"), value.categories().get("Fruits"));
+        assertEquals(new BigDecimal("0.00"), value.categories().get("Légumes"));
+        assertEquals(new BigDecimal("21.49"), value.total());
+    }
+
+    @Test
+    @DisplayName("Une suppression retire la contribution du produit")
+    void testRemove() {
+        index.remove(3L);
+        index.remove(42L);
+
+        assertEquals(new BigDecimal("0.50"), index.value().total());
+    }
+
+    @Test
+    @DisplayName("Le recalcul complet corrige les écarts et les mesure")
+    void testReconcileCorrectsDrift() {
+        // Le produit 2 a été supprimé et le produit 4 créé sans que l'index le sache
+        when(productRepository.findAllProjectedBy()).thenReturn(List.of(
+                row(1, "Fruits", "0.10", 3),
+                row(3, "Légumes", "19.99", 7),
+                row(4, "Légumes", "1.00", 5)));
+
+        index.reconcile();
+
+        InventoryValue value = index.value();
+        assertEquals(new BigDecimal("0.30"), value.categories().get("Fruits"));
+        assertEquals(new BigDecimal("144.93"), value.categories().get("Légumes"));
+        assertEquals(new BigDecimal("145.23"), value.total());
+        assertEquals(new BigDecimal("-4.80"), index.lastDrift());
+        assertNotNull(value.reconciledAt());
+
+        // Les écritures suivantes partent des contributions recalculées
+        index.remove(4L);
+        assertEquals(new BigDecimal("140.23"), index.value().total());
+    }
+
+    @Test
+    @DisplayName("Une écriture pendant le recalcul n'est pas écrasée par la lecture")
+    void testReconcileKeepsConcurrentWrites() {
+        when(productRepository.findAllProjectedBy()).thenAnswer(invocation -> {
+            // Lecture antérieure aux écritures suivantes, appliquées avant la fin du recalcul
+            List<ProductStockValue> rows = List.of(
+                    row(1, "Fruits", "0.10", 3),
+                    row(2, "Fruits", "0.20", 1),
+                    row(3, "Légumes", "19.99", 7));
+            index.upsert(product(1, "Fruits", "0.10", 30));
+            index.remove(2L);
+            index.upsert(product(5, "Fruits", "1.00", 1));
+            return rows;
+        });
+
+        index.reconcile();
+
+        assertEquals(new BigDecimal("4.00"), index.value().categories().get("Fruits"));
+        assertEquals(new BigDecimal("143.93"), index.value().total());
+        assertEquals(new BigDecimal("0.00"), index.lastDrift());
+    }
+
+    @Test
+    @DisplayName("Les totaux sont publiés en jauges")
+    void testGauges() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        index.bindTo(registry);
+        index.upsert(product(6, "Épicerie", "2.50", 2));
+
+        assertEquals(145.43, registry.get("product.inventory.value").gauge().value(), 1e-9);
+        assertEquals(5.0, registry.get("product.inventory.category.value").tag("category", "Épicerie").gauge().value(), 1e-9);
+        assertEquals(139.93, registry.get("product.inventory.category.value").tag("category", "Légumes").gauge().value(), 1e-9);
+        assertEquals(0.0, registry.get("product.inventory.value.drift").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Un produit sans prix ou sans stock ne compte pas")
+    void testIncompleteProduct() {
+        Product product = product(1, "Fruits", "0.10", 3);
+        product.setStock(null);
+        index.upsert(product);
+
+        assertEquals(Map.of("Fruits", new BigDecimal("0.20"), "Légumes", new BigDecimal("139.93")), index.value().categories());
+    }
+}
@@ -0,0 +1,89 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de l'index de recherche plein texte
+ */
+@DisplayName("Tests unitaires ProductSearchIndex")
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    private static Product product(long id, String name, String description) {
+        Product product = new Product(name, description, new BigDecimal("1.00"), 10, "Épicerie");
+        product.setId(id);
+        return product;
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.upsert(product(1, "Pâtes complètes", "Pâtes de blé complet"));
+        index.upsert(product(2, "Sauce tomate", "Sauce pour pâtes à la tomate fraîche"));
+        index.upsert(product(3, "Tomate cerise", "Barquette de tomates cerises"));
+        index.upsert(product(4, "Légumes du soleil", "Poêlée de légumes"));
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer les accents et la casse")
+    void testAccentInsensitive() {
+        assertEquals(List.of(4L), index.search("LEGUMES", 10));
+        assertEquals(1L, index.search("pates", 10).getFirst());
+    }
+
+    @Test
+    @DisplayName("Devrait tolérer une faute de frappe")
+    void testTypoTolerance() {
+        List<Long> results = index.search("tomatte", 10);
+
+        assertTrue(results.containsAll(List.of(2L, 3L)));
+        assertFalse(results.contains(1L));
+    }
+
+    @Test
+    @DisplayName("Devrait classer le nom avant la description")
+    void testNameRankedFirst() {
+        // "pates" est dans le nom du produit 1 et seulement dans la description du produit 2
+        assertEquals(List.of(1L, 2L), index.search("pâtes", 10));
+    }
+
+    @Test
+    @DisplayName("Devrait refléter les modifications et suppressions")
+    void testUpdateAndRemove() {
+        index.upsert(product(4, "Ratatouille", "Légumes cuisinés"));
+        assertTrue(index.search("soleil", 10).isEmpty());
+        assertEquals(List.of(4L), index.search("ratatouille", 10));
+
+        index.remove(4L);
+        assertTrue(index.search("ratatouille", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Devrait limiter le nombre de résultats")
+    void testLimit() {
+        assertEquals(1, index.search("tomate pates", 1).size());
+    }
+
+    @Test
+    @DisplayName("Devrait trouver les termes du vocabulaire à distance bornée")
+    void testTermTrieSearch() {
+        TermTrie trie = new TermTrie();
+        List.of("tomate", "tomates", "tome", "pates", "patates").forEach(trie::add);
+
+        List<TermTrie.Match> matches = trie.search("tomatte", 1);
+
+        assertEquals(List.of(new TermTrie.Match("tomate", 1)), matches);
+        assertEquals(2, trie.search("tomatte", 2).size());
+        assertEquals(5, trie.size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.qualimark.ecommerce.productService.index;
+
+import com.qualimark.ecommerce.productService.dto.ProductSuggestion;
+import com.qualimark.ecommerce.productService.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de l'index d'autocomplétion
+ */
+@DisplayName("Tests unitaires SuggestionIndex")
+class SuggestionIndexTest {
+
+    private SuggestionIndex index;
+
+    private static Product product(long id, String name, int stock) {
+        Product product = new Product(name, "Description", new BigDecimal("1.00"), stock, "Épicerie");
+        product.setId(id);
+        return product;
+    }
+
+    private List<Long> suggest(String prefix) {
+        return index.suggest(prefix, SuggestionIndex.TOP_K).stream().map(ProductSuggestion::id).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex();
+        index.upsert(product(1, "Tomate cerise", 10));
+        index.upsert(product(2, "Sauce tomate", 50));
+        index.upsert(product(3, "Pâtes complètes", 30));
+        index.upsert(product(4, "Tomme de Savoie", 5));
+    }
+
+    @Test
+    @DisplayName("Devrait suggérer par début du nom ou d'un mot, les plus stockés d'abord")
+    void testSuggest() {
+        assertEquals(List.of(2L, 1L, 4L), suggest("tom"));
+        assertEquals(List.of(2L, 1L), suggest("toma"));
+        assertEquals(List.of(2L), suggest("sauce t"));
+        assertTrue(suggest("xyz").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer la casse et les accents")
+    void testAccentInsensitive() {
+        assertEquals(List.of(3L), suggest("PATES"));
+        assertEquals(List.of(3L), suggest("pât"));
+    }
+
+    @Test
+    @DisplayName("Devrait refléter un renommage, un changement de stock et une suppression")
+    void testIncrementalUpdates() {
+        index.upsert(product(1, "Tomate cerise", 100));
+        assertEquals(List.of(1L, 2L, 4L), suggest("tom"));
+
+        index.upsert(product(4, "Reblochon", 5));
+        assertEquals(List.of(1L, 2L), suggest("tom"));
+        assertEquals(List.of(4L), suggest("reb"));
+
+        index.remove(2L);
+        assertEquals(List.of(1L), suggest("tom"));
+        assertTrue(suggest("sauce").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Devrait limiter le nombre de suggestions")
+    void testLimit() {
+        index = new SuggestionIndex();
+        for (long id = 10; id < 30; id++) {
+            index.upsert(product(id, "Tomate " + id, (int) id));
+        }
+
+        List<ProductSuggestion> suggestions = index.suggest("tomate", 3);
+
+        assertEquals(3, suggestions.size());
+        assertEquals(List.of(29L, 28L, 27L), suggestions.stream().map(ProductSuggestion::id).toList());
+        assertEquals(SuggestionIndex.TOP_K, index.suggest("tomate", SuggestionIndex.TOP_K).size());
+    }
+}
@@ -0,0 +1,129 @@
+package com.qualimark.ecommerce.productService.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires du limiteur de concurrence AIMD
+ */
+@DisplayName("Tests unitaires AdaptiveConcurrencyLimiter")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, 2, 10, Duration.ofMillis(100), 0.5, clock::get);
+    }
+
+    /**
+     * Simule une requête de la durée donnée qui se termine maintenant
+     */
+    private void complete(AdaptiveConcurrencyLimiter limiter, long latencyNanos, boolean success) {
+        limiter.tryAcquire();
+        clock.addAndGet(latencyNanos);
+        limiter.release(latencyNanos, success);
+    }
+
+    @Test
+    @DisplayName("Devrait rejeter les requêtes au-delà de la limite")
+    void testRejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    @DisplayName("Devrait augmenter la limite quand les requêtes sont rapides et la limite sollicitée")
+    void testAdditiveIncrease() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas augmenter la limite quand elle est peu sollicitée")
+    void testNoIncreaseWhenUnderused() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Devrait réduire la limite sur une requête lente ou en erreur")
+    void testMultiplicativeDecrease() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8);
+
+        complete(limiter, SLOW, true);
+        assertEquals(4, limiter.getLimit());
+
+        complete(limiter, FAST, false);
+        assertEquals(2, limiter.getLimit());
+
+        complete(limiter, SLOW, true);
+        assertEquals(2, limiter.getLimit(), "La limite ne descend pas sous le minimum");
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Ne devrait réduire la limite qu'une fois pour des requêtes lentes lancées ensemble")
+    void testOneDecreasePerWindow() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8);
+
+        // Quatre requêtes lancées ensemble se terminent lentement l'une après l'autre
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        clock.addAndGet(SLOW);
+        for (int i = 0; i < 4; i++) {
+            limiter.release(SLOW + i, true);
+            clock.incrementAndGet();
+        }
+        assertEquals(4, limiter.getLimit());
+
+        // Une requête commencée après la réduction peut en déclencher une nouvelle
+        complete(limiter, SLOW, true);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas dépasser la limite maximale")
+    void testMaxLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.release(FAST, true);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une configuration incohérente")
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(1, 2, 10, Duration.ofMillis(100), 0.5));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(4, 2, 10, Duration.ofMillis(100), 1.0));
+    }
+}
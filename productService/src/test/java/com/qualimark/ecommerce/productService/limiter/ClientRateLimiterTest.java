@@ -0,0 +1,42 @@
+package com.qualimark.ecommerce.productService.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de la limitation de débit par client
+ */
+@DisplayName("Tests unitaires ClientRateLimiter")
+class ClientRateLimiterTest {
+
+    // Régénération négligeable pendant le test : seule la capacité compte
+    private final ClientRateLimiter rateLimiter = new ClientRateLimiter(
+            0.001, 10, 1000, Duration.ofMinutes(10), new int[]{1, 5, 2});
+
+    @Test
+    @DisplayName("Devrait faire payer une recherche plus cher qu'une lecture")
+    void testRouteCosts() {
+        assertEquals(0, rateLimiter.tryAcquire("crawler", EndpointGroup.SEARCH));
+        assertEquals(0, rateLimiter.tryAcquire("crawler", EndpointGroup.SEARCH));
+        assertTrue(rateLimiter.tryAcquire("crawler", EndpointGroup.SEARCH) > 0);
+
+        assertEquals(1, rateLimiter.getThrottled(EndpointGroup.SEARCH));
+        assertEquals(0, rateLimiter.getThrottled(EndpointGroup.READ));
+    }
+
+    @Test
+    @DisplayName("Devrait limiter chaque client indépendamment")
+    void testPerClient() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("crawler", EndpointGroup.READ));
+        }
+        assertTrue(rateLimiter.tryAcquire("crawler", EndpointGroup.READ) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.2", EndpointGroup.READ));
+        assertEquals(2, rateLimiter.getTrackedClients());
+    }
+}
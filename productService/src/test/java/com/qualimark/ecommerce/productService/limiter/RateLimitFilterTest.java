@@ -0,0 +1,57 @@
+package com.qualimark.ecommerce.productService.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de l'identification des clients par le filtre de limitation de débit
+ */
+@DisplayName("Tests unitaires RateLimitFilter")
+class RateLimitFilterTest {
+
+    // Un seul jeton par client, régénération négligeable pendant le test
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new ClientRateLimiter(0.001, 1, 1000, Duration.ofMinutes(10), new int[]{1, 1, 1}),
+            "X-API-Key", Set.of("partner-key"));
+
+    private int send(String remoteAddr, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setRemoteAddr(remoteAddr);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer une clé d'API inconnue et limiter par adresse IP")
+    void testUnknownKeyFallsBackToAddress() throws Exception {
+        assertEquals(200, send("10.0.0.1", "random-1"));
+        assertEquals(429, send("10.0.0.1", "random-2"));
+    }
+
+    @Test
+    @DisplayName("Devrait limiter une clé d'API reconnue indépendamment de l'adresse IP")
+    void testKnownKeyHasItsOwnBucket() throws Exception {
+        assertEquals(200, send("10.0.0.1", null));
+        assertEquals(200, send("10.0.0.1", "partner-key"));
+        assertEquals(429, send("10.0.0.2", "partner-key"));
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas partager le seau d'une adresse IP égale à une clé d'API")
+    void testKeyDoesNotShareAddressBucket() throws Exception {
+        assertEquals(200, send("partner-key", null));
+        assertEquals(200, send("10.0.0.1", "partner-key"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.qualimark.ecommerce.productService.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires du seau à jetons
+ */
+@DisplayName("Tests unitaires TokenBucket")
+class TokenBucketTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    @DisplayName("Devrait autoriser une rafale jusqu'à la capacité puis rejeter")
+    void testBurst() {
+        TokenBucket bucket = new TokenBucket(MILLI, 3, 0);
+
+        assertEquals(0, bucket.tryConsume(1, 0));
+        assertEquals(0, bucket.tryConsume(2, 0));
+        assertEquals(MILLI, bucket.tryConsume(1, 0));
+    }
+
+    @Test
+    @DisplayName("Devrait régénérer les jetons avec le temps")
+    void testRefill() {
+        TokenBucket bucket = new TokenBucket(MILLI, 2, 0);
+        bucket.tryConsume(2, 0);
+
+        assertTrue(bucket.tryConsume(1, MILLI / 2) > 0);
+        assertEquals(0, bucket.tryConsume(1, MILLI));
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas accumuler plus de jetons que la capacité")
+    void testCapacityCap() {
+        TokenBucket bucket = new TokenBucket(MILLI, 2, 0);
+        long later = 1_000 * MILLI;
+
+        assertEquals(0, bucket.tryConsume(2, later));
+        assertTrue(bucket.tryConsume(1, later) > 0);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas allouer lors de la décision")
+    void testAllocationFree() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        TokenBucket bucket = new TokenBucket(MILLI, 100, 0);
+        long threadId = Thread.currentThread().threadId();
+
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            bucket.tryConsume(1, i * MILLI);
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        // Tolérance pour la mesure elle-même
+        assertTrue(allocated < 1024, "Octets alloués : " + allocated);
+    }
+}
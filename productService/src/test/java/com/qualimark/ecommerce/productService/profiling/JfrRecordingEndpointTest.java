@@ -0,0 +1,104 @@
+package com.qualimark.ecommerce.productService.profiling;
+
+import com.qualimark.ecommerce.productService.config.ProfilingProperties;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests de l'endpoint d'enregistrement JFR")
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint(
+            new ProfilingProperties(Duration.ofSeconds(1), Duration.ofSeconds(5), DataSize.ofMegabytes(64), "default"));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("L'enregistrement profile contient les événements du service")
+    void testRecordProfile() throws Exception {
+        Thread emitter = Thread.ofPlatform().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                emitEvents();
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        WebEndpointResponse<Resource> response;
+        try {
+            response = endpoint.record(Duration.ofMillis(500), "profile");
+        } finally {
+            emitter.interrupt();
+            emitter.join();
+        }
+
+        assertEquals(WebEndpointResponse.STATUS_OK, response.getStatus());
+        Path file = tempDir.resolve("recording.jfr");
+        try (InputStream input = response.getBody().getInputStream()) {
+            Files.copy(input, file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        RecordedEvent search = events.stream()
+                .filter(event -> event.getEventType().getName().equals(ProductSearchEvent.NAME))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("fulltext", search.getString("kind"));
+        assertEquals(3, search.getInt("rows"));
+        // Seuil levé et événement désactivé par défaut activé en mode profile
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals(ProductLookupEvent.NAME)));
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals(ProductCacheEvent.NAME)));
+    }
+
+    @Test
+    @DisplayName("Les paramètres hors bornes sont refusés")
+    void testRejectsInvalidParameters() throws Exception {
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.record(Duration.ofMinutes(1), null).getStatus());
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.record(Duration.ZERO, null).getStatus());
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.record(null, "inconnu").getStatus());
+    }
+
+    private static void emitEvents() {
+        ProductLookupEvent lookup = new ProductLookupEvent();
+        lookup.begin();
+        if (lookup.shouldCommit()) {
+            lookup.productId = 42;
+            lookup.found = true;
+            lookup.commit();
+        }
+
+        ProductCacheEvent cache = new ProductCacheEvent();
+        if (cache.shouldCommit()) {
+            cache.productId = 42;
+            cache.hit = true;
+            cache.commit();
+        }
+
+        ProductSearchEvent search = new ProductSearchEvent();
+        search.begin();
+        if (search.shouldCommit()) {
+            search.kind = "fulltext";
+            search.query = "pomme";
+            search.limit = 20;
+            search.rows = 3;
+            search.commit();
+        }
+    }
+}
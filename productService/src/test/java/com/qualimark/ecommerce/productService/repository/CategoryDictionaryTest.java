@@ -0,0 +1,107 @@
+package com.qualimark.ecommerce.productService.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration de la création des catégories dans la transaction d'un produit
+ */
+@DataJpaTest
+@Import(CategoryDictionary.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tests d'intégration CategoryDictionary")
+class CategoryDictionaryTest {
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private int committedRows(String name) {
+        // Seconde connexion, hors de la transaction en cours : ne voit que les catégories validées
+        try (Connection connection = dataSource.getConnection()) {
+            return new JdbcTemplate(new SingleConnectionDataSource(connection, true)).queryForObject(
+                    "SELECT COUNT(*) FROM categories WHERE name = ?", Integer.class, name);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait créer la catégorie sur la connexion de la transaction et la publier au commit")
+    void testCreatedInTransaction() {
+        // When
+        Integer id = transactionTemplate.execute(status -> {
+            Integer created = categoryDictionary.findOrCreate("Épicerie fine");
+            // Then : visible de la transaction uniquement
+            assertEquals(created, categoryDictionary.find("Épicerie fine"));
+            assertEquals("Épicerie fine", categoryDictionary.nameOf(created));
+            assertEquals(0, committedRows("Épicerie fine"));
+            return created;
+        });
+
+        // Then
+        assertEquals(1, committedRows("Épicerie fine"));
+        assertEquals(id, categoryDictionary.find("Épicerie fine"));
+    }
+
+    @Test
+    @DisplayName("Devrait oublier une catégorie créée par une transaction annulée")
+    void testRolledBack() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            categoryDictionary.findOrCreate("Surgelés");
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(0, committedRows("Surgelés"));
+        assertNull(categoryDictionary.find("Surgelés"));
+    }
+
+    @Test
+    @DisplayName("Devrait reprendre l'identifiant d'une catégorie créée par une autre instance")
+    void testCreatedElsewhere() {
+        // Given : le dictionnaire est chargé avant l'insertion par une autre instance
+        categoryDictionary.find("Chargement");
+        new JdbcTemplate(dataSource).update("INSERT INTO categories (name) VALUES (?)", "Boissons");
+        Integer expected = new JdbcTemplate(dataSource).queryForObject(
+                "SELECT id FROM categories WHERE name = ?", Integer.class, "Boissons");
+
+        // When
+        Integer id = transactionTemplate.execute(status -> categoryDictionary.findOrCreate("Boissons"));
+
+        // Then
+        assertEquals(expected, id);
+        assertEquals(1, committedRows("Boissons"));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -22,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * avec une base de données en mémoire (H2) sans démarrer le contexte Spring complet.
  */
 @DataJpaTest
+@Import(CategoryDictionary.class)
 @ActiveProfiles("test")
 @DisplayName("Tests d'intégration ProductRepository")
 class ProductRepositoryTest {
@@ -359,5 +361,66 @@ class ProductRepositoryTest {
         assertEquals(1, results.size());
         assertEquals("Café & Thé", results.get(0).getName());
     }
-}
 
+    @Test
+    @DisplayName("Devrait stocker la catégorie sous forme d'identifiant du dictionnaire")
+    void testCategoryStoredAsDictionaryId() {
+        // When
+        Object categoryId = entityManager.getEntityManager()
+                .createNativeQuery("SELECT category_id FROM products WHERE id = :id")
+                .setParameter("id", product1.getId())
+                .getSingleResult();
+        Object categoryName = entityManager.getEntityManager()
+                .createNativeQuery("SELECT name FROM categories WHERE id = :id")
+                .setParameter("id", categoryId)
+                .getSingleResult();
+
+        // Then
+        assertInstanceOf(Number.class, categoryId);
+        assertEquals("Electronics", categoryName);
+    }
+
+    @Test
+    @DisplayName("Devrait partager une même instance de nom de catégorie entre les produits chargés")
+    void testCategoryNameCanonicalInstance() {
+        // Given
+        entityManager.clear();
+
+        // When
+        List<Product> electronics = productRepository.findByCategory("Electronics");
+
+        // Then
+        assertEquals(3, electronics.size());
+        assertSame(electronics.get(0).getCategory(), electronics.get(1).getCategory());
+        assertSame(electronics.get(1).getCategory(), electronics.get(2).getCategory());
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas créer de catégorie pour une recherche dans une transaction en écriture")
+    void testSearchDoesNotCreateCategory() {
+        // When : la transaction du test n'est pas en lecture seule
+        productRepository.findByCategory("Recherche seulement");
+
+        // Then
+        assertEquals(0L, countCategories("Recherche seulement"));
+    }
+
+    @Test
+    @DisplayName("Devrait créer la catégorie d'un produit mis à jour")
+    void testUpdateCreatesCategory() {
+        // When
+        product1.setCategory("Informatique");
+        productRepository.saveAndFlush(product1);
+
+        // Then
+        assertEquals(1L, countCategories("Informatique"));
+        assertEquals(1, productRepository.findByCategory("Informatique").size());
+    }
+
+    private long countCategories(String name) {
+        return ((Number) entityManager.getEntityManager()
+                .createNativeQuery("SELECT COUNT(*) FROM categories WHERE name = :name")
+                .setParameter("name", name)
+                .getSingleResult()).longValue();
+    }
+}
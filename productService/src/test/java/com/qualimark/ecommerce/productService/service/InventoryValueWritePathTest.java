@@ -0,0 +1,144 @@
+package com.qualimark.ecommerce.productService.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qualimark.ecommerce.productService.cache.InvalidationBus;
+import com.qualimark.ecommerce.productService.cache.InvalidationTransport;
+import com.qualimark.ecommerce.productService.cache.ProductCache;
+import com.qualimark.ecommerce.productService.cache.ProductInvalidation;
+import com.qualimark.ecommerce.productService.dto.InventoryValue;
+import com.qualimark.ecommerce.productService.index.CategoryTopIndex;
+import com.qualimark.ecommerce.productService.index.ColumnarCatalogIndex;
+import com.qualimark.ecommerce.productService.index.InventoryValueIndex;
+import com.qualimark.ecommerce.productService.index.ProductIndexUpdater;
+import com.qualimark.ecommerce.productService.index.ProductSearchIndex;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Vérifie que la valeur du stock suit les écritures de l'API comme celles de
+ * l'import, à travers le bus d'invalidation et la mise à jour des index
+ */
+@DisplayName("Valeur du stock alimentée par les chemins d'écriture")
+class InventoryValueWritePathTest {
+
+    private final Map<Long, Product> rows = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private InventoryValueIndex inventoryValueIndex;
+    private ProductService productService;
+    private ProductImportService importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> store(invocation.getArgument(0)));
+        when(productRepository.saveAll(anyCollection())).thenAnswer(invocation -> {
+            List<Product> saved = new ArrayList<>();
+            for (Product product : (Collection<Product>) invocation.getArgument(0)) {
+                saved.add(store(product));
+            }
+            return saved;
+        });
+        when(productRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<Long>getArgument(0))));
+        when(productRepository.findByName(anyString())).thenAnswer(invocation -> rows.values().stream()
+                .filter(product -> product.getName().equals(invocation.getArgument(0)))
+                .findFirst());
+        when(productRepository.findByNameIn(anyCollection())).thenAnswer(invocation -> rows.values().stream()
+                .filter(product -> ((Collection<String>) invocation.getArgument(0)).contains(product.getName()))
+                .toList());
+
+        inventoryValueIndex = new InventoryValueIndex(productRepository);
+        ProductIndexUpdater updater = new ProductIndexUpdater(productRepository, List.of(inventoryValueIndex), mock(ObjectProvider.class));
+        InvalidationBus invalidationBus = new InvalidationBus(new LocalTransport(), List.of(updater), new SimpleMeterRegistry());
+
+        productService = new ProductService(productRepository, mock(OutboxService.class), invalidationBus,
+                new ProductCache(100, Duration.ofMinutes(5)), mock(CategoryTopIndex.class), mock(ProductSearchIndex.class),
+                new ColumnarCatalogIndex(mock(CategoryDictionary.class)));
+        importService = new ProductImportService(productService, mock(EntityManager.class),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper().registerModule(new JavaTimeModule()), 2, 1024);
+    }
+
+    private Product store(Product product) {
+        if (product.getId() == null) {
+            product.setId(sequence.incrementAndGet());
+        }
+        rows.put(product.getId(), product);
+        return product;
+    }
+
+    private static String line(String name, String price, int stock, String category) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Desc\",\"price\":" + price
+                + ",\"stock\":" + stock + ",\"category\":\"" + category + "\"}";
+    }
+
+    @Test
+    @DisplayName("Les produits créés par l'API et par l'import comptent dans les totaux")
+    void testTotalsAfterCreateAndImport() throws IOException {
+        // Given : 1.50 × 4
+        productService.createProduct(new Product("Pomme", "Desc", new BigDecimal("1.50"), 4, "Fruits"));
+        assertEquals(new BigDecimal("6.00"), inventoryValueIndex.value().total());
+
+        // When : Pomme passe à 1.50 × 10, Poire (2.00 × 3) et Carotte (0.99 × 100) sont créées
+        String ndjson = String.join("\n",
+                line("Poire", "2.00", 3, "Fruits"),
+                line("Pomme", "1.50", 10, "Fruits"),
+                line("Carotte", "0.99", 100, "Légumes"));
+        importService.importProducts(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), new ByteArrayOutputStream());
+
+        // Then
+        InventoryValue value = inventoryValueIndex.value();
+        assertEquals(new BigDecimal("21.00"), value.categories().get("Fruits"));
+        assertEquals(new BigDecimal("99.00"), value.categories().get("Légumes"));
+        assertEquals(new BigDecimal("120.00"), value.total());
+    }
+
+    /**
+     * Transport sans autre réplica : seules les livraisons locales du bus ont lieu
+     */
+    private static class LocalTransport implements InvalidationTransport {
+
+        @Override
+        public String name() {
+            return "local";
+        }
+
+        @Override
+        public void send(ProductInvalidation invalidation) {
+        }
+
+        @Override
+        public void subscribe(Consumer<ProductInvalidation> receiver) {
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.qualimark.ecommerce.productService.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qualimark.ecommerce.productService.dto.ProductImportReport;
+import com.qualimark.ecommerce.productService.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de l'import NDJSON de produits
+ */
+@DisplayName("Tests unitaires ProductImportService")
+class ProductImportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<List<String>> batches = new ArrayList<>();
+    private ProductService productService;
+    private EntityManager entityManager;
+    private ProductImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        entityManager = mock(EntityManager.class);
+        when(productService.upsertProducts(anyCollection())).thenAnswer(invocation -> {
+            Collection<Product> products = invocation.getArgument(0);
+            batches.add(products.stream().map(Product::getName).toList());
+            // Les produits dont le nom commence par "Existant" sont déjà au catalogue
+            int updated = (int) products.stream().filter(product -> product.getName().startsWith("Existant")).count();
+            return new UpsertResult(products.size() - updated, updated);
+        });
+        importService = new ProductImportService(productService, entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), objectMapper, 2, 256);
+    }
+
+    private static String product(String name, String price) {
+        return "{\"id\":99,\"name\":\"" + name + "\",\"description\":\"Desc\",\"price\":" + price
+                + ",\"stock\":5,\"category\":\"Test\"}";
+    }
+
+    private List<JsonNode> importLines(String... lines) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        importService.importProducts(new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)), output);
+        List<JsonNode> report = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            report.add(objectMapper.readTree(line));
+        }
+        return report;
+    }
+
+    @Test
+    @DisplayName("Les produits valides sont enregistrés par lots")
+    void testImportsInBatches() throws IOException {
+        List<JsonNode> report = importLines(
+                product("Pomme", "1.50"),
+                product("Existant Poire", "2.00"),
+                "",
+                product("Banane", "0.99") + "\r");
+
+        assertEquals(List.of(List.of("Pomme", "Existant Poire"), List.of("Banane")), batches);
+        assertEquals(List.of("progress", "progress", "summary"), report.stream().map(node -> node.get("type").asText()).toList());
+        JsonNode summary = report.get(2);
+        assertEquals(4, summary.get("lines").asLong());
+        assertEquals(2, summary.get("created").asLong());
+        assertEquals(1, summary.get("updated").asLong());
+        assertEquals(0, summary.get("failed").asLong());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Les lignes invalides sont rejetées avec leur numéro sans interrompre l'import")
+    void testReportsRowErrors() throws IOException {
+        List<JsonNode> report = importLines(
+                product("Pomme", "1.50"),
+                "{pas du json",
+                product("Prix négatif", "-3"),
+                product("Banane", "0.99"));
+
+        assertEquals(List.of(List.of("Pomme", "Banane")), batches);
+        assertEquals("error", report.get(0).get("type").asText());
+        assertEquals(2, report.get(0).get("line").asLong());
+        assertTrue(report.get(0).get("errors").get(0).asText().startsWith("JSON invalide"));
+        assertEquals(3, report.get(1).get("line").asLong());
+        assertEquals("price : Le prix doit être positif", report.get(1).get("errors").get(0).asText());
+        assertEquals(2, report.get(3).get("failed").asLong());
+    }
+
+    @Test
+    @DisplayName("Une ligne trop longue est rejetée sans être chargée en mémoire")
+    void testRejectsOversizedLine() throws IOException {
+        List<JsonNode> report = importLines(product("x".repeat(300), "1.00"), product("Pomme", "1.50"));
+
+        assertEquals("Ligne de plus de 256 octets", report.get(0).get("errors").get(0).asText());
+        assertEquals(List.of(List.of("Pomme")), batches);
+    }
+
+    @Test
+    @DisplayName("Les identifiants importés sont ignorés et le dernier doublon l'emporte")
+    void testIgnoresIdsAndDeduplicates() throws IOException {
+        List<Product> imported = new ArrayList<>();
+        when(productService.upsertProducts(anyCollection())).thenAnswer(invocation -> {
+            imported.addAll(invocation.getArgument(0));
+            return new UpsertResult(1, 0);
+        });
+
+        importLines(product("Pomme", "1.50"), product("Pomme", "1.75"));
+
+        assertEquals(1, imported.size());
+        assertNull(imported.get(0).getId());
+        assertEquals("1.75", imported.get(0).getPrice().toPlainString());
+    }
+
+    @Test
+    @DisplayName("L'échec d'un lot est signalé pour chacune de ses lignes")
+    void testReportsFailedBatch() throws IOException {
+        when(productService.upsertProducts(anyCollection())).thenThrow(new IllegalStateException("base indisponible"));
+
+        List<JsonNode> report = importLines(product("Pomme", "1.50"), product("Poire", "2.00"));
+
+        assertEquals(List.of(1L, 2L), report.stream().filter(node -> node.get("type").asText().equals("error"))
+                .map(node -> node.get("line").asLong()).toList());
+        assertEquals(2, report.get(report.size() - 1).get("failed").asLong());
+        verify(entityManager).clear();
+    }
+
+    @Test
+    @DisplayName("Le flux est lu au fur et à mesure des lots")
+    void testReadsIncrementally() throws IOException {
+        int[] served = {0};
+        // 10 000 lignes générées à la demande, jamais présentes en mémoire ensemble
+        InputStream input = new InputStream() {
+            private byte[] line = new byte[0];
+            private int position;
+
+            @Override
+            public int read() {
+                if (position == line.length) {
+                    if (served[0] == 10_000) {
+                        return -1;
+                    }
+                    line = (product("Produit " + served[0]++, "1.50") + "\n").getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                }
+                return line[position++];
+            }
+        };
+        when(productService.upsertProducts(anyCollection())).thenAnswer(invocation -> {
+            // Le premier lot est enregistré bien avant la fin du flux
+            if (batches.isEmpty()) {
+                batches.add(List.of());
+                assertTrue(served[0] < 1_000);
+            }
+            return new UpsertResult(((Collection<?>) invocation.getArgument(0)).size(), 0);
+        });
+
+        ProductImportReport summary = importService.importProducts(input, new ByteArrayOutputStream());
+
+        assertEquals(10_000, summary.lines());
+        assertEquals(10_000, summary.created());
+    }
+}
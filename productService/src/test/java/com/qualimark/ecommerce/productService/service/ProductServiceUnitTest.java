@@ -1,6 +1,14 @@
 package com.qualimark.ecommerce.productService.service;
 
+import com.qualimark.ecommerce.productService.cache.InvalidationBus;
+import com.qualimark.ecommerce.productService.cache.ProductCache;
+import com.qualimark.ecommerce.productService.index.CategoryTopIndex;
+import com.qualimark.ecommerce.productService.index.ColumnarCatalogIndex;
+import com.qualimark.ecommerce.productService.index.ProductSearchIndex;
+import com.qualimark.ecommerce.productService.index.RankingCriterion;
 import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.model.ProductChangeType;
+import com.qualimark.ecommerce.productService.repository.CategoryDictionary;
 import com.qualimark.ecommerce.productService.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,16 +17,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,6 +48,27 @@ public class ProductServiceUnitTest {
     @Mock
     private ProductRepository productRepository;
     
+    @Mock
+    private OutboxService outboxService;
+    
+    @Mock
+    private InvalidationBus invalidationBus;
+    
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(5));
+    
+    @Mock
+    private CategoryTopIndex categoryTopIndex;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    private final CategoryDictionary categoryDictionary = mock(CategoryDictionary.class);
+
+    // Aucun instantané publié : les filtres sont servis par le repository, sauf publication explicite
+    @Spy
+    private ColumnarCatalogIndex catalogIndex = new ColumnarCatalogIndex(categoryDictionary);
+
     @InjectMocks
     private ProductService productService;
     
@@ -86,6 +121,23 @@ public class ProductServiceUnitTest {
         verify(productRepository, times(1)).findById(productId);
     }
     
+    @Test
+    @DisplayName("Devrait servir un produit déjà chargé depuis le cache")
+    void testGetProductByIdFromCache() {
+        // Given
+        Long productId = 1L;
+        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        productService.getProductById(productId);
+        
+        // When
+        Optional<Product> result = productService.getProductById(productId);
+        
+        // Then
+        assertTrue(result.isPresent());
+        assertSame(testProduct, result.get());
+        verify(productRepository, times(1)).findById(productId);
+    }
+    
     @Test
     @DisplayName("Devrait retourner empty quand le produit n'existe pas")
     void testGetProductByIdNotFound() {
@@ -123,6 +175,7 @@ public class ProductServiceUnitTest {
         assertNotNull(createdProduct);
         verify(productRepository, times(1)).findByName(newProduct.getName());
         verify(productRepository, times(1)).save(newProduct);
+        verify(outboxService, times(1)).append(ProductChangeType.CREATED, testProduct);
     }
     
     @Test
@@ -139,6 +192,7 @@ public class ProductServiceUnitTest {
         assertEquals("Un produit avec ce nom existe déjà", exception.getMessage());
         verify(productRepository, times(1)).findByName(testProduct.getName());
         verify(productRepository, never()).save(any(Product.class));
+        verifyNoInteractions(outboxService);
     }
     
     @Test
@@ -170,6 +224,8 @@ public class ProductServiceUnitTest {
         
         verify(productRepository, times(1)).findById(productId);
         verify(productRepository, times(1)).save(testProduct);
+        verify(outboxService, times(1)).append(ProductChangeType.UPDATED, testProduct);
+        verify(invalidationBus, times(1)).broadcast(testProduct.getId(), testProduct.getVersion());
     }
     
     @Test
@@ -205,6 +261,8 @@ public class ProductServiceUnitTest {
         // Then
         verify(productRepository, times(1)).existsById(productId);
         verify(productRepository, times(1)).deleteById(productId);
+        verify(outboxService, times(1)).appendDeletion(productId);
+        verify(invalidationBus, times(1)).broadcast(productId, null);
     }
     
     @Test
@@ -278,7 +336,95 @@ public class ProductServiceUnitTest {
         assertEquals(1, products.size());
         verify(productRepository, times(1)).findAvailableProducts();
     }
-    
+
+    private Product publish(long id, String category, String price, int stock) {
+        Product product = new Product("Produit " + id, "Desc", new BigDecimal(price), stock, category);
+        product.setId(id);
+        product.setVersion(1L);
+        catalogIndex.upsert(product);
+        return product;
+    }
+
+    @Test
+    @DisplayName("Devrait filtrer les produits disponibles sur l'instantané publié")
+    void testGetAvailableProductsFromSnapshot() {
+        // Given : le produit 1 est en cache, le produit 3 ne l'est pas
+        when(categoryDictionary.find("Test")).thenReturn(7);
+        Product cached = publish(1L, "Test", "10.00", 5);
+        publish(2L, "Test", "10.00", 0);
+        Product loaded = publish(3L, "Test", "10.00", 8);
+        catalogIndex.publish();
+        productCache.put(cached);
+        when(productRepository.findAllById(List.of(3L))).thenReturn(List.of(loaded));
+
+        // When
+        List<Product> products = productService.getAvailableProducts();
+
+        // Then
+        assertEquals(List.of(cached, loaded), products);
+        verify(productRepository, never()).findAvailableProducts();
+    }
+
+    @Test
+    @DisplayName("Devrait filtrer par catégorie sur l'instantané et revérifier l'état chargé")
+    void testGetProductsByCategoryFromSnapshot() {
+        // Given : le produit 2 a changé de catégorie depuis la dernière publication
+        when(categoryDictionary.find("Fruits")).thenReturn(1);
+        when(categoryDictionary.find("Légumes")).thenReturn(2);
+        Product apple = publish(1L, "Fruits", "1.00", 5);
+        Product moved = publish(2L, "Fruits", "1.00", 5);
+        publish(3L, "Légumes", "1.00", 5);
+        catalogIndex.publish();
+        moved.setCategory("Légumes");
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(apple, moved));
+
+        // When
+        List<Product> products = productService.getProductsByCategory("Fruits");
+
+        // Then
+        assertEquals(List.of(apple), products);
+        verify(productRepository, never()).findByCategory(anyString());
+    }
+
+    @Test
+    @DisplayName("Devrait filtrer par fourchette de prix sur l'instantané publié")
+    void testGetProductsByPriceRangeFromSnapshot() {
+        // Given
+        when(categoryDictionary.find("Test")).thenReturn(7);
+        publish(1L, "Test", "4.99", 5);
+        Product inRange = publish(2L, "Test", "5.00", 5);
+        publish(3L, "Test", "20.01", 5);
+        catalogIndex.publish();
+        when(productRepository.findAllById(List.of(2L))).thenReturn(List.of(inRange));
+
+        // When
+        List<Product> products = productService.getProductsByPriceRange(new BigDecimal("5.00"), new BigDecimal("20.00"));
+
+        // Then
+        assertEquals(List.of(inRange), products);
+        verify(productRepository, never()).findByPriceRange(any(), any());
+    }
+
+    @Test
+    @DisplayName("Devrait charger les produits absents du cache par lots bornés")
+    void testSnapshotMissesLoadedInBoundedBatches() {
+        // Given : 2 500 produits en stock, aucun en cache
+        when(categoryDictionary.find("Test")).thenReturn(7);
+        for (long id = 1; id <= 2_500; id++) {
+            publish(id, "Test", "1.00", 5);
+        }
+        catalogIndex.publish();
+        when(productRepository.findAllById(any())).thenReturn(List.of());
+
+        // When
+        productService.getAvailableProducts();
+
+        // Then
+        ArgumentCaptor<List<Long>> batches = ArgumentCaptor.captor();
+        verify(productRepository, times(3)).findAllById(batches.capture());
+        assertEquals(List.of(1_000, 1_000, 500), batches.getAllValues().stream().map(List::size).toList());
+    }
+
     @Test
     @DisplayName("Devrait mettre à jour le stock d'un produit")
     void testUpdateStock() {
@@ -299,6 +445,7 @@ public class ProductServiceUnitTest {
         ArgumentCaptor<Product> productCaptor = ArgumentCaptor.forClass(Product.class);
         verify(productRepository, times(1)).save(productCaptor.capture());
         assertEquals(newStock, productCaptor.getValue().getStock());
+        verify(outboxService, times(1)).append(ProductChangeType.STOCK_CHANGED, testProduct);
     }
     
     @Test
@@ -320,6 +467,71 @@ public class ProductServiceUnitTest {
         verify(productRepository, never()).save(any(Product.class));
     }
     
+    @Test
+    @DisplayName("Devrait mettre à jour le stock de plusieurs produits en une fois")
+    void testUpdateStocks() {
+        // Given
+        when(productRepository.findAllById(any())).thenReturn(List.of(testProduct));
+        when(productRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Map<Long, Product> updated = productService.updateStocks(Map.of(1L, 80, 2L, 5));
+
+        // Then
+        assertEquals(1, updated.size());
+        assertEquals(80, updated.get(1L).getStock());
+        verify(outboxService, times(1)).appendAll(ProductChangeType.STOCK_CHANGED, List.of(testProduct));
+        verify(invalidationBus, times(1)).broadcast(1L, testProduct.getVersion());
+    }
+
+    @Test
+    @DisplayName("Devrait décrémenter le stock d'un produit")
+    void testDecreaseStock() {
+        // Given
+        Long productId = 1L;
+        int initialStock = testProduct.getStock();
+
+        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Product updatedProduct = productService.decreaseStock(productId, 3);
+
+        // Then
+        assertEquals(initialStock - 3, updatedProduct.getStock());
+        verify(outboxService, times(1)).append(ProductChangeType.STOCK_CHANGED, testProduct);
+    }
+
+    @Test
+    @DisplayName("Devrait refuser de décrémenter au-delà du stock")
+    void testDecreaseStockInsufficient() {
+        // Given
+        Long productId = 1L;
+        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+
+        // When & Then
+        assertThrows(InsufficientStockException.class,
+                () -> productService.decreaseStock(productId, testProduct.getStock() + 1));
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    @DisplayName("Devrait récupérer les produits classés d'une catégorie")
+    void testGetTopProductsByCategory() {
+        // Given
+        Product cheaper = new Product("Cheaper", "Description", new BigDecimal("5.00"), 10, "Test");
+        cheaper.setId(2L);
+        when(categoryTopIndex.top("Test", RankingCriterion.PRICE, Sort.Direction.ASC, 2)).thenReturn(List.of(2L, 1L));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(cheaper));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // When
+        List<Product> products = productService.getTopProductsByCategory("Test", RankingCriterion.PRICE, Sort.Direction.ASC, 2);
+
+        // Then
+        assertEquals(List.of(cheaper, testProduct), products);
+    }
+
     @Test
     @DisplayName("Devrait retourner true si le produit est disponible")
     void testIsProductAvailable() {
@@ -353,6 +565,53 @@ public class ProductServiceUnitTest {
         verify(productRepository, times(1)).findById(productId);
     }
     
+    @Test
+    @DisplayName("Devrait créer les nouveaux produits et mettre à jour les existants par nom")
+    void testUpsertProducts() {
+        // Given
+        Product incoming = new Product("Test Product", "Nouvelle description", new BigDecimal("12.00"), 40, "Test");
+        Product created = new Product("Nouveau", "Desc", new BigDecimal("3.00"), 7, "Test");
+        when(productRepository.findByNameIn(List.of("Test Product", "Nouveau"))).thenReturn(List.of(testProduct));
+        when(productRepository.saveAll(List.of(created))).thenAnswer(invocation -> {
+            created.setId(2L);
+            return List.of(created);
+        });
+        when(productRepository.saveAll(List.of(testProduct))).thenReturn(List.of(testProduct));
+
+        // When
+        UpsertResult result = productService.upsertProducts(List.of(incoming, created));
+
+        // Then
+        assertEquals(new UpsertResult(1, 1), result);
+        assertEquals("Nouvelle description", testProduct.getDescription());
+        assertEquals(new BigDecimal("12.00"), testProduct.getPrice());
+        assertEquals(40, testProduct.getStock());
+        verify(outboxService).appendAll(ProductChangeType.CREATED, List.of(created));
+        verify(outboxService).appendAll(ProductChangeType.UPDATED, List.of(testProduct));
+    }
+
+    @Test
+    @DisplayName("Devrait diffuser l'invalidation des produits créés comme mis à jour par l'import")
+    void testUpsertProductsBroadcastsAllChanges() {
+        // Given
+        Product created = new Product("Nouveau", "Desc", new BigDecimal("3.00"), 7, "Test");
+        when(productRepository.findByNameIn(List.of("Test Product", "Nouveau"))).thenReturn(List.of(testProduct));
+        when(productRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Product> saved = List.copyOf(invocation.getArgument(0));
+            saved.stream().filter(product -> product.getId() == null).forEach(product -> product.setId(2L));
+            return saved;
+        });
+
+        // When
+        productService.upsertProducts(List.of(
+                new Product("Test Product", "Desc", new BigDecimal("10.00"), 5, "Test"), created));
+
+        // Then
+        verify(invalidationBus).broadcast(eq(1L), any());
+        verify(invalidationBus).broadcast(eq(2L), any());
+        verifyNoMoreInteractions(invalidationBus);
+    }
+
     @Test
     @DisplayName("Devrait retourner false si le produit n'existe pas")
     void testIsProductAvailableNotFound() {
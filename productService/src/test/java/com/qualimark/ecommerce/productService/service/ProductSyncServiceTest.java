@@ -0,0 +1,207 @@
+package com.qualimark.ecommerce.productService.service;
+
+import com.qualimark.ecommerce.productService.dto.ProductChanges;
+import com.qualimark.ecommerce.productService.model.OutboxEvent;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.model.ProductChangeType;
+import com.qualimark.ecommerce.productService.repository.OutboxEventRepository;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour la synchronisation incrémentale du catalogue
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires ProductSyncService")
+class ProductSyncServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSyncService productSyncService;
+
+    @BeforeEach
+    void setUp() {
+        productSyncService = new ProductSyncService(outboxEventRepository, productRepository, Duration.ofSeconds(10), 1000);
+    }
+
+    private static OutboxEvent event(long id, long productId, ProductChangeType type) {
+        return event(id, productId, type, LocalDateTime.now().minusMinutes(1));
+    }
+
+    private static OutboxEvent event(long id, long productId, ProductChangeType type, LocalDateTime occurredAt) {
+        OutboxEvent event = new OutboxEvent(productId, type, 1L, 10);
+        ReflectionTestUtils.setField(event, "id", id);
+        ReflectionTestUtils.setField(event, "occurredAt", occurredAt);
+        return event;
+    }
+
+    private static Product product(long id) {
+        Product product = new Product("Produit " + id, "Desc", new BigDecimal("1.00"), 10, "Test");
+        product.setId(id);
+        return product;
+    }
+
+    @Test
+    @DisplayName("Devrait regrouper les modifications par produit et séparer les suppressions")
+    void testChangesAreCollapsedPerProduct() {
+        // Given
+        when(outboxEventRepository.findTopByOrderByIdAsc()).thenReturn(Optional.of(event(1L, 1L, ProductChangeType.CREATED)));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                event(11L, 1L, ProductChangeType.UPDATED),
+                event(12L, 2L, ProductChangeType.CREATED),
+                event(13L, 1L, ProductChangeType.STOCK_CHANGED),
+                event(14L, 3L, ProductChangeType.UPDATED),
+                event(15L, 3L, ProductChangeType.DELETED)
+        ));
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(product(1L), product(2L)));
+
+        // When
+        ProductChanges changes = productSyncService.getChangesSince("10", 100);
+
+        // Then
+        assertEquals(List.of(1L, 2L), changes.updated().stream().map(Product::getId).toList());
+        assertEquals(List.of(3L), changes.deleted());
+        assertEquals("15", changes.nextToken());
+        assertFalse(changes.hasMore());
+    }
+
+    @Test
+    @DisplayName("Devrait signaler comme supprimé un produit modifié puis supprimé hors de la page")
+    void testMissingProductIsReportedAsDeleted() {
+        // Given
+        when(outboxEventRepository.findTopByOrderByIdAsc()).thenReturn(Optional.of(event(1L, 1L, ProductChangeType.CREATED)));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(event(1L, 1L, ProductChangeType.CREATED), event(2L, 2L, ProductChangeType.CREATED)));
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(product(1L)));
+
+        // When
+        ProductChanges changes = productSyncService.getChangesSince("0", 2);
+
+        // Then
+        assertEquals(List.of(2L), changes.deleted());
+        assertTrue(changes.hasMore());
+    }
+
+    @Test
+    @DisplayName("Devrait conserver le jeton quand il n'y a aucune modification")
+    void testNoChanges() {
+        // Given
+        when(outboxEventRepository.findTopByOrderByIdAsc()).thenReturn(Optional.of(event(5L, 1L, ProductChangeType.CREATED)));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(20L), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        ProductChanges changes = productSyncService.getChangesSince("20", 100);
+
+        // Then
+        assertEquals("20", changes.nextToken());
+        assertTrue(changes.updated().isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un jeton dont les modifications suivantes ont été purgées")
+    void testExpiredToken() {
+        // Given
+        when(outboxEventRepository.findTopByOrderByIdAsc()).thenReturn(Optional.of(event(50L, 1L, ProductChangeType.CREATED)));
+
+        // When & Then
+        assertThrows(SyncTokenExpiredException.class, () -> productSyncService.getChangesSince("10", 100));
+    }
+
+    @Test
+    @DisplayName("Devrait retourner les produits dans l'ordre de leur première modification")
+    void testOrderIsStable() {
+        // Given
+        when(outboxEventRepository.findTopByOrderByIdAsc()).thenReturn(Optional.of(event(1L, 1L, ProductChangeType.CREATED)));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                event(11L, 2L, ProductChangeType.UPDATED),
+                event(12L, 1L, ProductChangeType.UPDATED),
+                event(13L, 2L, ProductChangeType.STOCK_CHANGED)
+        ));
+        // Le dépôt ne garantit pas l'ordre des produits chargés par IDs
+        when(productRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(product(1L), product(2L)));
+
+        // When
+        ProductChanges changes = productSyncService.getChangesSince("10", 100);
+
+        // Then
+        assertEquals(List.of(2L, 1L), changes.updated().stream().map(Product::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas avancer le jeton au-delà d'un événement récent dont les précédents peuvent être en cours de commit")
+    void testRecentEventsAreHeldBack() {
+        // Given : l'événement 12 est récent, un événement 11 encore invisible pourrait être validé après lui
+        when(outboxEventRepository.findTopByOrderByIdAsc()).thenReturn(Optional.of(event(1L, 1L, ProductChangeType.CREATED)));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                event(11L, 1L, ProductChangeType.UPDATED),
+                event(12L, 2L, ProductChangeType.UPDATED, LocalDateTime.now()),
+                event(13L, 3L, ProductChangeType.UPDATED)
+        ));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product(1L)));
+
+        // When
+        ProductChanges changes = productSyncService.getChangesSince("10", 100);
+
+        // Then
+        assertEquals(List.of(1L), changes.updated().stream().map(Product::getId).toList());
+        assertEquals("11", changes.nextToken());
+        assertFalse(changes.hasMore());
+    }
+
+    @Test
+    @DisplayName("Le jeton courant précède les événements récents")
+    void testCurrentTokenHoldsBackRecentEvents() {
+        when(outboxEventRepository.findTopByOccurredAtBeforeOrderByIdDesc(any(LocalDateTime.class)))
+                .thenReturn(Optional.of(event(41L, 1L, ProductChangeType.UPDATED)));
+        assertEquals("41", productSyncService.currentToken());
+
+        when(outboxEventRepository.findTopByOccurredAtBeforeOrderByIdDesc(any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(outboxEventRepository.findTopByOrderByIdAsc()).thenReturn(Optional.of(event(42L, 1L, ProductChangeType.UPDATED, LocalDateTime.now())));
+        assertEquals("41", productSyncService.currentToken());
+    }
+
+    @Test
+    @DisplayName("Devrait plafonner la limite demandée par le client")
+    void testLimitIsClamped() {
+        // Given
+        when(outboxEventRepository.findTopByOrderByIdAsc()).thenReturn(Optional.of(event(5L, 1L, ProductChangeType.CREATED)));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(20L), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        productSyncService.getChangesSince("20", Integer.MAX_VALUE);
+
+        // Then
+        verify(outboxEventRepository).findByIdGreaterThanOrderByIdAsc(20L, PageRequest.of(0, 1000));
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un jeton invalide")
+    void testInvalidToken() {
+        assertThrows(IllegalArgumentException.class, () -> productSyncService.getChangesSince("abc", 100));
+        assertThrows(IllegalArgumentException.class, () -> productSyncService.getChangesSince("-1", 100));
+    }
+}
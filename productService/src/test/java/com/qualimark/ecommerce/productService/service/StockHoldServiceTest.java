@@ -0,0 +1,178 @@
+package com.qualimark.ecommerce.productService.service;
+
+import com.qualimark.ecommerce.productService.model.HoldStatus;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.model.StockHold;
+import com.qualimark.ecommerce.productService.model.StockHoldTotal;
+import com.qualimark.ecommerce.productService.repository.ProductRepository;
+import com.qualimark.ecommerce.productService.repository.StockHoldRepository;
+import com.qualimark.ecommerce.productService.repository.StockHoldTotalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires des réservations de stock
+ */
+@DisplayName("Tests unitaires StockHoldService")
+class StockHoldServiceTest {
+
+    private StockHoldRepository stockHoldRepository;
+    private StockHoldTotalRepository stockHoldTotalRepository;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private StockHoldService stockHoldService;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldRepository = mock(StockHoldRepository.class);
+        stockHoldTotalRepository = mock(StockHoldTotalRepository.class);
+        productService = mock(ProductService.class);
+        productRepository = mock(ProductRepository.class);
+        when(stockHoldRepository.save(any(StockHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stockHoldService = new StockHoldService(stockHoldRepository, stockHoldTotalRepository, productService, productRepository,
+                mock(PlatformTransactionManager.class), Duration.ofMinutes(15), Duration.ofHours(2), Duration.ofMillis(100), 64);
+        // La réservation planifie son expiration à la fin de la transaction
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+        stockHoldService.shutdown();
+    }
+
+    private static Product product(int stock) {
+        Product product = new Product("Produit", "Desc", new BigDecimal("1.00"), stock, "Test");
+        product.setId(1L);
+        return product;
+    }
+
+    private static StockHoldTotal total(int reserved) {
+        StockHoldTotal total = mock(StockHoldTotal.class);
+        when(total.getReserved()).thenReturn(reserved);
+        return total;
+    }
+
+    private void givenStock(int stock, int reserved) {
+        StockHoldTotal total = total(reserved);
+        when(stockHoldTotalRepository.existsById(1L)).thenReturn(true);
+        when(stockHoldTotalRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(total));
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(stock));
+    }
+
+    @Test
+    @DisplayName("Devrait réserver sous le verrou des totaux du produit en tenant compte des réservations en base")
+    void testHoldWithinAvailableStock() {
+        // Given : 10 en stock, 7 déjà réservés par une instance quelconque
+        givenStock(10, 7);
+
+        // When
+        StockHold hold = stockHoldService.createHold(1L, 3, null);
+
+        // Then
+        assertEquals(3, hold.getQuantity().intValue());
+        verify(stockHoldRepository).save(hold);
+        verify(stockHoldTotalRepository).addReserved(1L, 3);
+        verify(stockHoldTotalRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une réservation dépassant le stock non réservé")
+    void testHoldBeyondAvailableStock() {
+        // Given
+        givenStock(10, 8);
+
+        // When & Then
+        assertThrows(InsufficientStockException.class, () -> stockHoldService.createHold(1L, 3, null));
+        verify(stockHoldRepository, never()).save(any());
+        verify(stockHoldTotalRepository, never()).addReserved(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Devrait créer les totaux à la première réservation, même si une réservation concurrente les crée aussi")
+    void testFirstHoldCreatesTotals() {
+        // Given
+        givenStock(10, 0);
+        when(stockHoldTotalRepository.existsById(1L)).thenReturn(false);
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(stockHoldTotalRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("doublon"));
+
+        // When
+        stockHoldService.createHold(1L, 3, null);
+
+        // Then
+        verify(stockHoldTotalRepository).addReserved(1L, 3);
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une réservation sur un produit inexistant")
+    void testHoldOnUnknownProduct() {
+        assertThrows(IllegalArgumentException.class, () -> stockHoldService.createHold(1L, 3, null));
+        verify(stockHoldTotalRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Devrait rendre la quantité réservée et décrémenter le stock à la confirmation")
+    void testConfirm() {
+        // Given
+        StockHold hold = new StockHold(1L, 3, LocalDateTime.now().plusMinutes(15));
+        when(stockHoldRepository.findById(hold.getId())).thenReturn(Optional.of(hold));
+        when(stockHoldRepository.transition(hold.getId(), HoldStatus.ACTIVE, HoldStatus.CONFIRMED)).thenReturn(1);
+
+        // When
+        stockHoldService.confirm(hold.getId());
+
+        // Then
+        assertEquals(HoldStatus.CONFIRMED, hold.getStatus());
+        verify(stockHoldTotalRepository).addReserved(1L, -3);
+        verify(productService).decreaseStock(1L, 3);
+    }
+
+    @Test
+    @DisplayName("Devrait expirer les réservations échues laissées par une autre instance")
+    void testReclaimExpiredHolds() {
+        // Given : une réservation échue, une autre déjà confirmée entre la lecture et l'expiration
+        StockHold abandoned = new StockHold(1L, 3, LocalDateTime.now().minusMinutes(1));
+        StockHold confirmed = new StockHold(1L, 2, LocalDateTime.now().minusMinutes(1));
+        when(stockHoldRepository.findByStatusAndExpiresAtBefore(eq(HoldStatus.ACTIVE), any(), any(Pageable.class)))
+                .thenReturn(List.of(abandoned, confirmed));
+        when(stockHoldRepository.findById(abandoned.getId())).thenReturn(Optional.of(abandoned));
+        when(stockHoldRepository.findById(confirmed.getId())).thenReturn(Optional.of(confirmed));
+        when(stockHoldRepository.transition(abandoned.getId(), HoldStatus.ACTIVE, HoldStatus.EXPIRED)).thenReturn(1);
+
+        // When
+        stockHoldService.reclaimExpiredHolds();
+
+        // Then
+        verify(stockHoldTotalRepository).addReserved(1L, -3);
+        verify(stockHoldTotalRepository, never()).addReserved(1L, -2);
+    }
+
+    @Test
+    @DisplayName("Devrait calculer le stock disponible à partir des réservations en base")
+    void testAvailableStock() {
+        // Given
+        when(productService.getProductById(1L)).thenReturn(Optional.of(product(10)));
+        StockHoldTotal total = total(4);
+        when(stockHoldTotalRepository.findById(1L)).thenReturn(Optional.of(total));
+
+        // When & Then
+        assertEquals(6, stockHoldService.getAvailableStock(1L));
+    }
+}
@@ -0,0 +1,140 @@
+package com.qualimark.ecommerce.productService.service;
+
+import com.qualimark.ecommerce.productService.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires du regroupement des mises à jour de stock
+ */
+@DisplayName("Tests unitaires StockUpdateBatcher")
+class StockUpdateBatcherTest {
+
+    private ProductService productService;
+    private StockUpdateBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        when(productService.updateStocks(anyMap())).thenAnswer(invocation -> {
+            Map<Long, Integer> stocks = invocation.getArgument(0);
+            Map<Long, Product> updated = new HashMap<>();
+            // Le produit 99 n'existe pas
+            stocks.forEach((id, stock) -> {
+                if (id != 99L) {
+                    updated.put(id, product(id, stock));
+                }
+            });
+            return updated;
+        });
+        batcher = new StockUpdateBatcher(productService, Duration.ofMillis(50), 500, 1000, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.shutdown();
+    }
+
+    private static Product product(Long id, int stock) {
+        Product product = new Product("Produit " + id, "Description", new BigDecimal("1.00"), stock, "Test");
+        product.setId(id);
+        return product;
+    }
+
+    @Test
+    @DisplayName("Devrait appliquer les mises à jour concurrentes en peu de transactions")
+    void testBatchesConcurrentUpdates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        try {
+            List<Future<Product>> results = new ArrayList<>();
+            for (long id = 1; id <= 20; id++) {
+                long productId = id;
+                results.add(executor.submit(() -> batcher.updateStock(productId, (int) productId * 10)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals((i + 1) * 10, results.get(i).get().getStock());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(productService, atMost(5)).updateStocks(anyMap());
+        verify(productService, never()).updateStock(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Devrait signaler un produit inexistant")
+    void testUnknownProduct() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> batcher.updateStock(99L, 5));
+
+        assertEquals("Produit non trouvé avec l'ID : 99", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un stock négatif sans passer par la file")
+    void testNegativeStock() {
+        assertThrows(IllegalArgumentException.class, () -> batcher.updateStock(1L, -1));
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Devrait appliquer unitairement un lot en échec")
+    void testFallbackOnBatchFailure() {
+        when(productService.updateStocks(anyMap())).thenThrow(new IllegalStateException("Conflit"));
+        when(productService.updateStock(1L, 7)).thenReturn(product(1L, 7));
+
+        Product product = batcher.updateStock(1L, 7);
+
+        assertEquals(7, product.getStock());
+        verify(productService).updateStock(1L, 7);
+    }
+
+    @Test
+    @DisplayName("Devrait borner l'attente du commit")
+    void testCommitTimeout() throws InterruptedException {
+        batcher.shutdown();
+        CountDownLatch release = new CountDownLatch(1);
+        when(productService.updateStocks(anyMap())).thenAnswer(invocation -> {
+            release.await();
+            return Map.of();
+        });
+        batcher = new StockUpdateBatcher(productService, Duration.ofMillis(1), 500, 1000, Duration.ofMillis(200));
+
+        try {
+            assertThrows(IllegalStateException.class, () -> batcher.updateStock(1L, 7));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait libérer les appelants quand le thread d'écriture meurt, puis appliquer seules les mises à jour")
+    void testWriterDeath() {
+        when(productService.updateStocks(anyMap())).thenThrow(new StackOverflowError());
+        when(productService.updateStock(1L, 8)).thenReturn(product(1L, 8));
+
+        assertThrows(IllegalStateException.class, () -> batcher.updateStock(1L, 7));
+
+        assertEquals(8, batcher.updateStock(1L, 8).getStock());
+        verify(productService).updateStock(1L, 8);
+    }
+}
@@ -0,0 +1,39 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests de l'endpoint des traces")
+class TraceEndpointTest {
+
+    private final Tracer tracer = new Tracer(1.0, Duration.ZERO, 10, 100);
+    private final TraceEndpoint endpoint = new TraceEndpoint(tracer);
+
+    @Test
+    @DisplayName("Les traces sont filtrées et limitées")
+    void testTraces() {
+        for (int i = 0; i < 3; i++) {
+            tracer.start("GET", "/api/products/" + i);
+            tracer.finish(200);
+        }
+
+        WebEndpointResponse<List<Trace>> response = endpoint.traces(null, null, 2);
+
+        assertEquals(WebEndpointResponse.STATUS_OK, response.getStatus());
+        assertEquals(List.of("/api/products/2", "/api/products/1"), response.getBody().stream().map(Trace::path).toList());
+        assertTrue(endpoint.traces(Duration.ofMinutes(1), null, null).getBody().isEmpty());
+        assertEquals("/api/products/0", endpoint.trace(tracer.traces().get(2).id()).path());
+    }
+
+    @Test
+    @DisplayName("Une limite négative est refusée")
+    void testNegativeLimit() {
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.traces(null, null, -1).getStatus());
+    }
+}
@@ -0,0 +1,100 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests du traceur")
+class TracerTest {
+
+    private static void spend(Duration duration) {
+        long end = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    @DisplayName("Une trace lente est conservée avec le temps propre de chaque couche")
+    void testRetainsSlowTrace() {
+        Tracer tracer = new Tracer(1.0, Duration.ofMillis(10), 10, 100);
+
+        assertTrue(tracer.start("GET", "/api/products/1"));
+        ActiveTrace trace = tracer.current();
+        int service = trace.open(Layer.SERVICE, "ProductService.getProductById");
+        int jdbc = trace.open(Layer.JDBC, "select p from product p");
+        spend(Duration.ofMillis(20));
+        trace.close(jdbc);
+        trace.close(service);
+        tracer.finish(200);
+
+        List<Trace> traces = tracer.traces();
+        assertEquals(1, traces.size());
+        Trace retained = traces.get(0);
+        assertEquals("/api/products/1", retained.path());
+        assertEquals(3, retained.spans().size());
+        assertEquals(List.of(0, 1, 2), retained.spans().stream().map(Span::depth).toList());
+        assertTrue(retained.selfTimeMicros().get(Layer.JDBC) >= 20_000);
+        // Le temps du SQL n'est pas compté une seconde fois dans le service
+        assertTrue(retained.selfTimeMicros().get(Layer.SERVICE) < 20_000);
+        assertNull(tracer.current());
+    }
+
+    @Test
+    @DisplayName("Une trace rapide est écartée sauf en erreur serveur")
+    void testDropsFastTrace() {
+        Tracer tracer = new Tracer(1.0, Duration.ofSeconds(10), 10, 100);
+
+        tracer.start("GET", "/api/products");
+        tracer.finish(200);
+        assertTrue(tracer.traces().isEmpty());
+
+        tracer.start("GET", "/api/products");
+        tracer.finish(500);
+        assertEquals(1, tracer.traces().size());
+    }
+
+    @Test
+    @DisplayName("Les requêtes non échantillonnées ne sont pas tracées")
+    void testSampling() {
+        Tracer tracer = new Tracer(0.0, Duration.ZERO, 10, 100);
+
+        assertFalse(tracer.start("GET", "/api/products"));
+        assertNull(tracer.current());
+    }
+
+    @Test
+    @DisplayName("Le tampon ne conserve que les traces les plus récentes")
+    void testRingBuffer() {
+        Tracer tracer = new Tracer(1.0, Duration.ZERO, 3, 100);
+
+        for (int i = 0; i < 5; i++) {
+            tracer.start("GET", "/api/products/" + i);
+            tracer.finish(200);
+        }
+
+        assertEquals(List.of("/api/products/4", "/api/products/3", "/api/products/2"),
+                tracer.traces().stream().map(Trace::path).toList());
+    }
+
+    @Test
+    @DisplayName("Les spans au-delà de la limite sont comptés mais écartés")
+    void testMaxSpans() {
+        Tracer tracer = new Tracer(1.0, Duration.ZERO, 10, 3);
+
+        tracer.start("GET", "/api/products");
+        ActiveTrace trace = tracer.current();
+        for (int i = 0; i < 5; i++) {
+            trace.close(trace.open(Layer.REPOSITORY, "ProductRepository.findById"));
+        }
+        tracer.finish(200);
+
+        Trace retained = tracer.traces().get(0);
+        assertEquals(3, retained.spans().size());
+        assertEquals(3, retained.droppedSpans());
+    }
+}
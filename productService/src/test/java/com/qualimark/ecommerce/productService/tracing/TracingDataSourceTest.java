@@ -0,0 +1,83 @@
+package com.qualimark.ecommerce.productService.tracing;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests de la DataSource tracée")
+class TracingDataSourceTest {
+
+    private final Tracer tracer = new Tracer(1.0, Duration.ZERO, 10, 100);
+
+    private TracingDataSource dataSource() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:tracing;DB_CLOSE_DELAY=-1");
+        return new TracingDataSource(h2, tracer);
+    }
+
+    @Test
+    @DisplayName("L'obtention de la connexion et les requêtes SQL sont tracées")
+    void testTracesConnectionAndStatements() throws Exception {
+        TracingDataSource dataSource = dataSource();
+
+        tracer.start("GET", "/api/products/1");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement("select ? from dual")) {
+                statement.setInt(1, 42);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    assertTrue(resultSet.next());
+                    assertEquals(42, resultSet.getInt(1));
+                }
+            }
+            connection.commit();
+        }
+        tracer.finish(200);
+
+        List<Span> spans = tracer.traces().get(0).spans();
+        assertEquals(List.of(Layer.HTTP, Layer.CONNECTION, Layer.JDBC, Layer.JDBC),
+                spans.stream().map(Span::layer).toList());
+        assertEquals("select ? from dual", spans.get(2).name());
+        assertEquals("commit", spans.get(3).name());
+    }
+
+    @Test
+    @DisplayName("Derrière le proxy paresseux des réplicas, l'attente du pool reste un span distinct")
+    void testLazyProxyOverTracedPool() throws Exception {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(dataSource());
+        // Le proxy lit une seule fois les réglages par défaut des connexions, sur une connexion du pool
+        dataSource.getConnection().close();
+
+        tracer.start("GET", "/api/products/1");
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1 from dual");
+             ResultSet resultSet = statement.executeQuery()) {
+            assertTrue(resultSet.next());
+        }
+        tracer.finish(200);
+
+        List<Span> spans = tracer.traces().get(0).spans();
+        assertEquals(List.of(Layer.HTTP, Layer.CONNECTION, Layer.JDBC), spans.stream().map(Span::layer).toList());
+        // La connexion est obtenue avant l'exécution, pas pendant
+        assertEquals(1, spans.get(1).depth());
+        assertEquals(1, spans.get(2).depth());
+    }
+
+    @Test
+    @DisplayName("Les connexions hors d'une requête tracée ne sont pas instrumentées")
+    void testUntracedConnection() throws Exception {
+        try (Connection connection = dataSource().getConnection()) {
+            assertInstanceOf(org.h2.jdbc.JdbcConnection.class, connection);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.qualimark.ecommerce.productService.warmup;
+
+import com.qualimark.ecommerce.productService.config.WarmUpProperties;
+import com.qualimark.ecommerce.productService.index.RankingCriterion;
+import com.qualimark.ecommerce.productService.model.Product;
+import com.qualimark.ecommerce.productService.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires du préchauffage
+ */
+@DisplayName("Tests unitaires WarmUp")
+class WarmUpTest {
+
+    @TempDir
+    Path directory;
+
+    private ProductService productService;
+    private DataSource dataSource;
+    private Connection connection;
+    private RequestSample sample;
+    private WarmUp warmUp;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        productService = mock(ProductService.class);
+        Product product = new Product("Pomme", "Description", new BigDecimal("1.20"), 10, "Fruits");
+        product.setId(42L);
+        when(productService.getProductById(anyLong())).thenReturn(Optional.of(product));
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        sample = new RequestSample(100, 1.0);
+        WarmUpProperties properties = new WarmUpProperties(true, 3, 10, 2, Duration.ofSeconds(30),
+                directory.resolve("sample.txt"), 1.0, 100);
+        warmUp = new WarmUp(properties, dataSource, productService, sample);
+    }
+
+    @Test
+    @DisplayName("Devrait rejouer les lectures connues sur ProductService")
+    void testReplayMapsRequests() {
+        assertTrue(warmUp.replay("/api/products/42"));
+        assertTrue(warmUp.replay("/api/products/category/Fruits%20rouges/top?by=stock&order=desc&n=5"));
+        assertTrue(warmUp.replay("/api/products/search/ranked?q=pomme+verte&limit=3"));
+        assertTrue(warmUp.replay("/api/products/available"));
+        assertFalse(warmUp.replay("/api/products/42/unknown"));
+        assertFalse(warmUp.replay("/actuator/health"));
+
+        verify(productService).getProductById(42L);
+        verify(productService).getTopProductsByCategory("Fruits rouges", RankingCriterion.STOCK, Sort.Direction.DESC, 5);
+        verify(productService).searchProducts("pomme verte", 3);
+        verify(productService).getAvailableProducts();
+    }
+
+    @Test
+    @DisplayName("Devrait être hors service jusqu'à la fin du préchauffage")
+    void testReadinessFollowsWarmUp() throws Exception {
+        sample.record("/api/products/42");
+        sample.record("/api/products/42");
+        sample.record("/api/products/category/Fruits");
+        sample.record("/api/products/inconnu/chemin/long/encore");
+
+        assertEquals(Status.OUT_OF_SERVICE, warmUp.health().getStatus());
+        warmUp.run();
+
+        assertEquals(Status.UP, warmUp.health().getStatus());
+        verify(dataSource, times(3)).getConnection();
+        verify(connection, times(3)).close();
+        assertEquals(1, warmUp.getPreloadedProducts());
+        assertEquals(0.75, warmUp.getCoverage());
+        // Préchargement puis deux passes sur l'échantillon
+        verify(productService, times(5)).getProductById(42L);
+        verify(productService, times(3)).getProductsByCategory("Fruits");
+    }
+
+    @Test
+    @DisplayName("Devrait sauvegarder l'échantillon et le recharger au démarrage suivant")
+    void testSampleRoundTrip() {
+        sample.record("/api/products/1");
+        sample.record("/api/products/search?name=pomme");
+        Path file = directory.resolve("sample.txt");
+        sample.save(file);
+
+        RequestSample reloaded = new RequestSample(100, 1.0);
+        reloaded.load(file);
+
+        assertEquals(List.of("/api/products/1", "/api/products/search?name=pomme"), reloaded.requests());
+    }
+}